@@ -0,0 +1,34 @@
+package com.dvoracekmartin.catalogservice.application.dto.importing;
+
+import com.dvoracekmartin.common.event.translation.LocalizedField;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One line of a catalog import. A row without an id creates the entity, a row with an id updates it.
+ * {@code media} names entries of the media archive uploaded along with the rows.
+ */
+@Data
+@NoArgsConstructor
+public class CatalogImportRowDTO {
+
+    private CatalogImportType type;
+    private Long id;
+    private Map<String, LocalizedField> localizedFields;
+    private int priority;
+    private boolean active;
+    private Double price;
+    private Double weightGrams;
+    private Long categoryId;
+    private List<Long> tagIds;
+    private boolean mixable;
+    private boolean displayInProducts;
+    private List<String> media;
+
+    // mixtures only
+    private String name;
+    private List<Long> productIds;
+}
@@ -0,0 +1,6 @@
+package com.dvoracekmartin.catalogservice.application.dto.importing;
+
+public enum CatalogImportType {
+    PRODUCT,
+    MIXTURE
+}
@@ -0,0 +1,9 @@
+package com.dvoracekmartin.catalogservice.application.dto.importing;
+
+public enum ImportRowStatus {
+    CREATED,
+    UPDATED,
+    INVALID,
+    // valid, but not applied because other rows of the import are invalid
+    NOT_APPLIED
+}
@@ -0,0 +1,16 @@
+package com.dvoracekmartin.catalogservice.application.dto.importing;
+
+import java.util.List;
+
+/**
+ * Outcome of a catalog import. An import is applied as a whole or not at all.
+ *
+ * @param applied false if any row is invalid, nothing has been written then
+ */
+public record ResponseImportResultDTO(
+        boolean applied,
+        int created,
+        int updated,
+        int invalid,
+        List<ResponseImportRowDTO> rows) {
+}
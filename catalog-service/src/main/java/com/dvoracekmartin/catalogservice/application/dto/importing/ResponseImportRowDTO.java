@@ -0,0 +1,18 @@
+package com.dvoracekmartin.catalogservice.application.dto.importing;
+
+import java.util.List;
+
+/**
+ * Outcome of one import row.
+ *
+ * @param line     line of the row in the uploaded file, starting at 1
+ * @param id       id of the created or updated entity, null if the row was not applied
+ * @param messages validation errors of an invalid row, or warnings of an applied one
+ */
+public record ResponseImportRowDTO(
+        int line,
+        CatalogImportType type,
+        Long id,
+        ImportRowStatus status,
+        List<String> messages) {
+}
@@ -0,0 +1,12 @@
+package com.dvoracekmartin.catalogservice.application.dto.listing;
+
+import java.util.List;
+
+/**
+ * One page of a catalog listing.
+ *
+ * @param items      entities of the page in {@code priority, id} order
+ * @param nextCursor cursor of the following page, null on the last page
+ */
+public record ResponsePageDTO<T>(List<T> items, String nextCursor) {
+}
@@ -0,0 +1,12 @@
+package com.dvoracekmartin.catalogservice.application.dto.search;
+
+/**
+ * Single facet value with the number of matching documents.
+ *
+ * @param key   category or tag id, or the label of a numeric bucket
+ * @param from  lower bound of a numeric bucket, inclusive
+ * @param to    upper bound of a numeric bucket, exclusive
+ * @param count matching documents
+ */
+public record ResponseFacetBucketDTO(String key, Double from, Double to, long count) {
+}
@@ -0,0 +1,34 @@
+package com.dvoracekmartin.catalogservice.application.dto.search;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Progress of the search reindex job.
+ *
+ * @param state              state of the last started job
+ * @param startedAt          start of the last job, null when no job ran yet
+ * @param finishedAt         end of the last job, null while it is running
+ * @param documentsIndexed   documents written into the new indices so far
+ * @param documentsTotal     documents to write in total
+ * @param documentsPerSecond throughput of the job so far
+ * @param indices            alias name to the versioned index the job writes into
+ * @param error              failure message of a failed job
+ */
+public record ResponseReindexStatusDTO(
+        State state,
+        Instant startedAt,
+        Instant finishedAt,
+        long documentsIndexed,
+        long documentsTotal,
+        double documentsPerSecond,
+        Map<String, String> indices,
+        String error) {
+
+    public enum State {
+        IDLE,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,15 @@
+package com.dvoracekmartin.catalogservice.application.dto.search;
+
+import java.util.List;
+
+/**
+ * Facet counts of all documents matching a search and its filters, not just the returned page.
+ */
+public record ResponseSearchFacetsDTO(
+        List<ResponseFacetBucketDTO> categories,
+        List<ResponseFacetBucketDTO> tags,
+        List<ResponseFacetBucketDTO> prices,
+        List<ResponseFacetBucketDTO> weights) {
+
+    public static final ResponseSearchFacetsDTO EMPTY = new ResponseSearchFacetsDTO(List.of(), List.of(), List.of(), List.of());
+}
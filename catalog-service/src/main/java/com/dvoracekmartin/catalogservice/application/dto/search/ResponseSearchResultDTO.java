@@ -7,9 +7,19 @@ import com.dvoracekmartin.common.dto.tag.ResponseTagDTO;
 
 import java.util.List;
 
+/**
+ * One page of search results.
+ *
+ * @param total      documents matching the search and its filters
+ * @param facets     facet counts over all matching documents
+ * @param nextCursor cursor of the following page, null on the last page
+ */
 public record ResponseSearchResultDTO(
         List<ResponseProductDTO> products,
         List<ResponseCategoryDTO> categories,
         List<ResponseMixtureDTO> mixtures,
-        List<ResponseTagDTO> tags) {
+        List<ResponseTagDTO> tags,
+        long total,
+        ResponseSearchFacetsDTO facets,
+        String nextCursor) {
 }
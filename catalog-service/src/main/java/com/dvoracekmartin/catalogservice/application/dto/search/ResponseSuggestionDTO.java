@@ -0,0 +1,13 @@
+package com.dvoracekmartin.catalogservice.application.dto.search;
+
+import com.dvoracekmartin.catalogservice.application.service.readmodel.CatalogSection;
+
+/**
+ * Single search-as-you-type suggestion.
+ *
+ * @param id   id of the suggested entity
+ * @param type section the entity belongs to
+ * @param name display name in the requested locale
+ */
+public record ResponseSuggestionDTO(Long id, CatalogSection type, String name) {
+}
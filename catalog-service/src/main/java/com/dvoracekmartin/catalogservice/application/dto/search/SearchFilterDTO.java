@@ -0,0 +1,26 @@
+package com.dvoracekmartin.catalogservice.application.dto.search;
+
+import java.util.List;
+
+/**
+ * Server-side search filters, bound from the query parameters. Absent filters do not restrict the result.
+ *
+ * @param categoryId        any of these categories
+ * @param tags              all of these tags
+ * @param priceMin          lowest price, inclusive
+ * @param priceMax          highest price, inclusive
+ * @param mixable           mixable products only, or non-mixable entities only
+ * @param displayInProducts shown in the product listings or not
+ * @param active            active entities only, or inactive entities only
+ */
+public record SearchFilterDTO(
+        List<Long> categoryId,
+        List<Long> tags,
+        Double priceMin,
+        Double priceMax,
+        Boolean mixable,
+        Boolean displayInProducts,
+        Boolean active) {
+
+    public static final SearchFilterDTO NONE = new SearchFilterDTO(null, null, null, null, null, null, null);
+}
@@ -1,10 +1,18 @@
 package com.dvoracekmartin.catalogservice.application.elasticsearch.document;
 
+import com.dvoracekmartin.common.event.translation.LocalizedField;
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.CompletionField;
 import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.annotations.Mapping;
+import org.springframework.data.elasticsearch.annotations.Setting;
+import org.springframework.data.elasticsearch.core.suggest.Completion;
+
+import java.util.List;
+import java.util.Map;
 
 @EqualsAndHashCode()
 @Data
@@ -12,14 +20,49 @@ import org.springframework.data.elasticsearch.annotations.FieldType;
 @AllArgsConstructor
 @Builder
 @Document(indexName = "mixtures")
+@Setting(settingPath = "elasticsearch/catalog-settings.json")
+@Mapping(mappingPath = "elasticsearch/catalog-mapping.json")
 public class MixtureDocument {
 
     @Id
     private String id;
 
-    @Field(type = FieldType.Text)
-    private String name;
+    /**
+     * Unique over all catalog indices, the tiebreaker of the search sort order and so of the search cursors.
+     */
+    @Field(type = FieldType.Keyword)
+    private String docKey;
+
+    @Field(type = FieldType.Integer)
+    private Integer priority;
+
+    @Field(type = FieldType.Boolean)
+    private boolean active;
+
+    @Field(type = FieldType.Long)
+    private Long categoryId;
+
+    @Field(type = FieldType.Long)
+    private List<Long> tagIds;
+
+    @Field(type = FieldType.Double)
+    private Double price;
+
+    @Field(type = FieldType.Double)
+    private Double weightGrams;
+
+    @Field(type = FieldType.Boolean)
+    private boolean displayInProducts;
+
+    /**
+     * Name and description per locale, each locale is analyzed with its own language analyzer.
+     */
+    @Field(type = FieldType.Object)
+    private Map<String, LocalizedField> localized;
 
-    @Field(type = FieldType.Text)
-    private String description;
+    /**
+     * Completion inputs per locale, with the locale and the active flag as suggester contexts.
+     */
+    @CompletionField(maxInputLength = 50)
+    private List<Completion> suggest;
 }
@@ -1,10 +1,16 @@
 package com.dvoracekmartin.catalogservice.application.elasticsearch.document;
 
+import com.dvoracekmartin.common.event.translation.LocalizedField;
 import lombok.*;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.annotations.Mapping;
+import org.springframework.data.elasticsearch.annotations.Setting;
+
+import java.util.List;
+import java.util.Map;
 
 @EqualsAndHashCode()
 @Data
@@ -12,14 +18,28 @@ import org.springframework.data.elasticsearch.annotations.FieldType;
 @AllArgsConstructor
 @Builder
 @Document(indexName = "tags")
+@Setting(settingPath = "elasticsearch/catalog-settings.json")
+@Mapping(mappingPath = "elasticsearch/catalog-mapping.json")
 public class TagDocument {
 
     @Id
     private String id;
 
-    @Field(type = FieldType.Text)
-    private String name;
+    /**
+     * Unique over all catalog indices, the tiebreaker of the search sort order and so of the search cursors.
+     */
+    @Field(type = FieldType.Keyword)
+    private String docKey;
+
+    @Field(type = FieldType.Integer)
+    private Integer priority;
+
+    @Field(type = FieldType.Boolean)
+    private boolean active;
 
-    @Field(type = FieldType.Text)
-    private String description;
+    /**
+     * Name and description per locale, each locale is analyzed with its own language analyzer.
+     */
+    @Field(type = FieldType.Object)
+    private Map<String, LocalizedField> localized;
 }
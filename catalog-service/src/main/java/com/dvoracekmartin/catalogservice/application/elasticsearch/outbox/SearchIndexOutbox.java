@@ -0,0 +1,37 @@
+package com.dvoracekmartin.catalogservice.application.elasticsearch.outbox;
+
+import com.dvoracekmartin.catalogservice.application.service.readmodel.CatalogSection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+/**
+ * Records search index changes as part of the writing transaction. The changes reach Elasticsearch through the
+ * {@link SearchOutboxDispatcher} once the transaction has committed, and never if it rolls back.
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchIndexOutbox {
+
+    private final SearchOutboxRepository searchOutboxRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void index(CatalogSection section, Long entityId) {
+        searchOutboxRepository.save(new SearchOutboxEntry(section, entityId, SearchOutboxOperation.INDEX));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void indexAll(CatalogSection section, Collection<Long> entityIds) {
+        searchOutboxRepository.saveAll(entityIds.stream()
+                .map(entityId -> new SearchOutboxEntry(section, entityId, SearchOutboxOperation.INDEX))
+                .toList());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void delete(CatalogSection section, Long entityId) {
+        searchOutboxRepository.save(new SearchOutboxEntry(section, entityId, SearchOutboxOperation.DELETE));
+    }
+}
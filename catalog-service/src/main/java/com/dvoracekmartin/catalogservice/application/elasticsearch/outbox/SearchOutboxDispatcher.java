@@ -0,0 +1,251 @@
+package com.dvoracekmartin.catalogservice.application.elasticsearch.outbox;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.VersionType;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import com.dvoracekmartin.catalogservice.application.elasticsearch.document.CategoryDocument;
+import com.dvoracekmartin.catalogservice.application.elasticsearch.document.MixtureDocument;
+import com.dvoracekmartin.catalogservice.application.elasticsearch.document.ProductDocument;
+import com.dvoracekmartin.catalogservice.application.elasticsearch.document.TagDocument;
+import com.dvoracekmartin.catalogservice.application.elasticsearch.service.ElasticsearchReindexService;
+import com.dvoracekmartin.catalogservice.application.elasticsearch.utils.ElasticsearchMapper;
+import com.dvoracekmartin.catalogservice.application.service.CatalogResponseAssembler;
+import com.dvoracekmartin.catalogservice.application.service.readmodel.CatalogSection;
+import com.dvoracekmartin.catalogservice.domain.repository.CategoryRepository;
+import com.dvoracekmartin.catalogservice.domain.repository.MixtureRepository;
+import com.dvoracekmartin.catalogservice.domain.repository.ProductRepository;
+import com.dvoracekmartin.catalogservice.domain.repository.TagRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the search outbox into Elasticsearch bulk requests.
+ * <p>
+ * Every run claims a batch of due entries with {@code SKIP LOCKED}, collapses the entries of one entity into its
+ * latest change and writes the current state of the entity. The outbox id is sent as an {@code external_gte}
+ * version, so a retried or late write never overwrites a newer document. Entries that fail are retried with an
+ * exponential backoff and are never dropped. During a rebuild the changes are written to the rebuilt index as well.
+ */
+@Component
+@Slf4j
+public class SearchOutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final SearchOutboxRepository searchOutboxRepository;
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchMapper elasticsearchMapper;
+    private final CatalogResponseAssembler catalogResponseAssembler;
+    private final ProductRepository productRepository;
+    private final MixtureRepository mixtureRepository;
+    private final CategoryRepository categoryRepository;
+    private final TagRepository tagRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${catalog.search.outbox.batch-size:200}")
+    private int batchSize = 200;
+    @Value("${catalog.search.outbox.retry-delay:PT1S}")
+    private Duration retryDelay = Duration.ofSeconds(1);
+    @Value("${catalog.search.outbox.max-retry-delay:PT5M}")
+    private Duration maxRetryDelay = Duration.ofMinutes(5);
+
+    public SearchOutboxDispatcher(SearchOutboxRepository searchOutboxRepository,
+                                  ElasticsearchClient elasticsearchClient,
+                                  ElasticsearchOperations elasticsearchOperations,
+                                  ElasticsearchMapper elasticsearchMapper,
+                                  CatalogResponseAssembler catalogResponseAssembler,
+                                  ProductRepository productRepository,
+                                  MixtureRepository mixtureRepository,
+                                  CategoryRepository categoryRepository,
+                                  TagRepository tagRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.searchOutboxRepository = searchOutboxRepository;
+        this.elasticsearchClient = elasticsearchClient;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.elasticsearchMapper = elasticsearchMapper;
+        this.catalogResponseAssembler = catalogResponseAssembler;
+        this.productRepository = productRepository;
+        this.mixtureRepository = mixtureRepository;
+        this.categoryRepository = categoryRepository;
+        this.tagRepository = tagRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.search.outbox.poll-interval:PT1S}")
+    public void dispatch() {
+        Integer claimed;
+        do {
+            try {
+                claimed = transactionTemplate.execute(status -> dispatchBatch());
+            } catch (RuntimeException e) {
+                log.error("Failed to dispatch the search outbox", e);
+                return;
+            }
+        } while (claimed != null && claimed == batchSize);
+    }
+
+    private int dispatchBatch() {
+        List<SearchOutboxEntry> entries = searchOutboxRepository.claimDue(Instant.now(), batchSize);
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        // the last change of an entity wins, its id is the version of the document
+        Map<EntityKey, List<SearchOutboxEntry>> entriesByEntity = entries.stream()
+                .collect(Collectors.groupingBy(entry -> new EntityKey(entry.getSection(), entry.getEntityId()),
+                        LinkedHashMap::new, Collectors.toList()));
+        Map<EntityKey, SearchOutboxEntry> latest = new LinkedHashMap<>();
+        entriesByEntity.forEach((key, changes) ->
+                latest.put(key, changes.stream().max(Comparator.comparing(SearchOutboxEntry::getId)).orElseThrow()));
+
+        Map<EntityKey, String> failures = new HashMap<>();
+        Map<EntityKey, Map<String, Object>> documents = loadDocuments(latest, failures);
+
+        // every operation has the key of its entity at the same position, an entity can have two operations
+        List<EntityKey> keys = new ArrayList<>();
+        List<BulkOperation> operations = new ArrayList<>();
+        Map<CatalogSection, List<String>> targetsBySection = new EnumMap<>(CatalogSection.class);
+        latest.forEach((key, entry) -> {
+            if (failures.containsKey(key)) {
+                return;
+            }
+            String id = key.entityId().toString();
+            long version = entry.getId();
+            Map<String, Object> document = documents.get(key);
+            for (String index : targetsBySection.computeIfAbsent(key.section(), this::targetsOf)) {
+                keys.add(key);
+                if (entry.getOperation() == SearchOutboxOperation.INDEX && document != null) {
+                    operations.add(BulkOperation.of(operation -> operation.index(write -> write
+                            .index(index).id(id).version(version).versionType(VersionType.ExternalGte)
+                            .document(document))));
+                } else {
+                    // deleted, or gone since the change was recorded
+                    operations.add(BulkOperation.of(operation -> operation.delete(delete -> delete
+                            .index(index).id(id).version(version).versionType(VersionType.ExternalGte))));
+                }
+            }
+        });
+
+        if (!operations.isEmpty()) {
+            try {
+                BulkResponse response = elasticsearchClient.bulk(bulk -> bulk.operations(operations));
+                for (int i = 0; i < response.items().size(); i++) {
+                    BulkResponseItem item = response.items().get(i);
+                    // a version conflict means a newer change is indexed already
+                    if (item.error() != null && !"version_conflict_engine_exception".equals(item.error().type())) {
+                        failures.put(keys.get(i), item.error().type() + ": " + item.error().reason());
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                keys.forEach(key -> failures.put(key, e.getMessage()));
+            }
+        }
+
+        List<SearchOutboxEntry> done = new ArrayList<>();
+        Instant now = Instant.now();
+        entriesByEntity.forEach((key, changes) -> {
+            String failure = failures.get(key);
+            if (failure == null) {
+                done.addAll(changes);
+                return;
+            }
+            changes.forEach(entry -> {
+                entry.setAttempts(entry.getAttempts() + 1);
+                entry.setAvailableAt(now.plus(backoff(entry.getAttempts())));
+                entry.setLastError(failure.length() > MAX_ERROR_LENGTH ? failure.substring(0, MAX_ERROR_LENGTH) : failure);
+            });
+            log.warn("Failed to index {} {} (attempt {}), retrying: {}", key.section(), key.entityId(),
+                    changes.get(0).getAttempts(), failure);
+        });
+        searchOutboxRepository.deleteAllInBatch(done);
+
+        log.debug("Dispatched {} search outbox entries, {} entities failed", done.size(), failures.size());
+        return entries.size();
+    }
+
+    // Current documents of the entities to index, keyed by entity. Entities that no longer exist are absent.
+    private Map<EntityKey, Map<String, Object>> loadDocuments(Map<EntityKey, SearchOutboxEntry> latest,
+                                                              Map<EntityKey, String> failures) {
+        Map<CatalogSection, List<Long>> idsBySection = latest.entrySet().stream()
+                .filter(change -> change.getValue().getOperation() == SearchOutboxOperation.INDEX)
+                .collect(Collectors.groupingBy(change -> change.getKey().section(),
+                        () -> new EnumMap<>(CatalogSection.class),
+                        Collectors.mapping(change -> change.getKey().entityId(), Collectors.toList())));
+
+        Map<EntityKey, Map<String, Object>> documents = new HashMap<>();
+        idsBySection.forEach((section, ids) -> {
+            try {
+                Map<Long, Object> sectionDocuments = switch (section) {
+                    case PRODUCTS -> byId(catalogResponseAssembler.assembleProducts(productRepository.findAllById(ids)).stream()
+                            .map(elasticsearchMapper::mapResponseProductDTOToProductDocument).toList(),
+                            document -> Long.valueOf(document.getId()));
+                    case MIXTURES -> byId(catalogResponseAssembler.assembleMixtures(mixtureRepository.findAllById(ids)).stream()
+                            .map(elasticsearchMapper::mapResponseMixtureDTOToMixtureDocument).toList(),
+                            document -> Long.valueOf(document.getId()));
+                    case CATEGORIES -> byId(catalogResponseAssembler.assembleCategories(categoryRepository.findAllById(ids)).stream()
+                            .map(elasticsearchMapper::mapResponseCategoryDTOToCategoryDocument).toList(),
+                            document -> Long.valueOf(document.getId()));
+                    case TAGS -> byId(catalogResponseAssembler.assembleTags(tagRepository.findAllById(ids)).stream()
+                            .map(elasticsearchMapper::mapResponseTagDTOToTagDocument).toList(),
+                            document -> Long.valueOf(document.getId()));
+                };
+                sectionDocuments.forEach((id, document) -> documents.put(new EntityKey(section, id),
+                        elasticsearchOperations.getElasticsearchConverter().mapObject(document)));
+            } catch (RuntimeException e) {
+                ids.forEach(id -> failures.put(new EntityKey(section, id), e.getMessage()));
+            }
+        });
+        return documents;
+    }
+
+    private static <T> Map<Long, Object> byId(List<T> documents, Function<T, Long> idExtractor) {
+        Map<Long, Object> byId = new HashMap<>();
+        documents.forEach(document -> byId.put(idExtractor.apply(document), document));
+        return byId;
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = retryDelay.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxRetryDelay) > 0 ? maxRetryDelay : delay;
+    }
+
+    // The read alias, and the index a running rebuild fills so the change is not lost when the aliases are swapped
+    private List<String> targetsOf(CatalogSection section) {
+        String alias = aliasOf(section);
+        String rebuildAlias = ElasticsearchReindexService.rebuildAlias(alias);
+        // checked before writing, a write to a missing alias would auto-create an index of that name
+        if (elasticsearchOperations.indexOps(IndexCoordinates.of(rebuildAlias)).exists()) {
+            return List.of(alias, rebuildAlias);
+        }
+        return List.of(alias);
+    }
+
+    private String aliasOf(CatalogSection section) {
+        Class<?> documentClass = switch (section) {
+            case PRODUCTS -> ProductDocument.class;
+            case MIXTURES -> MixtureDocument.class;
+            case CATEGORIES -> CategoryDocument.class;
+            case TAGS -> TagDocument.class;
+        };
+        return elasticsearchOperations.getIndexCoordinatesFor(documentClass).getIndexName();
+    }
+
+    private record EntityKey(CatalogSection section, Long entityId) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.dvoracekmartin.catalogservice.application.elasticsearch.outbox;
+
+import com.dvoracekmartin.catalogservice.application.service.readmodel.CatalogSection;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Pending change of the search indices, written in the same transaction as the entity change.
+ * The id grows monotonically and doubles as the external document version in Elasticsearch.
+ */
+@Entity
+@Table(name = "search_outbox", indexes = @Index(name = "idx_search_outbox_available_at", columnList = "available_at"))
+@Data
+@NoArgsConstructor
+public class SearchOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "section", nullable = false, length = 20)
+    private CatalogSection section;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", nullable = false, length = 10)
+    private SearchOutboxOperation operation;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "available_at", nullable = false)
+    private Instant availableAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    public SearchOutboxEntry(CatalogSection section, Long entityId, SearchOutboxOperation operation) {
+        Instant now = Instant.now();
+        this.section = section;
+        this.entityId = entityId;
+        this.operation = operation;
+        this.availableAt = now;
+        this.createdAt = now;
+    }
+}
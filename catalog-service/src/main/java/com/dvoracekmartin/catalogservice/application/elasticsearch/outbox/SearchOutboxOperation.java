@@ -0,0 +1,6 @@
+package com.dvoracekmartin.catalogservice.application.elasticsearch.outbox;
+
+public enum SearchOutboxOperation {
+    INDEX,
+    DELETE
+}
@@ -0,0 +1,19 @@
+package com.dvoracekmartin.catalogservice.application.elasticsearch.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface SearchOutboxRepository extends JpaRepository<SearchOutboxEntry, Long> {
+
+    /**
+     * Locks the oldest due entries. Rows locked by another dispatcher are skipped, so replicas drain the outbox
+     * side by side without blocking each other.
+     */
+    @Query(value = "SELECT * FROM search_outbox WHERE available_at <= :now ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<SearchOutboxEntry> claimDue(@Param("now") Instant now, @Param("limit") int limit);
+}
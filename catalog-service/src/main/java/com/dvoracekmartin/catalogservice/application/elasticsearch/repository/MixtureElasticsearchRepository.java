@@ -4,13 +4,6 @@ import com.dvoracekmartin.catalogservice.application.elasticsearch.document.Mixt
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
 
-import java.util.List;
-
 @Lazy
 public interface MixtureElasticsearchRepository extends ElasticsearchRepository<MixtureDocument, String> {
-    List<MixtureDocument> findByNameContainingIgnoreCase(String name);
-
-    List<MixtureDocument> findByDescriptionContainingIgnoreCase(String description);
-
-    List<MixtureDocument> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(String name, String description);
 }
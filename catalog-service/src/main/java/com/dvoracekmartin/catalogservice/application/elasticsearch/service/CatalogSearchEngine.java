@@ -0,0 +1,406 @@
+package com.dvoracekmartin.catalogservice.application.elasticsearch.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.AggregationRange;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch._types.query_dsl.TextQueryType;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.CompletionContext;
+import co.elastic.clients.elasticsearch.core.search.CompletionSuggestOption;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.core.search.Suggestion;
+import com.dvoracekmartin.catalogservice.application.dto.search.ResponseFacetBucketDTO;
+import com.dvoracekmartin.catalogservice.application.dto.search.ResponseSearchFacetsDTO;
+import com.dvoracekmartin.catalogservice.application.dto.search.ResponseSuggestionDTO;
+import com.dvoracekmartin.catalogservice.application.dto.search.SearchFilterDTO;
+import com.dvoracekmartin.catalogservice.application.elasticsearch.document.CategoryDocument;
+import com.dvoracekmartin.catalogservice.application.elasticsearch.document.MixtureDocument;
+import com.dvoracekmartin.catalogservice.application.elasticsearch.document.ProductDocument;
+import com.dvoracekmartin.catalogservice.application.elasticsearch.document.TagDocument;
+import com.dvoracekmartin.catalogservice.application.service.readmodel.CatalogSection;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Relevance ranked full-text search over the catalog indices.
+ * <p>
+ * Every locale of an entity is indexed into its own language analyzed fields plus an edge n-gram subfield for
+ * prefix matching (see {@code elasticsearch/catalog-mapping.json}). A search is a single {@code multi_match} over all
+ * locales of the requested indices, names weigh more than descriptions and whole words more than prefixes.
+ * <p>
+ * Every search also returns facet counts over all matching documents: categories, tags, a price histogram and
+ * weight buckets.
+ * <p>
+ * Search-as-you-type suggestions come from the completion field of products, mixtures and categories instead. They
+ * have a strict latency budget, answer empty rather than late, and repeated prefixes are served from a local LRU.
+ */
+@Component
+@Slf4j
+public class CatalogSearchEngine {
+
+    // Elasticsearch refuses to page past index.max_result_window
+    private static final int MAX_RESULT_WINDOW = 10_000;
+    private static final List<String> FIELDS = List.of(
+            "localized.*.name^3",
+            "localized.*.name.prefix^2",
+            "localized.*.description"
+    );
+
+    private static final String CATEGORY_FACET = "categories";
+    private static final String TAG_FACET = "tags";
+    private static final String PRICE_FACET = "prices";
+    private static final String WEIGHT_FACET = "weights";
+    private static final int MAX_FACET_BUCKETS = 100;
+    private static final double[] WEIGHT_BOUNDARIES = {100, 250, 500, 1000};
+
+    private static final String SUGGESTER = "name";
+    private static final Set<CatalogSection> SUGGESTED_SECTIONS =
+            EnumSet.of(CatalogSection.PRODUCTS, CatalogSection.MIXTURES, CatalogSection.CATEGORIES);
+    private static final int MAX_SUGGESTIONS = 10;
+    private static final int MAX_PREFIX_LENGTH = 50;
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchAsyncClient elasticsearchAsyncClient;
+    private final Map<CatalogSection, String> aliases;
+    private final int maxPageSize;
+    private final double priceInterval;
+    private final Duration suggestTimeout;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, List<ResponseSuggestionDTO>> suggestions;
+
+    public CatalogSearchEngine(ElasticsearchClient elasticsearchClient,
+                               ElasticsearchOperations elasticsearchOperations,
+                               ObjectMapper objectMapper,
+                               @Value("${catalog.search.max-page-size:100}") int maxPageSize,
+                               @Value("${catalog.search.facets.price-interval:100}") double priceInterval,
+                               @Value("${catalog.search.suggest.timeout:PT0.15S}") Duration suggestTimeout,
+                               @Value("${catalog.search.suggest.cache-size:10000}") long suggestCacheSize,
+                               @Value("${catalog.search.suggest.cache-time-to-live:PT1M}") Duration suggestCacheTimeToLive) {
+        this.elasticsearchClient = elasticsearchClient;
+        this.elasticsearchAsyncClient = new ElasticsearchAsyncClient(elasticsearchClient._transport());
+        this.objectMapper = objectMapper;
+        this.maxPageSize = maxPageSize;
+        this.priceInterval = priceInterval;
+        this.suggestTimeout = suggestTimeout;
+        // the time to live bounds how long a renamed or deactivated entity keeps being suggested
+        this.suggestions = Caffeine.newBuilder()
+                .maximumSize(suggestCacheSize)
+                .expireAfterWrite(suggestCacheTimeToLive)
+                .build();
+        this.aliases = new EnumMap<>(Map.of(
+                CatalogSection.PRODUCTS, indexName(elasticsearchOperations, ProductDocument.class),
+                CatalogSection.MIXTURES, indexName(elasticsearchOperations, MixtureDocument.class),
+                CatalogSection.CATEGORIES, indexName(elasticsearchOperations, CategoryDocument.class),
+                CatalogSection.TAGS, indexName(elasticsearchOperations, TagDocument.class)
+        ));
+    }
+
+    /**
+     * Searches the given sections and returns one page of hits ordered by relevance, or like the listings by
+     * priority when there is no query. The page size is capped by {@code catalog.search.max-page-size}.
+     * A cursor from a previous result continues after its last hit ({@code search_after}) and takes precedence
+     * over the page number, so deep pages cost the same as the first one.
+     */
+    public Result search(Criteria criteria) {
+        int pageSize = Math.clamp(criteria.size(), 1, maxPageSize);
+        List<FieldValue> searchAfter = criteria.cursor() != null ? decodeCursor(criteria.cursor()) : null;
+        int from = searchAfter != null ? 0 : Math.max(criteria.page(), 0) * pageSize;
+        if (criteria.sections().isEmpty() || from + pageSize > MAX_RESULT_WINDOW) {
+            return new Result(List.of(), 0, ResponseSearchFacetsDTO.EMPTY, null);
+        }
+        boolean relevance = criteria.query() != null && !criteria.query().isBlank();
+
+        List<String> indices = criteria.sections().stream().map(aliases::get).toList();
+        SearchResponse<Void> response;
+        try {
+            response = elasticsearchClient.search(search -> {
+                search.index(indices)
+                        .query(q -> q.bool(bool -> {
+                            if (relevance) {
+                                bool.must(must -> must.multiMatch(multiMatch -> multiMatch
+                                        .query(criteria.query().strip())
+                                        .fields(FIELDS)
+                                        .type(TextQueryType.BestFields)
+                                        .tieBreaker(0.3)));
+                            }
+                            return bool.filter(filters(criteria.filter()));
+                        }))
+                        .size(pageSize)
+                        .source(source -> source.fetch(false))
+                        .aggregations(CATEGORY_FACET, aggregation -> aggregation
+                                .terms(terms -> terms.field("categoryId").size(MAX_FACET_BUCKETS)))
+                        .aggregations(TAG_FACET, aggregation -> aggregation
+                                .terms(terms -> terms.field("tagIds").size(MAX_FACET_BUCKETS)))
+                        .aggregations(PRICE_FACET, aggregation -> aggregation
+                                .histogram(histogram -> histogram.field("price").interval(priceInterval).minDocCount(1)))
+                        .aggregations(WEIGHT_FACET, aggregation -> aggregation
+                                .range(range -> range.field("weightGrams").ranges(weightRanges())));
+                if (relevance) {
+                    search.sort(sort -> sort.score(score -> score.order(SortOrder.Desc)));
+                } else {
+                    search.sort(sort -> sort.field(field -> field.field("priority").order(SortOrder.Asc)));
+                }
+                // unique over all indices, so that the cursor is unambiguous
+                search.sort(sort -> sort.field(field -> field.field("docKey").order(SortOrder.Asc)));
+                if (searchAfter != null) {
+                    search.searchAfter(searchAfter);
+                } else {
+                    search.from(from);
+                }
+                return search;
+            }, Void.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search for '" + criteria.query() + "' failed", e);
+        }
+
+        List<SearchHit> hits = new ArrayList<>(response.hits().hits().size());
+        for (Hit<Void> hit : response.hits().hits()) {
+            CatalogSection section = sectionOf(hit.index());
+            if (section == null) {
+                log.warn("Ignoring search hit '{}' from unknown index '{}'", hit.id(), hit.index());
+                continue;
+            }
+            hits.add(new SearchHit(section, Long.valueOf(hit.id()), hit.score() != null ? hit.score() : 0));
+        }
+        List<Hit<Void>> page = response.hits().hits();
+        String nextCursor = page.size() == pageSize ? encodeCursor(page.get(page.size() - 1).sort()) : null;
+        long total = response.hits().total() != null ? response.hits().total().value() : hits.size();
+        return new Result(hits, total, facets(response.aggregations()), nextCursor);
+    }
+
+    private static List<Query> filters(SearchFilterDTO filter) {
+        List<Query> filters = new ArrayList<>();
+        if (filter.categoryId() != null && !filter.categoryId().isEmpty()) {
+            List<FieldValue> categoryIds = filter.categoryId().stream().map(FieldValue::of).toList();
+            filters.add(Query.of(q -> q.terms(terms -> terms.field("categoryId").terms(values -> values.value(categoryIds)))));
+        }
+        if (filter.tags() != null) {
+            filter.tags().forEach(tagId -> filters.add(Query.of(q -> q.term(term -> term.field("tagIds").value(tagId)))));
+        }
+        if (filter.priceMin() != null || filter.priceMax() != null) {
+            filters.add(Query.of(q -> q.range(range -> range.number(price -> price
+                    .field("price").gte(filter.priceMin()).lte(filter.priceMax())))));
+        }
+        addFlag(filters, "mixable", filter.mixable());
+        addFlag(filters, "displayInProducts", filter.displayInProducts());
+        addFlag(filters, "active", filter.active());
+        return filters;
+    }
+
+    private static void addFlag(List<Query> filters, String field, Boolean value) {
+        if (value != null) {
+            filters.add(Query.of(q -> q.term(term -> term.field(field).value(value))));
+        }
+    }
+
+    private static List<AggregationRange> weightRanges() {
+        List<AggregationRange> ranges = new ArrayList<>();
+        for (int i = 0; i <= WEIGHT_BOUNDARIES.length; i++) {
+            Double from = i > 0 ? WEIGHT_BOUNDARIES[i - 1] : null;
+            Double to = i < WEIGHT_BOUNDARIES.length ? WEIGHT_BOUNDARIES[i] : null;
+            ranges.add(AggregationRange.of(range -> range.from(from).to(to)));
+        }
+        return ranges;
+    }
+
+    private ResponseSearchFacetsDTO facets(Map<String, Aggregate> aggregations) {
+        if (aggregations == null || aggregations.isEmpty()) {
+            return ResponseSearchFacetsDTO.EMPTY;
+        }
+        List<ResponseFacetBucketDTO> categories = aggregations.get(CATEGORY_FACET).lterms().buckets().array().stream()
+                .map(bucket -> new ResponseFacetBucketDTO(String.valueOf(bucket.key()), null, null, bucket.docCount()))
+                .toList();
+        List<ResponseFacetBucketDTO> tags = aggregations.get(TAG_FACET).lterms().buckets().array().stream()
+                .map(bucket -> new ResponseFacetBucketDTO(String.valueOf(bucket.key()), null, null, bucket.docCount()))
+                .toList();
+        List<ResponseFacetBucketDTO> prices = aggregations.get(PRICE_FACET).histogram().buckets().array().stream()
+                .map(bucket -> new ResponseFacetBucketDTO(String.valueOf(bucket.key()), bucket.key(),
+                        bucket.key() + priceInterval, bucket.docCount()))
+                .toList();
+        List<ResponseFacetBucketDTO> weights = aggregations.get(WEIGHT_FACET).range().buckets().array().stream()
+                .filter(bucket -> bucket.docCount() > 0)
+                .map(bucket -> new ResponseFacetBucketDTO(bucket.key(), bucket.from(), bucket.to(), bucket.docCount()))
+                .toList();
+        return new ResponseSearchFacetsDTO(categories, tags, prices, weights);
+    }
+
+    private String encodeCursor(List<FieldValue> sortValues) {
+        List<Object> values = sortValues.stream().map(FieldValue::_get).toList();
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(values));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode search cursor", e);
+        }
+    }
+
+    private List<FieldValue> decodeCursor(String cursor) {
+        try {
+            JsonNode values = objectMapper.readTree(Base64.getUrlDecoder().decode(cursor));
+            if (!values.isArray()) {
+                throw new IllegalArgumentException("not an array");
+            }
+            List<FieldValue> searchAfter = new ArrayList<>();
+            for (JsonNode value : values) {
+                if (value.isIntegralNumber()) {
+                    searchAfter.add(FieldValue.of(value.asLong()));
+                } else if (value.isNumber()) {
+                    searchAfter.add(FieldValue.of(value.asDouble()));
+                } else if (value.isBoolean()) {
+                    searchAfter.add(FieldValue.of(value.asBoolean()));
+                } else if (value.isNull()) {
+                    searchAfter.add(FieldValue.NULL);
+                } else {
+                    searchAfter.add(FieldValue.of(value.asText()));
+                }
+            }
+            return searchAfter;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid search cursor");
+        }
+    }
+
+    /**
+     * Active products, mixtures and categories whose name in the given locale starts with the prefix, or with a
+     * later word of the name. Returns an empty list when the search does not answer within
+     * {@code catalog.search.suggest.timeout}.
+     */
+    public List<ResponseSuggestionDTO> suggest(String prefix, String locale, int size) {
+        if (prefix == null || prefix.isBlank() || locale == null || locale.isBlank()) {
+            return List.of();
+        }
+        String normalizedPrefix = prefix.strip().toLowerCase(Locale.ROOT);
+        if (normalizedPrefix.length() > MAX_PREFIX_LENGTH) {
+            normalizedPrefix = normalizedPrefix.substring(0, MAX_PREFIX_LENGTH);
+        }
+        // the locale is a key such as en_US, it is indexed as given and so must not be lowercased here
+        String normalizedLocale = locale.strip();
+        int suggestionCount = Math.clamp(size, 1, MAX_SUGGESTIONS);
+
+        String key = normalizedLocale + "|" + suggestionCount + "|" + normalizedPrefix;
+        List<ResponseSuggestionDTO> cached = suggestions.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        List<ResponseSuggestionDTO> fetched = fetchSuggestions(normalizedPrefix, normalizedLocale, suggestionCount);
+        if (fetched != null) {
+            suggestions.put(key, fetched);
+            return fetched;
+        }
+        return List.of();
+    }
+
+    // null when the suggestions could not be fetched in time, so that the failure is not cached
+    private List<ResponseSuggestionDTO> fetchSuggestions(String prefix, String locale, int size) {
+        String nameField = "localized." + locale + ".name";
+        CompletableFuture<SearchResponse<ObjectNode>> future;
+        try {
+            future = elasticsearchAsyncClient.search(search -> search
+                            .index(SUGGESTED_SECTIONS.stream().map(aliases::get).toList())
+                            .size(0)
+                            .timeout(suggestTimeout.toMillis() + "ms")
+                            .source(source -> source.filter(filter -> filter.includes(nameField)))
+                            .suggest(suggest -> suggest.suggesters(SUGGESTER, suggester -> suggester
+                                    .prefix(prefix)
+                                    .completion(completion -> completion
+                                            .field("suggest")
+                                            .size(size)
+                                            .skipDuplicates(true)
+                                            .contexts("locale", List.of(CompletionContext.of(context -> context
+                                                    .context(value -> value.category(locale)))))
+                                            .contexts("active", List.of(CompletionContext.of(context -> context
+                                                    .context(value -> value.category("true")))))))),
+                    ObjectNode.class);
+        } catch (RuntimeException e) {
+            log.warn("Failed to request suggestions for '{}': {}", prefix, e.getMessage());
+            return null;
+        }
+
+        SearchResponse<ObjectNode> response;
+        try {
+            response = future.get(suggestTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.debug("Suggestions for '{}' exceeded the latency budget of {}", prefix, suggestTimeout);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            log.warn("Failed to fetch suggestions for '{}': {}", prefix, e.getCause().getMessage());
+            return null;
+        }
+
+        List<ResponseSuggestionDTO> result = new ArrayList<>();
+        for (Suggestion<ObjectNode> suggestion : response.suggest().getOrDefault(SUGGESTER, List.of())) {
+            for (CompletionSuggestOption<ObjectNode> option : suggestion.completion().options()) {
+                CatalogSection section = sectionOf(option.index());
+                if (section == null || option.id() == null) {
+                    continue;
+                }
+                String name = option.source() != null
+                        ? option.source().path("localized").path(locale).path("name").asText(option.text())
+                        : option.text();
+                result.add(new ResponseSuggestionDTO(Long.valueOf(option.id()), section, name));
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    // The hits come from the versioned indices behind the aliases, e.g. products_v20250101120000
+    private CatalogSection sectionOf(String index) {
+        for (Map.Entry<CatalogSection, String> alias : aliases.entrySet()) {
+            if (index.equals(alias.getValue()) || index.startsWith(alias.getValue() + "_v")) {
+                return alias.getKey();
+            }
+        }
+        return null;
+    }
+
+    private static String indexName(ElasticsearchOperations elasticsearchOperations, Class<?> documentClass) {
+        return elasticsearchOperations.getIndexCoordinatesFor(documentClass).getIndexName();
+    }
+
+    public record SearchHit(CatalogSection section, Long id, double score) {
+    }
+
+    public record Criteria(String query,
+                           Set<CatalogSection> sections,
+                           SearchFilterDTO filter,
+                           int page,
+                           int size,
+                           String cursor) {
+    }
+
+    public record Result(List<SearchHit> hits, long total, ResponseSearchFacetsDTO facets, String nextCursor) {
+
+        public List<Long> ids(CatalogSection section) {
+            return hits.stream()
+                    .filter(hit -> hit.section() == section)
+                    .map(SearchHit::id)
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package com.dvoracekmartin.catalogservice.application.elasticsearch.service;
+
+import com.dvoracekmartin.catalogservice.application.dto.search.ResponseReindexStatusDTO;
+import com.dvoracekmartin.catalogservice.application.dto.search.ResponseReindexStatusDTO.State;
+import com.dvoracekmartin.catalogservice.application.elasticsearch.document.CategoryDocument;
+import com.dvoracekmartin.catalogservice.application.elasticsearch.document.MixtureDocument;
+import com.dvoracekmartin.catalogservice.application.elasticsearch.document.ProductDocument;
+import com.dvoracekmartin.catalogservice.application.elasticsearch.document.TagDocument;
+import com.dvoracekmartin.catalogservice.application.elasticsearch.utils.ElasticsearchMapper;
+import com.dvoracekmartin.catalogservice.application.service.CatalogResponseAssembler;
+import com.dvoracekmartin.catalogservice.domain.model.BaseEntity;
+import com.dvoracekmartin.catalogservice.domain.model.Category;
+import com.dvoracekmartin.catalogservice.domain.model.Mixture;
+import com.dvoracekmartin.catalogservice.domain.model.Product;
+import com.dvoracekmartin.catalogservice.domain.model.Tag;
+import com.dvoracekmartin.catalogservice.domain.repository.CategoryRepository;
+import com.dvoracekmartin.catalogservice.domain.repository.MixtureRepository;
+import com.dvoracekmartin.catalogservice.domain.repository.ProductRepository;
+import com.dvoracekmartin.catalogservice.domain.repository.TagRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Rebuilds the search indices without a window in which search returns nothing.
+ * <p>
+ * Every document type is written into a fresh versioned index ({@code products_v20250101120000}) created with the
+ * settings and mapping of its document class. Entities are read from the database page by page, assembled and
+ * mapped with {@link ElasticsearchMapper}, and written through the bulk API. Once all indices are filled, the read
+ * aliases ({@code products}, ...) are moved to the new indices in one atomic alias update and the previous indices
+ * are deleted. Searches keep hitting the old indices until that moment.
+ * <p>
+ * While an index is filled it carries the rebuild alias ({@code products_rebuild}), and the
+ * {@link com.dvoracekmartin.catalogservice.application.elasticsearch.outbox.SearchOutboxDispatcher} writes every change
+ * to the read alias and the rebuild alias. The rebuild only creates documents, it never replaces one the dispatcher
+ * wrote, so changes made during the rebuild survive the swap.
+ */
+@Slf4j
+@Service
+public class ElasticsearchReindexService {
+
+    private static final String REBUILD_ALIAS_SUFFIX = "_rebuild";
+    private static final int CONFLICT = 409;
+    private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss").withZone(ZoneOffset.UTC);
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchMapper elasticsearchMapper;
+    private final CatalogResponseAssembler catalogResponseAssembler;
+    private final ProductRepository productRepository;
+    private final MixtureRepository mixtureRepository;
+    private final CategoryRepository categoryRepository;
+    private final TagRepository tagRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${catalog.search.reindex.batch-size:500}")
+    private int batchSize = 500;
+
+    private final ExecutorService reindexExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("search-reindex").daemon().factory());
+
+    // guarded by this
+    private State state = State.IDLE;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+    private final Map<String, String> indices = new LinkedHashMap<>();
+    private final AtomicLong documentsIndexed = new AtomicLong();
+    private final AtomicLong documentsTotal = new AtomicLong();
+
+    public ElasticsearchReindexService(ElasticsearchOperations elasticsearchOperations,
+                                       ElasticsearchMapper elasticsearchMapper,
+                                       CatalogResponseAssembler catalogResponseAssembler,
+                                       ProductRepository productRepository,
+                                       MixtureRepository mixtureRepository,
+                                       CategoryRepository categoryRepository,
+                                       TagRepository tagRepository,
+                                       PlatformTransactionManager transactionManager) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.elasticsearchMapper = elasticsearchMapper;
+        this.catalogResponseAssembler = catalogResponseAssembler;
+        this.productRepository = productRepository;
+        this.mixtureRepository = mixtureRepository;
+        this.categoryRepository = categoryRepository;
+        this.tagRepository = tagRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Starts a reindex in the background.
+     *
+     * @return The status of the started job, or empty when a job is already running.
+     */
+    public synchronized Optional<ResponseReindexStatusDTO> start() {
+        if (state == State.RUNNING) {
+            return Optional.empty();
+        }
+        state = State.RUNNING;
+        startedAt = Instant.now();
+        finishedAt = null;
+        error = null;
+        indices.clear();
+        documentsIndexed.set(0);
+        documentsTotal.set(0);
+        reindexExecutor.execute(this::reindex);
+        return Optional.of(getStatus());
+    }
+
+    public synchronized ResponseReindexStatusDTO getStatus() {
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        double seconds = startedAt != null ? Math.max(Duration.between(startedAt, end).toMillis(), 1) / 1000.0 : 0;
+        return new ResponseReindexStatusDTO(
+                state,
+                startedAt,
+                finishedAt,
+                documentsIndexed.get(),
+                documentsTotal.get(),
+                seconds > 0 ? documentsIndexed.get() / seconds : 0,
+                Map.copyOf(indices),
+                error);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reindexExecutor.shutdownNow();
+    }
+
+    /**
+     * Alias of the index a running rebuild fills for the read alias, absent when no rebuild is running.
+     */
+    public static String rebuildAlias(String alias) {
+        return alias + REBUILD_ALIAS_SUFFIX;
+    }
+
+    private void reindex() {
+        String version = VERSION_FORMAT.format(Instant.now());
+        List<String> createdIndices = new ArrayList<>();
+        try {
+            documentsTotal.set(productRepository.count() + mixtureRepository.count()
+                    + categoryRepository.count() + tagRepository.count());
+            log.info("Starting search reindex version {} of {} documents", version, documentsTotal.get());
+
+            Map<String, String> newIndices = new LinkedHashMap<>();
+            newIndices.put(alias(ProductDocument.class), writeIndex(ProductDocument.class, version, createdIndices,
+                    productRepository::findByIdGreaterThanOrderByIdAsc,
+                    (List<Product> page) -> catalogResponseAssembler.assembleProducts(page).stream()
+                            .map(elasticsearchMapper::mapResponseProductDTOToProductDocument).toList(),
+                    ProductDocument::getId));
+            newIndices.put(alias(MixtureDocument.class), writeIndex(MixtureDocument.class, version, createdIndices,
+                    mixtureRepository::findByIdGreaterThanOrderByIdAsc,
+                    (List<Mixture> page) -> catalogResponseAssembler.assembleMixtures(page).stream()
+                            .map(elasticsearchMapper::mapResponseMixtureDTOToMixtureDocument).toList(),
+                    MixtureDocument::getId));
+            newIndices.put(alias(CategoryDocument.class), writeIndex(CategoryDocument.class, version, createdIndices,
+                    categoryRepository::findByIdGreaterThanOrderByIdAsc,
+                    (List<Category> page) -> catalogResponseAssembler.assembleCategories(page).stream()
+                            .map(elasticsearchMapper::mapResponseCategoryDTOToCategoryDocument).toList(),
+                    CategoryDocument::getId));
+            newIndices.put(alias(TagDocument.class), writeIndex(TagDocument.class, version, createdIndices,
+                    tagRepository::findByIdGreaterThanOrderByIdAsc,
+                    (List<Tag> page) -> catalogResponseAssembler.assembleTags(page).stream()
+                            .map(elasticsearchMapper::mapResponseTagDTOToTagDocument).toList(),
+                    TagDocument::getId));
+
+            Set<String> previousIndices = swapAliases(newIndices);
+            finish(State.COMPLETED, null);
+            log.info("Search reindex version {} completed: {}", version, getStatus());
+            previousIndices.forEach(this::deleteIndexQuietly);
+        } catch (RuntimeException e) {
+            log.error("Search reindex version {} failed, the aliases keep pointing to the previous indices", version, e);
+            deleteUnusedIndices(createdIndices);
+            finish(State.FAILED, e.getMessage());
+        }
+    }
+
+    private <E extends BaseEntity, D> String writeIndex(Class<D> documentClass,
+                                                        String version,
+                                                        List<String> createdIndices,
+                                                        BiFunction<Long, Limit, List<E>> pageLoader,
+                                                        Function<List<E>, List<D>> documentMapper,
+                                                        Function<D, String> idExtractor) {
+        String alias = alias(documentClass);
+        String indexName = alias + "_v" + version;
+        IndexOperations templateOperations = elasticsearchOperations.indexOps(documentClass);
+        IndexCoordinates index = IndexCoordinates.of(indexName);
+        IndexOperations indexOperations = elasticsearchOperations.indexOps(index);
+        indexOperations.create(templateOperations.createSettings(), templateOperations.createMapping());
+        createdIndices.add(indexName);
+        moveRebuildAlias(alias, indexName);
+        synchronized (this) {
+            indices.put(alias, indexName);
+        }
+
+        // pages by id, an entity deleted before the position does not shift the later pages as an offset would
+        long lastId = 0;
+        boolean hasNext;
+        do {
+            long afterId = lastId;
+            Batch<D> batch = readOnlyTransaction.execute(status -> {
+                List<E> entities = pageLoader.apply(afterId, Limit.of(batchSize));
+                return entities.isEmpty() ? null
+                        : new Batch<>(entities.getLast().getId(), entities.size(), documentMapper.apply(entities));
+            });
+            if (batch == null) {
+                break;
+            }
+            List<D> documents = batch.documents();
+            List<IndexQuery> queries = documents.stream()
+                    .map(document -> new IndexQueryBuilder()
+                            .withId(idExtractor.apply(document))
+                            .withObject(document)
+                            .withOpType(IndexQuery.OpType.CREATE)
+                            .build())
+                    .toList();
+            bulkCreate(queries, index);
+            documentsIndexed.addAndGet(queries.size());
+            hasNext = batch.entityCount() == batchSize;
+            lastId = batch.lastId();
+        } while (hasNext);
+
+        indexOperations.refresh();
+        log.info("Filled search index '{}'", indexName);
+        return indexName;
+    }
+
+    // Documents the dispatcher wrote already are newer than the page, the conflicts of their creates are expected
+    private void bulkCreate(List<IndexQuery> queries, IndexCoordinates index) {
+        try {
+            elasticsearchOperations.bulkIndex(queries, index);
+        } catch (BulkFailureException e) {
+            boolean onlyConflicts = e.getFailedDocuments().values().stream()
+                    .allMatch(failure -> failure.status() != null && failure.status() == CONFLICT);
+            if (!onlyConflicts) {
+                throw e;
+            }
+        }
+    }
+
+    // Points the rebuild alias at the index being filled, away from indices left behind by an interrupted rebuild
+    private void moveRebuildAlias(String alias, String indexName) {
+        String rebuildAlias = rebuildAlias(alias);
+        Set<String> staleIndices = currentIndices(elasticsearchOperations.indexOps(IndexCoordinates.of(rebuildAlias)), rebuildAlias);
+        AliasActions aliasActions = new AliasActions();
+        if (!staleIndices.isEmpty()) {
+            aliasActions.add(new AliasAction.Remove(AliasActionParameters.builder()
+                    .withIndices(staleIndices.toArray(String[]::new))
+                    .withAliases(rebuildAlias)
+                    .build()));
+        }
+        aliasActions.add(new AliasAction.Add(AliasActionParameters.builder()
+                .withIndices(indexName)
+                .withAliases(rebuildAlias)
+                .build()));
+        elasticsearchOperations.indexOps(IndexCoordinates.of(indexName)).alias(aliasActions);
+    }
+
+    /**
+     * Moves every read alias to its new index and drops the rebuild aliases in a single {@code _aliases} request, so
+     * search sees either all old or all new indices.
+     *
+     * @return The indices the read aliases pointed to before, to be deleted.
+     */
+    private Set<String> swapAliases(Map<String, String> newIndices) {
+        AliasActions aliasActions = new AliasActions();
+        Set<String> previousIndices = new HashSet<>();
+        newIndices.forEach((alias, newIndex) -> {
+            IndexOperations aliasOperations = elasticsearchOperations.indexOps(IndexCoordinates.of(alias));
+            Set<String> aliasIndices = currentIndices(aliasOperations, alias);
+            if (aliasIndices.isEmpty() && aliasOperations.exists()) {
+                // a concrete index created before the aliases were introduced, it has to go for the alias to take its name
+                aliasActions.add(new AliasAction.RemoveIndex(AliasActionParameters.builder()
+                        .withIndices(alias)
+                        .build()));
+            } else if (!aliasIndices.isEmpty()) {
+                aliasActions.add(new AliasAction.Remove(AliasActionParameters.builder()
+                        .withIndices(aliasIndices.toArray(String[]::new))
+                        .withAliases(alias)
+                        .build()));
+            }
+            aliasActions.add(new AliasAction.Add(AliasActionParameters.builder()
+                    .withIndices(newIndex)
+                    .withAliases(alias)
+                    .build()));
+            aliasActions.add(new AliasAction.Remove(AliasActionParameters.builder()
+                    .withIndices(newIndex)
+                    .withAliases(rebuildAlias(alias))
+                    .build()));
+            previousIndices.addAll(aliasIndices);
+        });
+        elasticsearchOperations.indexOps(IndexCoordinates.of(newIndices.values().iterator().next())).alias(aliasActions);
+        log.info("Search aliases now point to {}", newIndices);
+        return previousIndices;
+    }
+
+    // Drops the indices of a failed rebuild, except any a read alias points to
+    private void deleteUnusedIndices(List<String> createdIndices) {
+        Set<String> liveIndices = new HashSet<>();
+        try {
+            for (Class<?> documentClass : List.of(ProductDocument.class, MixtureDocument.class, CategoryDocument.class, TagDocument.class)) {
+                String alias = alias(documentClass);
+                liveIndices.addAll(currentIndices(elasticsearchOperations.indexOps(IndexCoordinates.of(alias)), alias));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not read the search aliases, keeping the indices {}: {}", createdIndices, e.getMessage());
+            return;
+        }
+        createdIndices.stream()
+                .filter(indexName -> !liveIndices.contains(indexName))
+                .forEach(this::deleteIndexQuietly);
+    }
+
+    private static Set<String> currentIndices(IndexOperations aliasOperations, String alias) {
+        try {
+            return new HashSet<>(aliasOperations.getAliases(alias).keySet());
+        } catch (RuntimeException e) {
+            // the alias does not exist yet
+            return Set.of();
+        }
+    }
+
+    private void deleteIndexQuietly(String indexName) {
+        try {
+            elasticsearchOperations.indexOps(IndexCoordinates.of(indexName)).delete();
+        } catch (RuntimeException e) {
+            log.warn("Failed to delete search index '{}': {}", indexName, e.getMessage());
+        }
+    }
+
+    private String alias(Class<?> documentClass) {
+        return elasticsearchOperations.getIndexCoordinatesFor(documentClass).getIndexName();
+    }
+
+    private synchronized void finish(State finalState, String failure) {
+        state = finalState;
+        finishedAt = Instant.now();
+        error = failure;
+    }
+
+    private record Batch<D>(long lastId, int entityCount, List<D> documents) {
+    }
+}
@@ -1,33 +1,15 @@
 package com.dvoracekmartin.catalogservice.application.elasticsearch.service;
 
-import com.dvoracekmartin.common.dto.category.ResponseCategoryDTO;
-import com.dvoracekmartin.common.dto.mixture.ResponseMixtureDTO;
-import com.dvoracekmartin.common.dto.product.ResponseProductDTO;
 import com.dvoracekmartin.catalogservice.application.dto.search.ResponseSearchResultDTO;
-import com.dvoracekmartin.common.dto.tag.ResponseTagDTO;
+import com.dvoracekmartin.catalogservice.application.dto.search.ResponseSuggestionDTO;
+import com.dvoracekmartin.catalogservice.application.dto.search.SearchFilterDTO;
 
 import java.util.List;
 
 public interface ElasticsearchService {
-    void indexAll(List<ResponseCategoryDTO> allCategories, List<ResponseProductDTO> allProducts, List<ResponseMixtureDTO> allMixtures, List<ResponseTagDTO> allTags);
+    ResponseSearchResultDTO searchProductsAndMixtures(String query, SearchFilterDTO filter, int page, int size, String cursor);
 
-    ResponseSearchResultDTO searchProductsAndMixtures(String query);
+    ResponseSearchResultDTO search(String query, int page, int size);
 
-    ResponseSearchResultDTO search(String query);
-
-    void indexProduct(ResponseProductDTO responseProductDTO);
-
-    void indexCategory(ResponseCategoryDTO responseCategoryDTO);
-
-    void indexMixture(ResponseMixtureDTO responseMixtureDTO);
-
-    void indexTag(ResponseTagDTO responseTagDTO);
-
-    void deleteProduct(ResponseProductDTO responseProductDTO);
-
-    void deleteCategory(ResponseCategoryDTO responseCategoryDTO);
-
-    void deleteMixture(ResponseMixtureDTO responseMixtureDTO);
-
-    void deleteTag(ResponseTagDTO responseTagDTO);
+    List<ResponseSuggestionDTO> suggest(String prefix, String locale, int size);
 }
@@ -8,24 +8,76 @@ import com.dvoracekmartin.catalogservice.application.elasticsearch.document.Cate
 import com.dvoracekmartin.catalogservice.application.elasticsearch.document.MixtureDocument;
 import com.dvoracekmartin.catalogservice.application.elasticsearch.document.ProductDocument;
 import com.dvoracekmartin.catalogservice.application.elasticsearch.document.TagDocument;
+import com.dvoracekmartin.catalogservice.application.service.readmodel.CatalogSection;
+import com.dvoracekmartin.common.event.translation.LocalizedField;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.springframework.data.elasticsearch.core.suggest.Completion;
 
-@Mapper(componentModel = "spring")
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+@Mapper(componentModel = "spring", imports = CatalogSection.class)
 public interface ElasticsearchMapper {
-    CategoryDocument mapResponseCategoryDTOToCategoryDocument(ResponseCategoryDTO responseCategoryDTO);
 
-    ResponseCategoryDTO mapCategoryDocumentToResponseCategoryDTO(CategoryDocument doc);
+    int MAX_COMPLETION_INPUTS = 5;
 
-    ProductDocument mapResponseProductDTOToProductDocument(ResponseProductDTO responseProductDTO);
+    @Mapping(target = "localized", source = "localizedFields")
+    @Mapping(target = "suggest", expression = "java(toCompletions(responseCategoryDTO.getLocalizedFields(), responseCategoryDTO.isActive()))")
+    @Mapping(target = "docKey", expression = "java(docKey(CatalogSection.CATEGORIES, responseCategoryDTO.getId()))")
+    CategoryDocument mapResponseCategoryDTOToCategoryDocument(ResponseCategoryDTO responseCategoryDTO);
 
-    ResponseProductDTO mapProductDocumentToResponseProductDTO(ProductDocument doc);
+    @Mapping(target = "localized", source = "localizedFields")
+    @Mapping(target = "suggest", expression = "java(toCompletions(responseProductDTO.getLocalizedFields(), responseProductDTO.isActive()))")
+    @Mapping(target = "docKey", expression = "java(docKey(CatalogSection.PRODUCTS, responseProductDTO.getId()))")
+    @Mapping(target = "tagIds", expression = "java(tagIdsOf(responseProductDTO.getResponseTagDTOS()))")
+    ProductDocument mapResponseProductDTOToProductDocument(ResponseProductDTO responseProductDTO);
 
+    @Mapping(target = "localized", source = "localizedFields")
+    @Mapping(target = "suggest", expression = "java(toCompletions(responseMixtureDTO.getLocalizedFields(), responseMixtureDTO.isActive()))")
+    @Mapping(target = "docKey", expression = "java(docKey(CatalogSection.MIXTURES, responseMixtureDTO.getId()))")
     MixtureDocument mapResponseMixtureDTOToMixtureDocument(ResponseMixtureDTO responseMixtureDTO);
 
-    ResponseMixtureDTO mapMixtureDocumentToResponseMixtureDTO(MixtureDocument doc);
-
+    @Mapping(target = "localized", source = "localizedFields")
+    @Mapping(target = "docKey", expression = "java(docKey(CatalogSection.TAGS, responseTagDTO.getId()))")
     TagDocument mapResponseTagDTOToTagDocument(ResponseTagDTO responseTagDTO);
 
-    ResponseTagDTO mapTagDocumentToResponseTagDTO(TagDocument doc);
+    default String docKey(CatalogSection section, Long id) {
+        return section.name() + ":" + id;
+    }
+
+    default List<Long> tagIdsOf(List<ResponseTagDTO> tags) {
+        return tags == null ? List.of() : tags.stream().map(ResponseTagDTO::getId).toList();
+    }
 
+    /**
+     * One completion entry per locale. Besides the whole name every later word of it is an input as well, so
+     * "oil" suggests "Lavender essential oil".
+     */
+    default List<Completion> toCompletions(Map<String, LocalizedField> localizedFields, boolean active) {
+        if (localizedFields == null) {
+            return List.of();
+        }
+        List<Completion> completions = new ArrayList<>();
+        localizedFields.forEach((locale, field) -> {
+            if (field == null || field.getName() == null || field.getName().isBlank()) {
+                return;
+            }
+            String[] words = field.getName().strip().split("\\s+");
+            List<String> inputs = new ArrayList<>();
+            for (int i = 0; i < words.length && inputs.size() < MAX_COMPLETION_INPUTS; i++) {
+                if (i == 0 || words[i].length() > 1) {
+                    inputs.add(String.join(" ", Arrays.copyOfRange(words, i, words.length)));
+                }
+            }
+            Completion completion = new Completion(inputs.toArray(String[]::new));
+            completion.setContexts(Map.of(
+                    "locale", List.of(locale),
+                    "active", List.of(String.valueOf(active))));
+            completions.add(completion);
+        });
+        return completions;
+    }
 }
@@ -0,0 +1,79 @@
+package com.dvoracekmartin.catalogservice.application.service;
+
+import com.dvoracekmartin.catalogservice.domain.model.BaseEntity;
+import com.dvoracekmartin.catalogservice.domain.model.Category;
+import com.dvoracekmartin.catalogservice.domain.model.Mixture;
+import com.dvoracekmartin.catalogservice.domain.model.Product;
+import com.dvoracekmartin.catalogservice.domain.model.Tag;
+import com.dvoracekmartin.catalogservice.domain.repository.CategoryRepository;
+import com.dvoracekmartin.catalogservice.domain.repository.MixtureRepository;
+import com.dvoracekmartin.catalogservice.domain.repository.ProductRepository;
+import com.dvoracekmartin.catalogservice.domain.repository.TagRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves the associations of catalog write requests.
+ * <p>
+ * Each call loads all requested ids with a single {@code findAllById}, instead of one {@code findById} per id.
+ * The entities come back in request order without duplicates. If any id does not exist, the call fails with
+ * an {@link EntityNotFoundException} that names all of the missing ids.
+ */
+@Component
+@RequiredArgsConstructor
+public class AssociationResolver {
+
+    private final ProductRepository productRepository;
+    private final MixtureRepository mixtureRepository;
+    private final CategoryRepository categoryRepository;
+    private final TagRepository tagRepository;
+
+    public List<Product> products(Collection<Long> ids) {
+        return resolve(productRepository, ids, "Products");
+    }
+
+    public List<Mixture> mixtures(Collection<Long> ids) {
+        return resolve(mixtureRepository, ids, "Mixtures");
+    }
+
+    public List<Category> categories(Collection<Long> ids) {
+        return resolve(categoryRepository, ids, "Categories");
+    }
+
+    public List<Tag> tags(Collection<Long> ids) {
+        return resolve(tagRepository, ids, "Tags");
+    }
+
+    public Category category(Long id) {
+        return categoryRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Category not found with id: " + id));
+    }
+
+    private static <T extends BaseEntity> List<T> resolve(JpaRepository<T, Long> repository, Collection<Long> ids,
+                                                          String entityName) {
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<Long> requested = ids.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, T> found = repository.findAllById(requested).stream()
+                .collect(Collectors.toMap(BaseEntity::getId, Function.identity(), (first, second) -> first));
+
+        List<Long> missing = requested.stream()
+                .filter(id -> !found.containsKey(id))
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new EntityNotFoundException(entityName + " not found with ids: " + missing);
+        }
+        return requested.stream()
+                .map(found::get)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+}
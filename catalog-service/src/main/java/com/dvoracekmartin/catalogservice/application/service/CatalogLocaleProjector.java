@@ -0,0 +1,170 @@
+package com.dvoracekmartin.catalogservice.application.service;
+
+import com.dvoracekmartin.catalogservice.application.dto.listing.ResponsePageDTO;
+import com.dvoracekmartin.common.dto.category.ResponseCategoryDTO;
+import com.dvoracekmartin.common.dto.mixture.ResponseMixtureDTO;
+import com.dvoracekmartin.common.dto.product.ResponseProductDTO;
+import com.dvoracekmartin.common.dto.tag.ResponseTagDTO;
+import com.dvoracekmartin.common.event.translation.LocalizedField;
+import com.dvoracekmartin.common.translation.LocaleProjection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Copies response DTOs with their localized fields reduced to one locale, for clients rendering a single language.
+ * The entity and the DTOs nested in it directly (tags of products and categories, products of mixtures, the
+ * associations of tags) are projected. Without a locale the DTOs are returned as they are.
+ * <p>
+ * The DTOs of the read model are shared, so they are copied and never changed in place.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogLocaleProjector {
+
+    private final LocaleProjection localeProjection;
+
+    public List<ResponseProductDTO> products(List<ResponseProductDTO> products, String locale) {
+        return projectAll(products, locale, this::product);
+    }
+
+    public List<ResponseMixtureDTO> mixtures(List<ResponseMixtureDTO> mixtures, String locale) {
+        return projectAll(mixtures, locale, this::mixture);
+    }
+
+    public List<ResponseCategoryDTO> categories(List<ResponseCategoryDTO> categories, String locale) {
+        return projectAll(categories, locale, this::category);
+    }
+
+    public List<ResponseTagDTO> tags(List<ResponseTagDTO> tags, String locale) {
+        return projectAll(tags, locale, this::tag);
+    }
+
+    public <T> ResponsePageDTO<T> page(ResponsePageDTO<T> page, String locale, BiFunction<List<T>, String, List<T>> projection) {
+        if (isAllLocales(locale)) {
+            return page;
+        }
+        return new ResponsePageDTO<>(projection.apply(page.items(), locale), page.nextCursor());
+    }
+
+    public ResponseProductDTO product(ResponseProductDTO product, String locale) {
+        if (isAllLocales(locale) || product == null) {
+            return product;
+        }
+        String defaultLocale = localeProjection.defaultLocale();
+        return product(product, locale, defaultLocale);
+    }
+
+    public ResponseMixtureDTO mixture(ResponseMixtureDTO mixture, String locale) {
+        if (isAllLocales(locale) || mixture == null) {
+            return mixture;
+        }
+        String defaultLocale = localeProjection.defaultLocale();
+        return new ResponseMixtureDTO(
+                mixture.getId(),
+                mixture.getName(),
+                project(mixture.getLocalizedFields(), locale, defaultLocale),
+                mixture.getPriority(),
+                mixture.isActive(),
+                mixture.getMedia(),
+                mixture.getCategoryId(),
+                mixture.getProducts() == null ? null
+                        : mixture.getProducts().stream().map(product -> product(product, locale, defaultLocale)).toList(),
+                mixture.getTagIds(),
+                mixture.getPrice(),
+                mixture.getWeightGrams(),
+                mixture.isDisplayInProducts()
+        );
+    }
+
+    public ResponseCategoryDTO category(ResponseCategoryDTO category, String locale) {
+        if (isAllLocales(locale) || category == null) {
+            return category;
+        }
+        String defaultLocale = localeProjection.defaultLocale();
+        return category(category, locale, defaultLocale);
+    }
+
+    public ResponseTagDTO tag(ResponseTagDTO tag, String locale) {
+        if (isAllLocales(locale) || tag == null) {
+            return tag;
+        }
+        String defaultLocale = localeProjection.defaultLocale();
+        return new ResponseTagDTO(
+                tag.getId(),
+                project(tag.getLocalizedFields(), locale, defaultLocale),
+                tag.getPriority(),
+                tag.isActive(),
+                tag.getMedia(),
+                tag.getCategories() == null ? null
+                        : tag.getCategories().stream().map(category -> category(category, locale, defaultLocale)).toList(),
+                tag.getProducts() == null ? null
+                        : tag.getProducts().stream().map(product -> product(product, locale, defaultLocale)).toList(),
+                tag.getMixtures() == null ? null
+                        : tag.getMixtures().stream().map(mixture -> shallowMixture(mixture, locale, defaultLocale)).toList(),
+                tag.getColor(),
+                tag.getIcon()
+        );
+    }
+
+    private ResponseProductDTO product(ResponseProductDTO product, String locale, String defaultLocale) {
+        return new ResponseProductDTO(
+                product.getId(),
+                project(product.getLocalizedFields(), locale, defaultLocale),
+                product.getPriority(),
+                product.isActive(),
+                product.getMedia(),
+                product.getResponseTagDTOS() == null ? null
+                        : product.getResponseTagDTOS().stream().map(tag -> shallowTag(tag, locale, defaultLocale)).toList(),
+                product.getCategoryId(),
+                product.getPrice(),
+                product.getWeightGrams(),
+                product.isMixable(),
+                product.isDisplayInProducts()
+        );
+    }
+
+    private ResponseCategoryDTO category(ResponseCategoryDTO category, String locale, String defaultLocale) {
+        return new ResponseCategoryDTO(
+                category.getId(),
+                project(category.getLocalizedFields(), locale, defaultLocale),
+                category.getPriority(),
+                category.isActive(),
+                category.getMedia(),
+                category.getResponseTagDTOS() == null ? null
+                        : category.getResponseTagDTOS().stream().map(tag -> shallowTag(tag, locale, defaultLocale)).toList(),
+                category.isMixable()
+        );
+    }
+
+    // nested DTOs keep their own associations as they are, the projection goes one level deep
+    private ResponseTagDTO shallowTag(ResponseTagDTO tag, String locale, String defaultLocale) {
+        return new ResponseTagDTO(tag.getId(), project(tag.getLocalizedFields(), locale, defaultLocale), tag.getPriority(),
+                tag.isActive(), tag.getMedia(), tag.getCategories(), tag.getProducts(), tag.getMixtures(), tag.getColor(), tag.getIcon());
+    }
+
+    private ResponseMixtureDTO shallowMixture(ResponseMixtureDTO mixture, String locale, String defaultLocale) {
+        return new ResponseMixtureDTO(mixture.getId(), mixture.getName(), project(mixture.getLocalizedFields(), locale, defaultLocale),
+                mixture.getPriority(), mixture.isActive(), mixture.getMedia(), mixture.getCategoryId(), mixture.getProducts(),
+                mixture.getTagIds(), mixture.getPrice(), mixture.getWeightGrams(), mixture.isDisplayInProducts());
+    }
+
+    // DTOs mapped without translations keep their null map
+    private static Map<String, LocalizedField> project(Map<String, LocalizedField> localizedFields, String locale, String defaultLocale) {
+        return localizedFields == null ? null : LocaleProjection.project(localizedFields, locale, defaultLocale);
+    }
+
+    private static <T> List<T> projectAll(List<T> dtos, String locale, BiFunction<T, String, T> projection) {
+        if (isAllLocales(locale) || dtos == null) {
+            return dtos;
+        }
+        return dtos.stream().map(dto -> projection.apply(dto, locale)).toList();
+    }
+
+    private static boolean isAllLocales(String locale) {
+        return locale == null || locale.isBlank();
+    }
+}
@@ -0,0 +1,315 @@
+package com.dvoracekmartin.catalogservice.application.service;
+
+import com.dvoracekmartin.catalogservice.application.dto.utils.CatalogMapper;
+import com.dvoracekmartin.catalogservice.application.service.media.ConcurrentMediaLoader;
+import com.dvoracekmartin.catalogservice.application.service.media.MediaContentTypes;
+import com.dvoracekmartin.catalogservice.application.service.media.MediaRetriever;
+import com.dvoracekmartin.common.media.MediaStream;
+import com.dvoracekmartin.catalogservice.domain.model.Category;
+import com.dvoracekmartin.catalogservice.domain.model.Mixture;
+import com.dvoracekmartin.catalogservice.domain.model.Product;
+import com.dvoracekmartin.catalogservice.domain.model.Tag;
+import com.dvoracekmartin.catalogservice.domain.utils.BucketName;
+import com.dvoracekmartin.common.dto.base.BaseUpdateOrResponseDTO;
+import com.dvoracekmartin.common.dto.category.ResponseCategoryDTO;
+import com.dvoracekmartin.common.dto.media.MediaDTO;
+import com.dvoracekmartin.common.dto.mixture.ResponseMixtureDTO;
+import com.dvoracekmartin.common.dto.product.ResponseProductDTO;
+import com.dvoracekmartin.common.dto.tag.ResponseTagDTO;
+import com.dvoracekmartin.common.event.translation.TranslationBatchGetEvent;
+import com.dvoracekmartin.common.event.translation.TranslationBatchResponseEvent;
+import com.dvoracekmartin.common.event.translation.TranslationGetOrDeleteEvent;
+import com.dvoracekmartin.common.event.translation.TranslationObjectsEnum;
+import com.dvoracekmartin.common.translation.TranslationCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the fully assembled response DTOs (translations, media, nested tags) out of catalog entities.
+ * Callers have to run inside a transaction, the associations of the entities are loaded lazily.
+ * <p>
+ * Media is assembled as references (key, content type, size, hash); {@link #productsWithInlineMedia(List)}
+ * and {@link #categoriesWithInlineMedia(List)} add the base64 content for clients still using inline media.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogResponseAssembler {
+
+    private final CatalogMapper catalogMapper;
+    private final MediaRetriever mediaRetriever;
+    private final ConcurrentMediaLoader concurrentMediaLoader;
+    private final WebClient translationWebClient;
+    private final TranslationCache translationCache;
+
+    // Listings
+
+    public List<ResponseProductDTO> assembleProducts(Collection<Product> products) {
+        TranslationBatchResponseEvent translations = getTranslationMaps(collectProductTranslationRequests(products));
+        return products.stream()
+                .map(product -> assembleProduct(product, translations))
+                .sorted(Comparator.comparingInt(ResponseProductDTO::getPriority)
+                        .thenComparingLong(ResponseProductDTO::getId))
+                .toList();
+    }
+
+    public List<ResponseMixtureDTO> assembleMixtures(Collection<Mixture> mixtures) {
+        TranslationBatchResponseEvent translations = getTranslationMaps(collectMixtureTranslationRequests(mixtures));
+        return mixtures.stream()
+                .map(mixture -> assembleMixture(mixture, translations))
+                .sorted(Comparator.comparingInt(ResponseMixtureDTO::getPriority)
+                        .thenComparingLong(ResponseMixtureDTO::getId))
+                .toList();
+    }
+
+    public List<ResponseCategoryDTO> assembleCategories(Collection<Category> categories) {
+        TranslationBatchResponseEvent translations = getTranslationMaps(collectCategoryTranslationRequests(categories));
+        return categories.stream()
+                .map(category -> assembleCategory(category, translations))
+                .sorted(Comparator.comparingInt(ResponseCategoryDTO::getPriority)
+                        .thenComparingLong(ResponseCategoryDTO::getId))
+                .collect(Collectors.toList());
+    }
+
+    public List<ResponseTagDTO> assembleTags(Collection<Tag> tags) {
+        TranslationBatchResponseEvent translations = getTranslationMaps(collectTagTranslationRequests(tags));
+        return tags.stream()
+                .map(tag -> assembleTag(tag, translations))
+                .sorted(Comparator.comparingInt(ResponseTagDTO::getPriority)
+                        .thenComparingLong(ResponseTagDTO::getId))
+                .collect(Collectors.toList());
+    }
+
+    // Single entities
+
+    public ResponseProductDTO assembleProduct(Product product) {
+        return assembleProduct(product, getTranslationMaps(collectProductTranslationRequests(List.of(product))));
+    }
+
+    public ResponseMixtureDTO assembleMixture(Mixture mixture) {
+        return assembleMixture(mixture, getTranslationMaps(collectMixtureTranslationRequests(List.of(mixture))));
+    }
+
+    public ResponseCategoryDTO assembleCategory(Category category) {
+        return assembleCategory(category, getTranslationMaps(collectCategoryTranslationRequests(List.of(category))));
+    }
+
+    public ResponseTagDTO assembleTag(Tag tag) {
+        return assembleTag(tag, getTranslationMaps(collectTagTranslationRequests(List.of(tag))));
+    }
+
+    private ResponseProductDTO assembleProduct(Product product, TranslationBatchResponseEvent translations) {
+        List<MediaDTO> mediaDTOs = retrieveMediaForEntity(product.getId().toString(), BucketName.PRODUCTS);
+
+        return new ResponseProductDTO(
+                product.getId(),
+                translations.get(TranslationObjectsEnum.PRODUCT, product.getId()),
+                product.getPriority(),
+                product.isActive(),
+                mediaDTOs,
+                product.getTags().stream().map(
+                        tag -> catalogMapper.mapTagToResponseTagDTO(tag, translations.get(TranslationObjectsEnum.TAG, tag.getId()))
+                ).toList(),
+                product.getCategory().getId(),
+                product.getPrice(),
+                product.getWeightGrams(),
+                product.isMixable(),
+                product.isDisplayInProducts()
+        );
+    }
+
+    private ResponseMixtureDTO assembleMixture(Mixture mixture, TranslationBatchResponseEvent translations) {
+        return new ResponseMixtureDTO(
+                mixture.getId(),
+                mixture.getName(),
+                translations.get(TranslationObjectsEnum.MIXTURE, mixture.getId()),
+                mixture.getPriority(),
+                mixture.isActive(),
+                null,
+                // retrieveMediaForEntity(mixture.getId().toString(), BucketName.MIXTURES),
+                mixture.getCategory().getId(),
+                mixture.getProducts().stream().map(catalogMapper::mapProductToResponseProductDTO).toList(),
+                mixture.getTags().stream().map(Tag::getId).toList(),
+                mixture.getPrice(),
+                mixture.getWeightGrams(),
+                mixture.isDisplayInProducts()
+        );
+    }
+
+    private ResponseCategoryDTO assembleCategory(Category category, TranslationBatchResponseEvent translations) {
+        List<MediaDTO> mediaDTOs = retrieveMediaForEntity(category.getId().toString(), BucketName.CATEGORIES);
+        return new ResponseCategoryDTO(
+                category.getId(),
+                translations.get(TranslationObjectsEnum.CATEGORY, category.getId()),
+                category.getPriority(),
+                category.isActive(),
+                mediaDTOs,
+                category.getTags().stream().map(tag -> assembleTag(tag, translations)).toList(),
+                category.isMixable()
+        );
+    }
+
+    private ResponseTagDTO assembleTag(Tag tag, TranslationBatchResponseEvent translations) {
+        return new ResponseTagDTO(
+                tag.getId(),
+                translations.get(TranslationObjectsEnum.TAG, tag.getId()),
+                tag.getPriority(),
+                tag.isActive(),
+                null,
+                tag.getCategories().stream().map(catalogMapper::mapCategoryToResponseCategoryDTO).toList(),
+                tag.getProducts().stream().map(catalogMapper::mapProductToResponseProductDTO).toList(),
+                tag.getMixtures().stream().map(catalogMapper::mapMixtureToResponseMixtureDTO).toList(),
+                tag.getColor(),
+                tag.getIcon()
+        );
+    }
+
+    // Media
+
+    public ResponseProductDTO withInlineMedia(ResponseProductDTO product) {
+        return productsWithInlineMedia(List.of(product)).get(0);
+    }
+
+    public ResponseCategoryDTO withInlineMedia(ResponseCategoryDTO category) {
+        return categoriesWithInlineMedia(List.of(category)).get(0);
+    }
+
+    /**
+     * Copies of the products with base64 media content, the media of all products is fetched concurrently.
+     */
+    public List<ResponseProductDTO> productsWithInlineMedia(List<ResponseProductDTO> products) {
+        Map<String, String> base64ByKey = retrieveMediaAsBase64(products, BucketName.PRODUCTS);
+        return products.stream().map(product -> new ResponseProductDTO(
+                product.getId(),
+                product.getLocalizedFields(),
+                product.getPriority(),
+                product.isActive(),
+                inlineMedia(product.getMedia(), base64ByKey),
+                product.getResponseTagDTOS(),
+                product.getCategoryId(),
+                product.getPrice(),
+                product.getWeightGrams(),
+                product.isMixable(),
+                product.isDisplayInProducts()
+        )).toList();
+    }
+
+    /**
+     * Copies of the categories with base64 media content, the media of all categories is fetched concurrently.
+     */
+    public List<ResponseCategoryDTO> categoriesWithInlineMedia(List<ResponseCategoryDTO> categories) {
+        Map<String, String> base64ByKey = retrieveMediaAsBase64(categories, BucketName.CATEGORIES);
+        return categories.stream().map(category -> new ResponseCategoryDTO(
+                category.getId(),
+                category.getLocalizedFields(),
+                category.getPriority(),
+                category.isActive(),
+                inlineMedia(category.getMedia(), base64ByKey),
+                category.getResponseTagDTOS(),
+                category.isMixable()
+        )).toList();
+    }
+
+    private List<MediaDTO> retrieveMediaForEntity(String entityId, BucketName bucketName) {
+        return mediaRetriever.listMediaInFolder(entityId, bucketName.getName()).stream()
+                .map(mediaObject -> new MediaDTO(null, mediaObject.objectKey(), mediaObject.contentType(),
+                        mediaObject.size(), mediaObject.eTag()))
+                .toList();
+    }
+
+    private List<MediaDTO> inlineMedia(List<MediaDTO> media, Map<String, String> base64ByKey) {
+        if (media == null) {
+            return null;
+        }
+        return media.stream().map(mediaDTO -> {
+            String contentType = mediaDTO.contentType() != null ? mediaDTO.contentType() : MediaContentTypes.fromObjectKey(mediaDTO.objectKey());
+            return new MediaDTO(base64ByKey.get(mediaDTO.objectKey()), mediaDTO.objectKey(), contentType, mediaDTO.size(), mediaDTO.contentHash());
+        }).toList();
+    }
+
+    private Map<String, String> retrieveMediaAsBase64(List<? extends BaseUpdateOrResponseDTO> dtos, BucketName bucketName) {
+        List<String> objectKeys = dtos.stream()
+                .filter(dto -> dto.getMedia() != null)
+                .flatMap(dto -> dto.getMedia().stream())
+                .map(MediaDTO::objectKey)
+                .distinct()
+                .toList();
+        List<String> base64 = concurrentMediaLoader.loadAll(objectKeys, objectKey -> retrieveMediaAsBase64(objectKey, bucketName.getName()));
+        Map<String, String> base64ByKey = new HashMap<>();
+        for (int i = 0; i < objectKeys.size(); i++) {
+            base64ByKey.put(objectKeys.get(i), base64.get(i));
+        }
+        return base64ByKey;
+    }
+
+    // Encodes while streaming from the storage, so only the base64 text is held in memory
+    private String retrieveMediaAsBase64(String objectKey, String bucketName) {
+        MediaStream media = mediaRetriever.openMedia(objectKey, bucketName, null);
+        if (media == null) {
+            return null;
+        }
+        ByteArrayOutputStream base64 = new ByteArrayOutputStream((int) Math.min(Integer.MAX_VALUE - 8, 4 * ((media.contentLength() + 2) / 3)));
+        try (media; OutputStream encoder = Base64.getEncoder().wrap(base64)) {
+            media.writeTo(encoder);
+        } catch (IOException e) {
+            log.error("Error reading object '{}' from bucket '{}': {}", objectKey, bucketName, e.getMessage());
+            return null;
+        }
+        return base64.toString(StandardCharsets.ISO_8859_1);
+    }
+
+    // Translations
+
+    // Cached maps are served locally, only the misses go to translation-service in one batch call
+    private TranslationBatchResponseEvent getTranslationMaps(Collection<TranslationGetOrDeleteEvent> translationGetOrDeleteEvents) {
+        if (translationGetOrDeleteEvents.isEmpty()) {
+            return new TranslationBatchResponseEvent();
+        }
+        return translationCache.getAll(translationGetOrDeleteEvents, misses -> translationWebClient.post()
+                .uri("/get-batch")
+                .bodyValue(new TranslationBatchGetEvent(misses))
+                .retrieve()
+                .bodyToMono(TranslationBatchResponseEvent.class)
+                .block());
+    }
+
+    // Collects every (type, id) pair the response DTOs of the given entities need, so they resolve in one call
+    private static Set<TranslationGetOrDeleteEvent> collectProductTranslationRequests(Collection<Product> products) {
+        Set<TranslationGetOrDeleteEvent> requests = new LinkedHashSet<>();
+        products.forEach(product -> {
+            requests.add(new TranslationGetOrDeleteEvent(TranslationObjectsEnum.PRODUCT, product.getId()));
+            product.getTags().forEach(tag -> requests.add(new TranslationGetOrDeleteEvent(TranslationObjectsEnum.TAG, tag.getId())));
+        });
+        return requests;
+    }
+
+    private static Set<TranslationGetOrDeleteEvent> collectMixtureTranslationRequests(Collection<Mixture> mixtures) {
+        Set<TranslationGetOrDeleteEvent> requests = new LinkedHashSet<>();
+        mixtures.forEach(mixture -> requests.add(new TranslationGetOrDeleteEvent(TranslationObjectsEnum.MIXTURE, mixture.getId())));
+        return requests;
+    }
+
+    private static Set<TranslationGetOrDeleteEvent> collectCategoryTranslationRequests(Collection<Category> categories) {
+        Set<TranslationGetOrDeleteEvent> requests = new LinkedHashSet<>();
+        categories.forEach(category -> {
+            requests.add(new TranslationGetOrDeleteEvent(TranslationObjectsEnum.CATEGORY, category.getId()));
+            category.getTags().forEach(tag -> requests.add(new TranslationGetOrDeleteEvent(TranslationObjectsEnum.TAG, tag.getId())));
+        });
+        return requests;
+    }
+
+    private static Set<TranslationGetOrDeleteEvent> collectTagTranslationRequests(Collection<Tag> tags) {
+        Set<TranslationGetOrDeleteEvent> requests = new LinkedHashSet<>();
+        tags.forEach(tag -> requests.add(new TranslationGetOrDeleteEvent(TranslationObjectsEnum.TAG, tag.getId())));
+        return requests;
+    }
+}
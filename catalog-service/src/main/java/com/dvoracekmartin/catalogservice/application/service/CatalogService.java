@@ -2,6 +2,7 @@ package com.dvoracekmartin.catalogservice.application.service;
 
 import com.dvoracekmartin.catalogservice.application.dto.category.CreateCategoryDTO;
 import com.dvoracekmartin.catalogservice.application.dto.category.UpdateCategoryDTO;
+import com.dvoracekmartin.catalogservice.application.dto.listing.ResponsePageDTO;
 import com.dvoracekmartin.catalogservice.application.dto.mixture.CreateMixtureDTO;
 import com.dvoracekmartin.catalogservice.application.dto.mixture.UpdateMixtureDTO;
 import com.dvoracekmartin.catalogservice.application.dto.product.CreateProductDTO;
@@ -14,18 +15,29 @@ import com.dvoracekmartin.common.dto.mixture.ResponseMixtureDTO;
 import com.dvoracekmartin.common.dto.product.ResponseProductDTO;
 import com.dvoracekmartin.common.dto.tag.ResponseTagDTO;
 import com.dvoracekmartin.common.event.ResponseProductStockEvent;
+import com.dvoracekmartin.catalogservice.application.service.media.MediaMode;
 import jakarta.validation.Valid;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CatalogService {
 
     // === PRODUCTS ===
 
-    List<ResponseProductDTO> getAllProducts();
+    List<ResponseProductDTO> getAllProducts(MediaMode mediaMode);
+
+    ResponsePageDTO<ResponseProductDTO> getProductsPage(String cursor, int size, MediaMode mediaMode);
 
     ResponseProductDTO getProductById(Long id);
 
+    ResponseProductDTO getProductById(Long id, MediaMode mediaMode);
+
+    /**
+     * Products with the given ids in {@code priority, id} order, ids of missing products are skipped.
+     */
+    List<ResponseProductDTO> getProductsByIds(Collection<Long> ids, MediaMode mediaMode);
+
     ResponseProductDTO createProduct(@Valid CreateProductDTO createProductDTO);
 
     ResponseProductDTO updateProduct(Long id, UpdateProductDTO updateProductDTO);
@@ -40,8 +52,15 @@ public interface CatalogService {
 
     List<ResponseMixtureDTO> getAllMixtures();
 
+    ResponsePageDTO<ResponseMixtureDTO> getMixturesPage(String cursor, int size);
+
     ResponseMixtureDTO getMixtureById(Long id);
 
+    /**
+     * Mixtures with the given ids in {@code priority, id} order, ids of missing mixtures are skipped.
+     */
+    List<ResponseMixtureDTO> getMixturesByIds(Collection<Long> ids);
+
    ResponseMixtureDTO createMixture(@Valid CreateMixtureDTO createMixtureDTO);
 
     ResponseMixtureDTO updateMixture(Long id, UpdateMixtureDTO updateMixtureDTO);
@@ -50,10 +69,14 @@ public interface CatalogService {
 
     // === CATEGORIES ===
 
-    List<ResponseCategoryDTO> getAllCategories();
+    List<ResponseCategoryDTO> getAllCategories(MediaMode mediaMode);
+
+    ResponsePageDTO<ResponseCategoryDTO> getCategoriesPage(String cursor, int size, MediaMode mediaMode);
 
     ResponseCategoryDTO getCategoryById(Long id);
 
+    ResponseCategoryDTO getCategoryById(Long id, MediaMode mediaMode);
+
     ResponseCategoryDTO createCategory(@Valid CreateCategoryDTO createCategoryDTO);
 
     ResponseCategoryDTO updateCategory( Long id, UpdateCategoryDTO updateCategoryDTO);
@@ -64,6 +87,8 @@ public interface CatalogService {
 
     List<ResponseTagDTO> getAllTags();
 
+    ResponsePageDTO<ResponseTagDTO> getTagsPage(String cursor, int size);
+
     ResponseTagDTO getTagById(Long id);
 
     ResponseTagDTO createTag(@Valid CreateTagDTO createTagDTOs);
@@ -72,21 +97,21 @@ public interface CatalogService {
 
     void deleteTagById(Long id);
 
-    List<ResponseCategoryDTO> getActiveCategories();
+    List<ResponseCategoryDTO> getActiveCategories(MediaMode mediaMode);
 
     // === COMBINED ===
 
 //    List<ResponseCatalogItemDTO> getAllProductsAndMixtures();
 
-    List<ResponseProductDTO> getAllProductsByCategoryId(Long categoryId);
+    List<ResponseProductDTO> getAllProductsByCategoryId(Long categoryId, MediaMode mediaMode);
 
-    List<ResponseProductDTO> getActiveProductsByCategoryId(Long categoryId);
+    List<ResponseProductDTO> getActiveProductsByCategoryId(Long categoryId, MediaMode mediaMode);
 
-    List<ResponseProductDTO> getActiveProductsForMixingByCategoryId(Long categoryId);
+    List<ResponseProductDTO> getActiveProductsForMixingByCategoryId(Long categoryId, MediaMode mediaMode);
 
-    List<ResponseProductDTO> getActiveProductsForDisplayInProducts();
+    List<ResponseProductDTO> getActiveProductsForDisplayInProducts(MediaMode mediaMode);
 
     List<ResponseMixtureDTO> getActiveMixturesForDisplayInProducts();
 
-    List<ResponseCategoryDTO> getActiveCategoriesForMixing();
+    List<ResponseCategoryDTO> getActiveCategoriesForMixing(MediaMode mediaMode);
 }
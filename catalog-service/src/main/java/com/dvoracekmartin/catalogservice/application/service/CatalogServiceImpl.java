@@ -2,6 +2,7 @@ package com.dvoracekmartin.catalogservice.application.service;
 
 import com.dvoracekmartin.catalogservice.application.dto.category.CreateCategoryDTO;
 import com.dvoracekmartin.catalogservice.application.dto.category.UpdateCategoryDTO;
+import com.dvoracekmartin.catalogservice.application.dto.listing.ResponsePageDTO;
 import com.dvoracekmartin.catalogservice.application.dto.mixture.CreateMixtureDTO;
 import com.dvoracekmartin.catalogservice.application.dto.mixture.UpdateMixtureDTO;
 import com.dvoracekmartin.catalogservice.application.dto.product.CreateProductDTO;
@@ -10,10 +11,14 @@ import com.dvoracekmartin.catalogservice.application.dto.product.UpdateProductSt
 import com.dvoracekmartin.catalogservice.application.dto.tag.CreateTagDTO;
 import com.dvoracekmartin.catalogservice.application.dto.tag.UpdateTagDTO;
 import com.dvoracekmartin.catalogservice.application.dto.utils.CatalogMapper;
-import com.dvoracekmartin.catalogservice.application.elasticsearch.service.ElasticsearchService;
+import com.dvoracekmartin.catalogservice.application.elasticsearch.outbox.SearchIndexOutbox;
 import com.dvoracekmartin.catalogservice.application.event.publisher.CatalogEventPublisher;
-import com.dvoracekmartin.catalogservice.application.service.media.MediaRetriever;
+import com.dvoracekmartin.catalogservice.application.service.listing.ListingCursor;
+import com.dvoracekmartin.catalogservice.application.service.media.MediaMode;
 import com.dvoracekmartin.catalogservice.application.service.media.MediaUploader;
+import com.dvoracekmartin.catalogservice.application.service.readmodel.CatalogChangedEvent;
+import com.dvoracekmartin.catalogservice.application.service.readmodel.CatalogReadModel;
+import com.dvoracekmartin.catalogservice.application.service.readmodel.CatalogSection;
 import com.dvoracekmartin.catalogservice.domain.model.Category;
 import com.dvoracekmartin.catalogservice.domain.model.Mixture;
 import com.dvoracekmartin.catalogservice.domain.model.Product;
@@ -34,19 +39,22 @@ import com.dvoracekmartin.common.event.translation.LocalizedField;
 import com.dvoracekmartin.common.event.translation.TranslationGetOrDeleteEvent;
 import com.dvoracekmartin.common.event.translation.TranslationObjectsEnum;
 import com.dvoracekmartin.common.event.translation.TranslationSaveEvent;
+import com.dvoracekmartin.common.translation.TranslationCache;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.common.errors.ResourceNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 import static java.util.Objects.nonNull;
 
@@ -65,20 +73,18 @@ public class CatalogServiceImpl implements CatalogService {
     private final CatalogMapper catalogMapper;
     private final CatalogDomainService catalogDomainService;
     private final MediaUploader mediaUploader;
-    private final MediaRetriever mediaRetriever;
-    private final ElasticsearchService elasticsearchService;
+    private final SearchIndexOutbox searchIndexOutbox;
     private final WebClient translationWebClient;
+    private final CatalogResponseAssembler catalogResponseAssembler;
+    private final CatalogReadModel catalogReadModel;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final AssociationResolver associationResolver;
+    private final TranslationCache translationCache;
 
-    // Helper methods
-    private List<MediaDTO> retrieveMediaForEntity(String entityId, BucketName bucketName) {
-        List<String> keys = mediaRetriever.listMediaKeysInFolder(entityId, bucketName.getName());
-        return keys.stream().map(key -> {
-            byte[] data = mediaRetriever.retrieveMedia(key, bucketName.getName());
-            String base64 = data != null ? Base64.getEncoder().encodeToString(data) : null;
-            return new MediaDTO(base64, key, deriveContentTypeFromKey(key));
-        }).toList();
-    }
+    @Value("${catalog.listing.max-page-size:200}")
+    private int maxPageSize = 200;
 
+    // Helper methods
     private MediaUploadResult uploadMedia(List<MediaDTO> mediaList, String entityId, BucketName bucketName) {
         List<String> imageUrls = new ArrayList<>();
         List<MediaDTO> responseMedia = new ArrayList<>();
@@ -108,14 +114,6 @@ public class CatalogServiceImpl implements CatalogService {
         }
     }
 
-    private String deriveContentTypeFromKey(String key) {
-        if (key.endsWith(".jpg") || key.endsWith(".jpeg")) return "image/jpeg";
-        if (key.endsWith(".png")) return "image/png";
-        if (key.endsWith(".gif")) return "image/gif";
-        if (key.endsWith(".svg")) return "image/svg+xml";
-        return "application/octet-stream";
-    }
-
     private static TranslationSaveEvent createRequestForTranslationSave(Long elementId, TranslationObjectsEnum elementType, Map<String, LocalizedField> localizedFieldMap) {
         return new TranslationSaveEvent(
                 UUID.randomUUID().toString(),
@@ -139,98 +137,92 @@ public class CatalogServiceImpl implements CatalogService {
                 .retrieve()
                 .bodyToMono(Void.class)
                 .block();
+        // the change event of translation-service arrives later, reads right after the save must not see the old map
+        translationCache.invalidate(translationSaveEvent.getObjectType(), translationSaveEvent.getEntityId());
     }
 
     private Map<String, LocalizedField> getTranslationMap(TranslationGetOrDeleteEvent translationGetOrDeleteEvent) {
-        return translationWebClient.post()
-                .uri("/get")
-                .bodyValue(translationGetOrDeleteEvent)
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<Map<String, LocalizedField>>() {
-                })
-                .block();
+        return translationCache.get(translationGetOrDeleteEvent.getObjectType(), translationGetOrDeleteEvent.getEntityId(),
+                request -> translationWebClient.post()
+                        .uri("/get")
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToMono(new ParameterizedTypeReference<Map<String, LocalizedField>>() {
+                        })
+                        .block());
     }
 
     private Map<String, LocalizedField> deleteTranslationMap(TranslationGetOrDeleteEvent translationGetOrDeleteEvent) {
-        return translationWebClient.post()
+        Map<String, LocalizedField> deleted = translationWebClient.post()
                 .uri("/delete")
                 .bodyValue(translationGetOrDeleteEvent)
                 .retrieve()
                 .bodyToMono(new ParameterizedTypeReference<Map<String, LocalizedField>>() {
                 })
                 .block();
+        translationCache.invalidate(translationGetOrDeleteEvent.getObjectType(), translationGetOrDeleteEvent.getEntityId());
+        return deleted;
     }
 
 
     // Product methods
     @Override
-    public List<ResponseProductDTO> getAllProducts() {
-        mediaUploader.createBucketIfNotExists(BucketName.PRODUCTS.getName());
-        return productRepository.findAll().stream()
-                .map(this::mapProductToResponseDTO)
-                .sorted(Comparator.comparingInt(ResponseProductDTO::getPriority)
-                        .thenComparingLong(ResponseProductDTO::getId))
-                .toList();
+    public List<ResponseProductDTO> getAllProducts(MediaMode mediaMode) {
+        return productsWithMedia(catalogReadModel.getSnapshot().products(), mediaMode);
     }
 
     @Override
-    public List<ResponseProductDTO> getAllProductsByCategoryId(Long categoryId) {
-        mediaUploader.createBucketIfNotExists(BucketName.PRODUCTS.getName());
-        return productRepository.findAllByCategoryId(categoryId).stream()
-                .map(this::mapProductToResponseDTO)
-                .sorted(Comparator.comparingInt(ResponseProductDTO::getPriority)
-                        .thenComparingLong(ResponseProductDTO::getId))
-                .toList();
+    @Transactional(readOnly = true)
+    public ResponsePageDTO<ResponseProductDTO> getProductsPage(String cursor, int size, MediaMode mediaMode) {
+        Window<Product> window = productRepository.findAllByOrderByPriorityAscIdAsc(
+                ListingCursor.decode(cursor), ListingCursor.limit(size, maxPageSize));
+        List<ResponseProductDTO> products = catalogResponseAssembler.assembleProducts(window.getContent());
+        if (mediaMode == MediaMode.INLINE) {
+            products = catalogResponseAssembler.productsWithInlineMedia(products);
+        }
+        return new ResponsePageDTO<>(products, ListingCursor.next(window));
     }
 
     @Override
-    public List<ResponseProductDTO> getActiveProductsByCategoryId(Long categoryId) {
-        mediaUploader.createBucketIfNotExists(BucketName.PRODUCTS.getName());
-        return productRepository.findAllByCategoryIdAndActiveTrue(categoryId).stream()
-                .map(this::mapProductToResponseDTO)
-                .sorted(Comparator.comparingInt(ResponseProductDTO::getPriority)
-                        .thenComparingLong(ResponseProductDTO::getId))
-                .toList();
+    public List<ResponseProductDTO> getAllProductsByCategoryId(Long categoryId, MediaMode mediaMode) {
+        return productsWithMedia(catalogReadModel.getSnapshot().products().stream()
+                .filter(product -> Objects.equals(product.getCategoryId(), categoryId))
+                .toList(), mediaMode);
     }
 
     @Override
-    public List<ResponseProductDTO> getActiveProductsForMixingByCategoryId(Long categoryId) {
-        mediaUploader.createBucketIfNotExists(BucketName.PRODUCTS.getName());
-        return productRepository.findAllByCategoryIdAndActiveTrueAndMixableTrue(categoryId).stream()
-                .map(this::mapProductToResponseDTO)
-                .sorted(Comparator.comparingInt(ResponseProductDTO::getPriority)
-                        .thenComparingLong(ResponseProductDTO::getId))
-                .toList();
+    public List<ResponseProductDTO> getActiveProductsByCategoryId(Long categoryId, MediaMode mediaMode) {
+        return productsWithMedia(catalogReadModel.getSnapshot().products().stream()
+                .filter(product -> Objects.equals(product.getCategoryId(), categoryId) && product.isActive())
+                .toList(), mediaMode);
     }
 
     @Override
-    public List<ResponseProductDTO> getActiveProductsForDisplayInProducts() {
-        mediaUploader.createBucketIfNotExists(BucketName.PRODUCTS.getName());
-        return productRepository.findAllByActiveTrueAndDisplayInProductsTrue().stream()
-                .map(this::mapProductToResponseDTO)
-                .sorted(Comparator.comparingInt(ResponseProductDTO::getPriority)
-                        .thenComparingLong(ResponseProductDTO::getId))
-                .toList();
+    public List<ResponseProductDTO> getActiveProductsForMixingByCategoryId(Long categoryId, MediaMode mediaMode) {
+        return productsWithMedia(catalogReadModel.getSnapshot().products().stream()
+                .filter(product -> Objects.equals(product.getCategoryId(), categoryId) && product.isActive() && product.isMixable())
+                .toList(), mediaMode);
+    }
+
+    @Override
+    public List<ResponseProductDTO> getActiveProductsForDisplayInProducts(MediaMode mediaMode) {
+        return productsWithMedia(catalogReadModel.getSnapshot().products().stream()
+                .filter(product -> product.isActive() && product.isDisplayInProducts())
+                .toList(), mediaMode);
     }
 
     @Override
     public List<ResponseMixtureDTO> getActiveMixturesForDisplayInProducts() {
-        mediaUploader.createBucketIfNotExists(BucketName.MIXTURES.getName());
-        return mixtureRepository.findAllByActiveTrueAndDisplayInProductsTrue().stream()
-                .map(this::mapMixtureToResponseDTO)
-                .sorted(Comparator.comparingInt(ResponseMixtureDTO::getPriority)
-                        .thenComparingLong(ResponseMixtureDTO::getId))
+        return catalogReadModel.getSnapshot().mixtures().stream()
+                .filter(mixture -> mixture.isActive() && mixture.isDisplayInProducts())
                 .toList();
     }
 
     @Override
-    public List<ResponseCategoryDTO> getActiveCategoriesForMixing() {
-        mediaUploader.createBucketIfNotExists(BucketName.CATEGORIES.getName());
-        return categoryRepository.findByActiveTrueAndMixableTrue().stream()
-                .map(responseCategoryDTO -> mapCategoryToResponseDTO(responseCategoryDTO))
-                .sorted(Comparator.comparingInt(ResponseCategoryDTO::getPriority)
-                        .thenComparingLong(ResponseCategoryDTO::getId))
-                .collect(Collectors.toList());
+    public List<ResponseCategoryDTO> getActiveCategoriesForMixing(MediaMode mediaMode) {
+        return categoriesWithMedia(catalogReadModel.getSnapshot().categories().stream()
+                .filter(category -> category.isActive() && category.isMixable())
+                .toList(), mediaMode);
     }
 
     @Override
@@ -240,20 +232,10 @@ public class CatalogServiceImpl implements CatalogService {
         product.setPrice(createProductDTO.getPrice());
         product.setPriority(createProductDTO.getPriority());
         product.setWeightGrams(createProductDTO.getWeightGrams());
-        product.setCategory(categoryRepository.findById(createProductDTO.getCategoryId())
-                .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + createProductDTO.getCategoryId())));
+        product.setCategory(associationResolver.category(createProductDTO.getCategoryId()));
         product.setMixable(createProductDTO.isMixable());
         product.setDisplayInProducts(createProductDTO.isDisplayInProducts());
-        if (createProductDTO.getTagIds() != null) {
-            List<Tag> tags = createProductDTO.getTagIds().stream()
-                    .map(tagRepository::findById)
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .collect(Collectors.toCollection(ArrayList::new));
-            product.setTags(tags);
-        } else {
-            product.setTags(new ArrayList<>());
-        }
+        product.setTags(associationResolver.tags(createProductDTO.getTagIds()));
 
         // Save product to get ID
         Product savedProduct = productRepository.save(product);
@@ -266,8 +248,9 @@ public class CatalogServiceImpl implements CatalogService {
         // save translated strings
         saveOrUpdateTranslation(createRequestForTranslationSave(product.getId(), TranslationObjectsEnum.PRODUCT, createProductDTO.getLocalizedFields()));
 
-        // Index in Elasticsearch
-        // elasticsearchService.indexProduct(catalogMapper.mapProductToResponseProductDTO(finalProduct));
+        searchIndexOutbox.index(CatalogSection.PRODUCTS, finalProduct.getId());
+
+        applicationEventPublisher.publishEvent(new CatalogChangedEvent(CatalogSection.PRODUCTS, finalProduct.getId()));
 
         Map<String, LocalizedField> translationMap = getTranslationMap(createRequestForTranslationGetOrDelete(finalProduct.getId(), TranslationObjectsEnum.PRODUCT));
 
@@ -280,19 +263,15 @@ public class CatalogServiceImpl implements CatalogService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
 
         existingProduct.setWeightGrams(updateProductDTO.getWeightGrams());
-        existingProduct.setCategory(categoryRepository.findById(updateProductDTO.getCategoryId()).orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + updateProductDTO.getCategoryId())));
+        existingProduct.setCategory(associationResolver.category(updateProductDTO.getCategoryId()));
         existingProduct.setActive(updateProductDTO.isActive());
         existingProduct.setMixable(updateProductDTO.isMixable());
         existingProduct.setDisplayInProducts(updateProductDTO.isDisplayInProducts());
         existingProduct.setPriority(updateProductDTO.getPriority());
         existingProduct.setPrice(updateProductDTO.getPrice());
-        if (updateProductDTO.getTagIds() != null) {
-            List<Tag> tags = tagRepository.findAllById(updateProductDTO.getTagIds());
-            existingProduct.getTags().clear();
-            existingProduct.getTags().addAll(tags);
-        } else {
-            existingProduct.getTags().clear();
-        }
+        List<Tag> tags = associationResolver.tags(updateProductDTO.getTagIds());
+        existingProduct.getTags().clear();
+        existingProduct.getTags().addAll(tags);
 
         deleteMediaForEntity(existingProduct.getImageUrl());
         MediaUploadResult uploadResult = uploadMedia(updateProductDTO.getMedia(),
@@ -306,7 +285,9 @@ public class CatalogServiceImpl implements CatalogService {
 
         Product savedProduct = productRepository.save(existingProduct);
 
-        elasticsearchService.indexProduct(catalogMapper.mapProductToResponseProductDTO(savedProduct));
+        searchIndexOutbox.index(CatalogSection.PRODUCTS, savedProduct.getId());
+
+        applicationEventPublisher.publishEvent(new CatalogChangedEvent(CatalogSection.PRODUCTS, savedProduct.getId()));
 
         Map<String, LocalizedField> translationMap = getTranslationMap(createRequestForTranslationGetOrDelete(savedProduct.getId(), TranslationObjectsEnum.PRODUCT));
         return catalogMapper.mapProductToResponseProductDTO(savedProduct, uploadResult.mediaDTOs(), translationMap);
@@ -314,53 +295,59 @@ public class CatalogServiceImpl implements CatalogService {
 
     @Override
     public ResponseProductDTO getProductById(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
-        return mapProductToResponseDTO(product);
+        return getProductById(id, MediaMode.INLINE);
+    }
+
+    @Override
+    public ResponseProductDTO getProductById(Long id, MediaMode mediaMode) {
+        ResponseProductDTO product = catalogReadModel.getSnapshot().findProduct(id)
+                .orElseGet(() -> catalogResponseAssembler.assembleProduct(productRepository.findById(id)
+                        .orElseThrow(() -> new RuntimeException("Product not found with id: " + id))));
+        return mediaMode == MediaMode.INLINE ? catalogResponseAssembler.withInlineMedia(product) : product;
+    }
+
+    @Override
+    public List<ResponseProductDTO> getProductsByIds(Collection<Long> ids, MediaMode mediaMode) {
+        Set<Long> wanted = new HashSet<>(ids);
+        List<ResponseProductDTO> products = new ArrayList<>(catalogReadModel.getSnapshot().products().stream()
+                .filter(product -> wanted.contains(product.getId()))
+                .toList());
+        // entities not in the snapshot yet are assembled together, like a single lookup falls back to the database
+        products.forEach(product -> wanted.remove(product.getId()));
+        if (!wanted.isEmpty()) {
+            products.addAll(catalogResponseAssembler.assembleProducts(productRepository.findAllById(wanted)));
+            products.sort(Comparator.comparingInt(ResponseProductDTO::getPriority).thenComparingLong(ResponseProductDTO::getId));
+        }
+        return productsWithMedia(products, mediaMode);
     }
 
     @Override
     public void deleteProductById(Long id) {
         productRepository.findById(id).ifPresent(product -> {
             deleteMediaForEntity(product.getImageUrl());
-            elasticsearchService.deleteProduct(catalogMapper.mapProductToResponseProductDTO(product));
+            searchIndexOutbox.delete(CatalogSection.PRODUCTS, product.getId());
         });
 
         TranslationGetOrDeleteEvent request = createRequestForTranslationGetOrDelete(id, TranslationObjectsEnum.PRODUCT);
         deleteTranslationMap(request);
 
         productRepository.deleteById(id);
-    }
-
-    private ResponseProductDTO mapProductToResponseDTO(Product product) {
-        List<MediaDTO> mediaDTOs = retrieveMediaForEntity(product.getId().toString(), BucketName.PRODUCTS);
-
-        return new ResponseProductDTO(
-                product.getId(),
-                getTranslationMap(createRequestForTranslationGetOrDelete(product.getId(), TranslationObjectsEnum.PRODUCT)),
-                product.getPriority(),
-                product.isActive(),
-                mediaDTOs,
-                product.getTags().stream().map(
-                        tag -> catalogMapper.mapTagToResponseTagDTO(tag, getTranslationMap(createRequestForTranslationGetOrDelete(tag.getId(), TranslationObjectsEnum.TAG)))
-                ).toList(),
-                product.getCategory().getId(),
-                product.getPrice(),
-                product.getWeightGrams(),
-                product.isMixable(),
-                product.isDisplayInProducts()
-        );
+        applicationEventPublisher.publishEvent(new CatalogChangedEvent(CatalogSection.PRODUCTS, id));
     }
 
     // Mixture methods
     @Override
     public List<ResponseMixtureDTO> getAllMixtures() {
-        mediaUploader.createBucketIfNotExists(BucketName.MIXTURES.getName());
-        return mixtureRepository.findAll().stream()
-                .map(this::mapMixtureToResponseDTO)
-                .sorted(Comparator.comparingInt(ResponseMixtureDTO::getPriority)
-                        .thenComparingLong(ResponseMixtureDTO::getId))
-                .toList();
+        return catalogReadModel.getSnapshot().mixtures();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResponsePageDTO<ResponseMixtureDTO> getMixturesPage(String cursor, int size) {
+        Window<Mixture> window = mixtureRepository.findAllByOrderByPriorityAscIdAsc(
+                ListingCursor.decode(cursor), ListingCursor.limit(size, maxPageSize));
+        return new ResponsePageDTO<>(catalogResponseAssembler.assembleMixtures(window.getContent()),
+                ListingCursor.next(window));
     }
 
     @Override
@@ -372,21 +359,9 @@ public class CatalogServiceImpl implements CatalogService {
         mixture.setPrice(createMixtureDTO.getPrice());
         mixture.setWeightGrams(createMixtureDTO.getWeightGrams());
         mixture.setDisplayInProducts(createMixtureDTO.isDisplayInProducts());
-        mixture.setProducts(createMixtureDTO.getProductIds().stream()
-                .map(productRepository::findById)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toCollection(ArrayList::new)));
-
-        mixture.setTags(createMixtureDTO.getTagIds().stream()
-                .map(tagRepository::findById)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toCollection(ArrayList::new)));
-
-        Category category = categoryRepository.findById(createMixtureDTO.getCategoryId())
-                .orElseThrow(() -> new EntityNotFoundException("Category not found with id: " + createMixtureDTO.getCategoryId()));
-        mixture.setCategory(category);
+        mixture.setProducts(associationResolver.products(createMixtureDTO.getProductIds()));
+        mixture.setTags(associationResolver.tags(createMixtureDTO.getTagIds()));
+        mixture.setCategory(associationResolver.category(createMixtureDTO.getCategoryId()));
 
         Mixture savedMixture = mixtureRepository.save(mixture);
         MediaUploadResult uploadResult = uploadMedia(createMixtureDTO.getMedia(),
@@ -402,7 +377,9 @@ public class CatalogServiceImpl implements CatalogService {
 
         Mixture finalMixture = mixtureRepository.save(savedMixture);
 
-        // elasticsearchService.indexMixture(catalogMapper.mapMixtureToResponseMixtureDTO(finalMixture));
+        searchIndexOutbox.index(CatalogSection.MIXTURES, finalMixture.getId());
+
+        applicationEventPublisher.publishEvent(new CatalogChangedEvent(CatalogSection.MIXTURES, finalMixture.getId()));
 
         Map<String, LocalizedField> translationMap = getTranslationMap(createRequestForTranslationGetOrDelete(finalMixture.getId(), TranslationObjectsEnum.MIXTURE));
         return catalogMapper.mapMixtureToResponseMixtureDTO(finalMixture, uploadResult.mediaDTOs(), translationMap);
@@ -419,21 +396,9 @@ public class CatalogServiceImpl implements CatalogService {
         existingMixture.setWeightGrams(updateMixtureDTO.getWeightGrams());
         existingMixture.setDisplayInProducts(updateMixtureDTO.isDisplayInProducts());
 
-        existingMixture.setProducts(updateMixtureDTO.getProductIds().stream()
-                .map(productRepository::findById)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toCollection(ArrayList::new)));
-
-        existingMixture.setTags(updateMixtureDTO.getTagIds().stream()
-                .map(tagRepository::findById)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toCollection(ArrayList::new)));
-
-        Category category = categoryRepository.findById(updateMixtureDTO.getCategoryId())
-                .orElseThrow(() -> new EntityNotFoundException("Category not found with id: " + updateMixtureDTO.getCategoryId()));
-        existingMixture.setCategory(category);
+        existingMixture.setProducts(associationResolver.products(updateMixtureDTO.getProductIds()));
+        existingMixture.setTags(associationResolver.tags(updateMixtureDTO.getTagIds()));
+        existingMixture.setCategory(associationResolver.category(updateMixtureDTO.getCategoryId()));
 
         deleteMediaForEntity(existingMixture.getImageUrl());
         MediaUploadResult uploadResult = uploadMedia(updateMixtureDTO.getMedia(),
@@ -449,7 +414,9 @@ public class CatalogServiceImpl implements CatalogService {
 
         Mixture savedMixture = mixtureRepository.save(existingMixture);
 
-        // elasticsearchService.indexMixture(catalogMapper.mapMixtureToResponseMixtureDTO(savedMixture));
+        searchIndexOutbox.index(CatalogSection.MIXTURES, savedMixture.getId());
+
+        applicationEventPublisher.publishEvent(new CatalogChangedEvent(CatalogSection.MIXTURES, savedMixture.getId()));
 
         Map<String, LocalizedField> translationMap = getTranslationMap(createRequestForTranslationGetOrDelete(savedMixture.getId(), TranslationObjectsEnum.MIXTURE));
         return catalogMapper.mapMixtureToResponseMixtureDTO(savedMixture, uploadResult.mediaDTOs(), translationMap);
@@ -457,62 +424,63 @@ public class CatalogServiceImpl implements CatalogService {
 
     @Override
     public ResponseMixtureDTO getMixtureById(Long id) {
-        Mixture mixture = mixtureRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Mixture not found with id: " + id));
-        return mapMixtureToResponseDTO(mixture);
+        return catalogReadModel.getSnapshot().findMixture(id)
+                .orElseGet(() -> catalogResponseAssembler.assembleMixture(mixtureRepository.findById(id)
+                        .orElseThrow(() -> new EntityNotFoundException("Mixture not found with id: " + id))));
+    }
+
+    @Override
+    public List<ResponseMixtureDTO> getMixturesByIds(Collection<Long> ids) {
+        Set<Long> wanted = new HashSet<>(ids);
+        List<ResponseMixtureDTO> mixtures = new ArrayList<>(catalogReadModel.getSnapshot().mixtures().stream()
+                .filter(mixture -> wanted.contains(mixture.getId()))
+                .toList());
+        mixtures.forEach(mixture -> wanted.remove(mixture.getId()));
+        if (!wanted.isEmpty()) {
+            mixtures.addAll(catalogResponseAssembler.assembleMixtures(mixtureRepository.findAllById(wanted)));
+            mixtures.sort(Comparator.comparingInt(ResponseMixtureDTO::getPriority).thenComparingLong(ResponseMixtureDTO::getId));
+        }
+        return mixtures;
     }
 
     @Override
     public void deleteMixtureById(Long id) {
         mixtureRepository.findById(id).ifPresent(mixture -> {
             deleteMediaForEntity(mixture.getImageUrl());
-            elasticsearchService.deleteMixture(catalogMapper.mapMixtureToResponseMixtureDTO(mixture));
+            searchIndexOutbox.delete(CatalogSection.MIXTURES, mixture.getId());
         });
 
         TranslationGetOrDeleteEvent request = createRequestForTranslationGetOrDelete(id, TranslationObjectsEnum.MIXTURE);
         deleteTranslationMap(request);
 
         mixtureRepository.deleteById(id);
+        applicationEventPublisher.publishEvent(new CatalogChangedEvent(CatalogSection.MIXTURES, id));
     }
 
-    private ResponseMixtureDTO mapMixtureToResponseDTO(Mixture mixture) {
-        return new ResponseMixtureDTO(
-                mixture.getId(),
-                mixture.getName(),
-                getTranslationMap(createRequestForTranslationGetOrDelete(mixture.getId(), TranslationObjectsEnum.MIXTURE)),
-                mixture.getPriority(),
-                mixture.isActive(),
-                null,
-                // retrieveMediaForEntity(mixture.getId().toString(), BucketName.MIXTURES),
-                mixture.getCategory().getId(),
-                mixture.getProducts().stream().map(catalogMapper::mapProductToResponseProductDTO).toList(),
-                mixture.getTags().stream().map(Tag::getId).toList(),
-                mixture.getPrice(),
-                mixture.getWeightGrams(),
-                mixture.isDisplayInProducts()
-        );
+    // Category methods
+    @Override
+    public List<ResponseCategoryDTO> getAllCategories(MediaMode mediaMode) {
+        return categoriesWithMedia(catalogReadModel.getSnapshot().categories(), mediaMode);
     }
 
-    // Category methods
     @Override
-    public List<ResponseCategoryDTO> getAllCategories() {
-        mediaUploader.createBucketIfNotExists(BucketName.CATEGORIES.getName());
-        return categoryRepository.findAll().stream()
-                .map(responseCategoryDTO -> mapCategoryToResponseDTO(responseCategoryDTO))
-                .sorted(Comparator.comparingInt(ResponseCategoryDTO::getPriority)
-                        .thenComparingLong(ResponseCategoryDTO::getId))
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public ResponsePageDTO<ResponseCategoryDTO> getCategoriesPage(String cursor, int size, MediaMode mediaMode) {
+        Window<Category> window = categoryRepository.findAllByOrderByPriorityAscIdAsc(
+                ListingCursor.decode(cursor), ListingCursor.limit(size, maxPageSize));
+        List<ResponseCategoryDTO> categories = catalogResponseAssembler.assembleCategories(window.getContent());
+        if (mediaMode == MediaMode.INLINE) {
+            categories = catalogResponseAssembler.categoriesWithInlineMedia(categories);
+        }
+        return new ResponsePageDTO<>(categories, ListingCursor.next(window));
     }
 
     @Override
-    public List<ResponseCategoryDTO> getActiveCategories() {
-        mediaUploader.createBucketIfNotExists(BucketName.CATEGORIES.getName());
+    public List<ResponseCategoryDTO> getActiveCategories(MediaMode mediaMode) {
 
-        return categoryRepository.findByActiveTrue().stream()
-                .map(responseCategoryDTO -> mapCategoryToResponseDTO(responseCategoryDTO))
-                .sorted(Comparator.comparingInt(ResponseCategoryDTO::getPriority)
-                        .thenComparingLong(ResponseCategoryDTO::getId))
-                .collect(Collectors.toList());
+        return categoriesWithMedia(catalogReadModel.getSnapshot().categories().stream()
+                .filter(ResponseCategoryDTO::isActive)
+                .toList(), mediaMode);
     }
 
 
@@ -524,16 +492,7 @@ public class CatalogServiceImpl implements CatalogService {
         category.setActive(createCategoryDTO.isActive());
         category.setMixable(createCategoryDTO.isMixable());
 
-        if (createCategoryDTO.getTagIds() != null) {
-            List<Tag> tags = createCategoryDTO.getTagIds().stream()
-                    .map(tagRepository::findById)
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .collect(Collectors.toCollection(ArrayList::new));
-            category.setTags(tags);
-        } else {
-            category.setTags(new ArrayList<>());
-        }
+        category.setTags(associationResolver.tags(createCategoryDTO.getTagIds()));
 
         // Save the category first to get an ID
         Category savedCategory = categoryRepository.save(category);
@@ -547,8 +506,9 @@ public class CatalogServiceImpl implements CatalogService {
         // save translated strings
         saveOrUpdateTranslation(createRequestForTranslationSave(category.getId(), TranslationObjectsEnum.CATEGORY, createCategoryDTO.getLocalizedFields()));
 
-        // Index in Elasticsearch
-        // elasticsearchService.indexCategory(catalogMapper.mapCategoryToResponseCategoryDTO(finalCategory));
+        searchIndexOutbox.index(CatalogSection.CATEGORIES, finalCategory.getId());
+
+        applicationEventPublisher.publishEvent(new CatalogChangedEvent(CatalogSection.CATEGORIES, finalCategory.getId()));
 
         Map<String, LocalizedField> translationMap = getTranslationMap(createRequestForTranslationGetOrDelete(finalCategory.getId(), TranslationObjectsEnum.CATEGORY));
 
@@ -572,20 +532,13 @@ public class CatalogServiceImpl implements CatalogService {
         existingCategory.setMixable(updateCategoryDTO.isMixable());
         existingCategory.getImageUrl().addAll(uploadResult.imageUrls());
 
-        if (updateCategoryDTO.getTagIds() != null) {
-            List<Tag> tags = updateCategoryDTO.getTagIds().stream()
-                    .map(tagRepository::findById)
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .collect(Collectors.toCollection(ArrayList::new));
-            existingCategory.setTags(tags);
-        } else {
-            existingCategory.setTags(new ArrayList<>());
-        }
+        existingCategory.setTags(associationResolver.tags(updateCategoryDTO.getTagIds()));
 
         Category savedCategory = categoryRepository.save(existingCategory);
 
-        // elasticsearchService.indexCategory(catalogMapper.mapCategoryToResponseCategoryDTO(savedCategory));
+        searchIndexOutbox.index(CatalogSection.CATEGORIES, savedCategory.getId());
+
+        applicationEventPublisher.publishEvent(new CatalogChangedEvent(CatalogSection.CATEGORIES, savedCategory.getId()));
 
         Map<String, LocalizedField> translationMap = getTranslationMap(createRequestForTranslationGetOrDelete(savedCategory.getId(), TranslationObjectsEnum.CATEGORY));
 
@@ -594,35 +547,29 @@ public class CatalogServiceImpl implements CatalogService {
 
     @Override
     public ResponseCategoryDTO getCategoryById(Long id) {
-        Category category = categoryRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Category not found with id: " + id));
-        return mapCategoryToResponseDTO(category);
+        return getCategoryById(id, MediaMode.INLINE);
+    }
+
+    @Override
+    public ResponseCategoryDTO getCategoryById(Long id, MediaMode mediaMode) {
+        ResponseCategoryDTO category = catalogReadModel.getSnapshot().findCategory(id)
+                .orElseGet(() -> catalogResponseAssembler.assembleCategory(categoryRepository.findById(id)
+                        .orElseThrow(() -> new RuntimeException("Category not found with id: " + id))));
+        return mediaMode == MediaMode.INLINE ? catalogResponseAssembler.withInlineMedia(category) : category;
     }
 
     @Override
     public void deleteCategoryById(Long id) {
         categoryRepository.findById(id).ifPresent(category -> {
             deleteMediaForEntity(category.getImageUrl());
-            elasticsearchService.deleteCategory(catalogMapper.mapCategoryToResponseCategoryDTO(category));
+            searchIndexOutbox.delete(CatalogSection.CATEGORIES, category.getId());
         });
 
         TranslationGetOrDeleteEvent request = createRequestForTranslationGetOrDelete(id, TranslationObjectsEnum.CATEGORY);
         deleteTranslationMap(request);
 
         categoryRepository.deleteById(id);
-    }
-
-    private ResponseCategoryDTO mapCategoryToResponseDTO(Category category) {
-        List<MediaDTO> mediaDTOs = retrieveMediaForEntity(category.getId().toString(), BucketName.CATEGORIES);
-        return new ResponseCategoryDTO(
-                category.getId(),
-                getTranslationMap(createRequestForTranslationGetOrDelete(category.getId(), TranslationObjectsEnum.CATEGORY)),
-                category.getPriority(),
-                category.isActive(),
-                mediaDTOs,
-                category.getTags().stream().map(this::mapTagToResponseDTO).toList(),
-                category.isMixable()
-        );
+        applicationEventPublisher.publishEvent(new CatalogChangedEvent(CatalogSection.CATEGORIES, id));
     }
 
     // Tag methods
@@ -638,8 +585,9 @@ public class CatalogServiceImpl implements CatalogService {
 
         saveOrUpdateTranslation(createRequestForTranslationSave(tag.getId(), TranslationObjectsEnum.TAG, createTagDTO.getLocalizedFields()));
 
-        // Index in Elasticsearch
-        // elasticsearchService.indexTag(catalogMapper.mapTagToResponseTagDTO(finalTag));
+        searchIndexOutbox.index(CatalogSection.TAGS, finalTag.getId());
+
+        applicationEventPublisher.publishEvent(new CatalogChangedEvent(CatalogSection.TAGS, finalTag.getId()));
 
         Map<String, LocalizedField> translationMap = getTranslationMap(createRequestForTranslationGetOrDelete(finalTag.getId(), TranslationObjectsEnum.TAG));
         finalTag.setCategories(new ArrayList<>());
@@ -651,11 +599,16 @@ public class CatalogServiceImpl implements CatalogService {
     @Override
     @Transactional(readOnly = true)
     public List<ResponseTagDTO> getAllTags() {
-        return tagRepository.findAll().stream()
-                .map(this::mapTagToResponseDTO)
-                .sorted(Comparator.comparingInt(ResponseTagDTO::getPriority)
-                        .thenComparingLong(ResponseTagDTO::getId))
-                .collect(Collectors.toList());
+        return catalogReadModel.getSnapshot().tags();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResponsePageDTO<ResponseTagDTO> getTagsPage(String cursor, int size) {
+        Window<Tag> window = tagRepository.findAllByOrderByPriorityAscIdAsc(
+                ListingCursor.decode(cursor), ListingCursor.limit(size, maxPageSize));
+        return new ResponsePageDTO<>(catalogResponseAssembler.assembleTags(window.getContent()),
+                ListingCursor.next(window));
     }
 
     @Override
@@ -668,13 +621,7 @@ public class CatalogServiceImpl implements CatalogService {
         existingTag.setColor(updateTagDTO.getColor());
         existingTag.setIcon(updateTagDTO.getIcon());
 
-        List<Category> newCategories = updateTagDTO.getCategoryIds() != null
-                ? updateTagDTO.getCategoryIds().stream()
-                .map(categoryRepository::findById)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toCollection(ArrayList::new))
-                : new ArrayList<>();
+        List<Category> newCategories = associationResolver.categories(updateTagDTO.getCategoryIds());
         List<Category> oldCategories = new ArrayList<>(existingTag.getCategories());
         existingTag.setCategories(newCategories);
         for (Category oldCat : oldCategories) {
@@ -688,13 +635,7 @@ public class CatalogServiceImpl implements CatalogService {
             }
         }
 
-        List<Product> newProducts = updateTagDTO.getProductIds() != null
-                ? updateTagDTO.getProductIds().stream()
-                .map(productRepository::findById)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toCollection(ArrayList::new))
-                : new ArrayList<>();
+        List<Product> newProducts = associationResolver.products(updateTagDTO.getProductIds());
         List<Product> oldProducts = new ArrayList<>(existingTag.getProducts());
         existingTag.setProducts(newProducts);
         for (Product oldProd : oldProducts) {
@@ -708,13 +649,7 @@ public class CatalogServiceImpl implements CatalogService {
             }
         }
 
-        List<Mixture> newMixtures = updateTagDTO.getMixtureIds() != null
-                ? updateTagDTO.getMixtureIds().stream()
-                .map(mixtureRepository::findById)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toCollection(ArrayList::new))
-                : new ArrayList<>();
+        List<Mixture> newMixtures = associationResolver.mixtures(updateTagDTO.getMixtureIds());
         List<Mixture> oldMixtures = new ArrayList<>(existingTag.getMixtures());
         existingTag.setMixtures(newMixtures);
         for (Mixture oldMix : oldMixtures) {
@@ -733,7 +668,9 @@ public class CatalogServiceImpl implements CatalogService {
 
         Tag finalTag = tagRepository.save(existingTag);
 
-        //elasticsearchService.indexTag(catalogMapper.mapTagToResponseTagDTO(savedTag));
+        searchIndexOutbox.index(CatalogSection.TAGS, finalTag.getId());
+
+        applicationEventPublisher.publishEvent(new CatalogChangedEvent(CatalogSection.TAGS, finalTag.getId()));
 
         Map<String, LocalizedField> translationMap = getTranslationMap(createRequestForTranslationGetOrDelete(finalTag.getId(), TranslationObjectsEnum.TAG));
 
@@ -742,37 +679,23 @@ public class CatalogServiceImpl implements CatalogService {
 
     @Override
     public ResponseTagDTO getTagById(Long id) {
-        Tag tag = tagRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Tag not found with id: " + id));
-        return mapTagToResponseDTO(tag);
+        return catalogReadModel.getSnapshot().findTag(id)
+                .orElseGet(() -> catalogResponseAssembler.assembleTag(tagRepository.findById(id)
+                        .orElseThrow(() -> new RuntimeException("Tag not found with id: " + id))));
     }
 
     @Override
     public void deleteTagById(Long id) {
         tagRepository.findById(id).ifPresent(tag -> {
             deleteMediaForEntity(tag.getImageUrl());
-            elasticsearchService.deleteTag(catalogMapper.mapTagToResponseTagDTO(tag));
+            searchIndexOutbox.delete(CatalogSection.TAGS, tag.getId());
         });
 
         TranslationGetOrDeleteEvent request = createRequestForTranslationGetOrDelete(id, TranslationObjectsEnum.TAG);
         deleteTranslationMap(request);
 
         tagRepository.deleteById(id);
-    }
-
-    private ResponseTagDTO mapTagToResponseDTO(Tag tag) {
-        return new ResponseTagDTO(
-                tag.getId(),
-                getTranslationMap(createRequestForTranslationGetOrDelete(tag.getId(), TranslationObjectsEnum.TAG)),
-                tag.getPriority(),
-                tag.isActive(),
-                null,
-                tag.getCategories().stream().map(catalogMapper::mapCategoryToResponseCategoryDTO).toList(),
-                tag.getProducts().stream().map(catalogMapper::mapProductToResponseProductDTO).toList(),
-                tag.getMixtures().stream().map(catalogMapper::mapMixtureToResponseMixtureDTO).toList(),
-                tag.getColor(),
-                tag.getIcon()
-        );
+        applicationEventPublisher.publishEvent(new CatalogChangedEvent(CatalogSection.TAGS, id));
     }
 
     // Inventory methods
@@ -796,6 +719,15 @@ public class CatalogServiceImpl implements CatalogService {
         return null;
     }
 
+    // inline media is encoded per request for the returned items only, the snapshot keeps references
+    private List<ResponseProductDTO> productsWithMedia(List<ResponseProductDTO> products, MediaMode mediaMode) {
+        return mediaMode == MediaMode.INLINE ? catalogResponseAssembler.productsWithInlineMedia(products) : products;
+    }
+
+    private List<ResponseCategoryDTO> categoriesWithMedia(List<ResponseCategoryDTO> categories, MediaMode mediaMode) {
+        return mediaMode == MediaMode.INLINE ? catalogResponseAssembler.categoriesWithInlineMedia(categories) : categories;
+    }
+
     private record MediaUploadResult(List<String> imageUrls, List<MediaDTO> mediaDTOs) {
     }
 }
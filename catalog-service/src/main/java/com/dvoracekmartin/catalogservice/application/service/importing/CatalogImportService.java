@@ -0,0 +1,572 @@
+package com.dvoracekmartin.catalogservice.application.service.importing;
+
+import com.dvoracekmartin.catalogservice.application.dto.importing.CatalogImportRowDTO;
+import com.dvoracekmartin.catalogservice.application.dto.importing.CatalogImportType;
+import com.dvoracekmartin.catalogservice.application.dto.importing.ImportRowStatus;
+import com.dvoracekmartin.catalogservice.application.dto.importing.ResponseImportResultDTO;
+import com.dvoracekmartin.catalogservice.application.dto.importing.ResponseImportRowDTO;
+import com.dvoracekmartin.catalogservice.application.elasticsearch.outbox.SearchIndexOutbox;
+import com.dvoracekmartin.catalogservice.application.service.media.ConcurrentMediaLoader;
+import com.dvoracekmartin.catalogservice.application.service.media.MediaContentTypes;
+import com.dvoracekmartin.catalogservice.application.service.media.MediaUploader;
+import com.dvoracekmartin.catalogservice.application.service.readmodel.CatalogChangedEvent;
+import com.dvoracekmartin.catalogservice.application.service.readmodel.CatalogSection;
+import com.dvoracekmartin.catalogservice.domain.model.BaseEntity;
+import com.dvoracekmartin.catalogservice.domain.model.Category;
+import com.dvoracekmartin.catalogservice.domain.model.Mixture;
+import com.dvoracekmartin.catalogservice.domain.model.Product;
+import com.dvoracekmartin.catalogservice.domain.model.Tag;
+import com.dvoracekmartin.catalogservice.domain.repository.CategoryRepository;
+import com.dvoracekmartin.catalogservice.domain.repository.MixtureRepository;
+import com.dvoracekmartin.catalogservice.domain.repository.ProductRepository;
+import com.dvoracekmartin.catalogservice.domain.repository.TagRepository;
+import com.dvoracekmartin.catalogservice.domain.utils.BucketName;
+import com.dvoracekmartin.common.event.translation.TranslationBatchSaveEvent;
+import com.dvoracekmartin.common.event.translation.TranslationObjectsEnum;
+import com.dvoracekmartin.common.event.translation.TranslationSaveEvent;
+import com.dvoracekmartin.common.translation.TranslationCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Bulk import of products and mixtures from JSON lines plus an optional ZIP archive of their media.
+ * <p>
+ * All rows are parsed and validated before anything is written, and an import is applied as a whole or not at all.
+ * Referenced categories, tags and products are resolved with one query per entity type. Entities get their ids
+ * from pooled sequences, so they are inserted in JDBC batches. The search index and read model are refreshed once
+ * per section.
+ * <p>
+ * The media archive is spooled to temporary files entry by entry and the media are uploaded concurrently before the
+ * entities are written, outside of the transaction. A failed upload fails the import, and the objects uploaded by an
+ * import that is not applied are deleted again. Media replaced by the import are deleted and the translations are
+ * saved with one call to translation-service once the entities are committed. The refresh of the search index and
+ * read model that follows the commit still sees the entities without names, so the entities with translations are
+ * refreshed once more after the translations are saved.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogImportService {
+
+    private static final int SPOOL_BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final ProductRepository productRepository;
+    private final MixtureRepository mixtureRepository;
+    private final CategoryRepository categoryRepository;
+    private final TagRepository tagRepository;
+    private final MediaUploader mediaUploader;
+    private final ConcurrentMediaLoader concurrentMediaLoader;
+    private final SearchIndexOutbox searchIndexOutbox;
+    private final WebClient translationWebClient;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final TranslationCache translationCache;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${catalog.import.max-rows:5000}")
+    private int maxRows = 5000;
+    @Value("${catalog.import.max-media-bytes:524288000}")
+    private long maxMediaBytes = 500L * 1024 * 1024;
+    @Value("${catalog.import.upload-timeout:PT2M}")
+    private Duration uploadTimeout = Duration.ofMinutes(2);
+
+    public ResponseImportResultDTO importCatalog(InputStream rows, InputStream mediaArchive) {
+        List<ImportRow> importRows = parseRows(rows);
+        Map<String, Path> media = mediaArchive != null ? spoolMediaArchive(mediaArchive) : Map.of();
+        try {
+            return importRows(importRows, media);
+        } finally {
+            deleteSpooledMedia(media);
+        }
+    }
+
+    private ResponseImportResultDTO importRows(List<ImportRow> importRows, Map<String, Path> media) {
+        // validated before the uploads, an invalid import uploads nothing
+        ResponseImportResultDTO rejected = readOnlyTransaction().execute(status -> validateAll(importRows, media));
+        if (rejected != null) {
+            return rejected;
+        }
+
+        Map<ImportRow, List<String>> uploadedUrls = uploadMedia(importRows, media);
+        if (importRows.stream().anyMatch(ImportRow::invalid)) {
+            deleteUploads(uploadedUrls);
+            return report(false, importRows);
+        }
+
+        List<String> replacedUrls = new ArrayList<>();
+        ResponseImportResultDTO result;
+        try {
+            result = transactionTemplate.execute(status -> apply(importRows, media, uploadedUrls, replacedUrls));
+        } catch (RuntimeException e) {
+            deleteUploads(uploadedUrls);
+            throw e;
+        }
+        if (result == null || !result.applied()) {
+            deleteUploads(uploadedUrls);
+            return result;
+        }
+
+        // committed, the replaced media are no longer referenced
+        replacedUrls.forEach(mediaUploader::deleteMedia);
+        List<ImportRow> translatedRows = saveTranslations(importRows);
+        if (!translatedRows.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> refresh(translatedRows));
+            } catch (RuntimeException e) {
+                // the import is committed, the names show up with the next change of the section
+                log.warn("Failed to refresh the imported entities after saving their translations", e);
+            }
+        }
+        result = report(true, importRows);
+        log.info("Imported catalog: {} created, {} updated", result.created(), result.updated());
+        return result;
+    }
+
+    // Null when every row is valid, the rejecting report otherwise
+    private ResponseImportResultDTO validateAll(List<ImportRow> importRows, Map<String, Path> media) {
+        References references = loadReferences(importRows);
+        importRows.forEach(row -> validate(row, references, media));
+        validateUniqueUpdates(importRows);
+        return importRows.stream().anyMatch(ImportRow::invalid) ? report(false, importRows) : null;
+    }
+
+    private ResponseImportResultDTO apply(List<ImportRow> importRows,
+                                          Map<String, Path> media,
+                                          Map<ImportRow, List<String>> uploadedUrls,
+                                          List<String> replacedUrls) {
+        // the references are loaded again, a category or product may have been deleted during the uploads
+        References references = loadReferences(importRows);
+        importRows.forEach(row -> validate(row, references, media));
+        if (importRows.stream().anyMatch(ImportRow::invalid)) {
+            return report(false, importRows);
+        }
+
+        importRows.forEach(row -> row.entity = row.data.getType() == CatalogImportType.PRODUCT
+                ? toProduct(row.data, references)
+                : toMixture(row.data, references));
+        uploadedUrls.forEach((row, urls) -> {
+            replacedUrls.addAll(row.entity.getImageUrl());
+            row.entity.setImageUrl(new ArrayList<>(urls));
+        });
+        // sequence ids are assigned on persist, the inserts are batched at flush
+        productRepository.saveAll(entitiesOf(importRows, CatalogImportType.PRODUCT, true, Product.class));
+        mixtureRepository.saveAll(entitiesOf(importRows, CatalogImportType.MIXTURE, true, Mixture.class));
+        refresh(importRows);
+        return report(true, importRows);
+    }
+
+    // queues the search documents of the rows and marks their sections stale, both take effect after the commit
+    private void refresh(List<ImportRow> rows) {
+        List<Long> productIds = entitiesOf(rows, CatalogImportType.PRODUCT, false, Product.class).stream()
+                .map(BaseEntity::getId).toList();
+        List<Long> mixtureIds = entitiesOf(rows, CatalogImportType.MIXTURE, false, Mixture.class).stream()
+                .map(BaseEntity::getId).toList();
+        if (!productIds.isEmpty()) {
+            searchIndexOutbox.indexAll(CatalogSection.PRODUCTS, productIds);
+            applicationEventPublisher.publishEvent(CatalogChangedEvent.ofSection(CatalogSection.PRODUCTS));
+        }
+        if (!mixtureIds.isEmpty()) {
+            searchIndexOutbox.indexAll(CatalogSection.MIXTURES, mixtureIds);
+            applicationEventPublisher.publishEvent(CatalogChangedEvent.ofSection(CatalogSection.MIXTURES));
+        }
+    }
+
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager(), transactionTemplate);
+        readOnly.setReadOnly(true);
+        return readOnly;
+    }
+
+    // Parsing
+
+    private List<ImportRow> parseRows(InputStream input) {
+        List<ImportRow> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (rows.size() == maxRows) {
+                    throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                            "An import may contain at most " + maxRows + " rows");
+                }
+                ImportRow row = new ImportRow(lineNumber);
+                try {
+                    row.data = objectMapper.readValue(line, CatalogImportRowDTO.class);
+                } catch (JsonProcessingException e) {
+                    row.messages.add("Malformed row: " + e.getOriginalMessage());
+                }
+                rows.add(row);
+            }
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unreadable import rows", e);
+        }
+        if (rows.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The import contains no rows");
+        }
+        return rows;
+    }
+
+    // Every entry is copied to its own temporary file, so the archive is never held in memory
+    private Map<String, Path> spoolMediaArchive(InputStream input) {
+        Map<String, Path> media = new HashMap<>();
+        long totalBytes = 0;
+        byte[] buffer = new byte[SPOOL_BUFFER_SIZE];
+        try (ZipInputStream zip = new ZipInputStream(input)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                Path file = Files.createTempFile("catalog-import-", ".media");
+                Path previous = media.put(entry.getName(), file);
+                if (previous != null) {
+                    Files.deleteIfExists(previous);
+                }
+                try (OutputStream output = Files.newOutputStream(file)) {
+                    int read;
+                    while ((read = zip.read(buffer)) != -1) {
+                        totalBytes += read;
+                        if (totalBytes > maxMediaBytes) {
+                            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                                    "The media archive may contain at most " + maxMediaBytes + " bytes");
+                        }
+                        output.write(buffer, 0, read);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            deleteSpooledMedia(media);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unreadable media archive", e);
+        } catch (RuntimeException e) {
+            deleteSpooledMedia(media);
+            throw e;
+        }
+        return media;
+    }
+
+    private static void deleteSpooledMedia(Map<String, Path> media) {
+        media.values().forEach(file -> {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Failed to delete the spooled media file {}: {}", file, e.getMessage());
+            }
+        });
+    }
+
+    // Validation
+
+    private References loadReferences(List<ImportRow> rows) {
+        Set<Long> categoryIds = new HashSet<>();
+        Set<Long> tagIds = new HashSet<>();
+        Set<Long> productIds = new HashSet<>();
+        Set<Long> mixtureIds = new HashSet<>();
+        rows.stream().filter(row -> row.data != null).map(row -> row.data).forEach(data -> {
+            addIfPresent(categoryIds, data.getCategoryId());
+            addAllIfPresent(tagIds, data.getTagIds());
+            if (data.getType() == CatalogImportType.MIXTURE) {
+                addAllIfPresent(productIds, data.getProductIds());
+                addIfPresent(mixtureIds, data.getId());
+            } else if (data.getType() == CatalogImportType.PRODUCT) {
+                addIfPresent(productIds, data.getId());
+            }
+        });
+        return new References(
+                byId(categoryRepository.findAllById(categoryIds)),
+                byId(tagRepository.findAllById(tagIds)),
+                byId(productRepository.findAllById(productIds)),
+                byId(mixtureRepository.findAllById(mixtureIds)));
+    }
+
+    private static void validate(ImportRow row, References references, Map<String, Path> media) {
+        CatalogImportRowDTO data = row.data;
+        if (data == null) {
+            return;
+        }
+        List<String> errors = row.messages;
+        if (data.getType() == null) {
+            errors.add("type is required, one of " + Arrays.toString(CatalogImportType.values()));
+            return;
+        }
+        if (data.getPrice() == null || data.getPrice() < 0) {
+            errors.add("price must be a non-negative number");
+        }
+        if (data.getCategoryId() == null) {
+            errors.add("categoryId is required");
+        } else if (!references.categories().containsKey(data.getCategoryId())) {
+            errors.add("category " + data.getCategoryId() + " does not exist");
+        }
+        missing(data.getTagIds(), references.tags())
+                .forEach(id -> errors.add("tag " + id + " does not exist"));
+        if (data.getMedia() != null) {
+            data.getMedia().stream()
+                    .filter(name -> !media.containsKey(name))
+                    .forEach(name -> errors.add("media '" + name + "' is not in the media archive"));
+        }
+
+        if (data.getType() == CatalogImportType.PRODUCT) {
+            if (data.getLocalizedFields() == null || data.getLocalizedFields().isEmpty()) {
+                errors.add("localizedFields are required");
+            }
+            if (data.getId() != null && !references.products().containsKey(data.getId())) {
+                errors.add("product " + data.getId() + " does not exist");
+            }
+        } else {
+            if (data.getName() == null || data.getName().strip().length() < 3) {
+                errors.add("name must be at least 3 characters long");
+            }
+            missing(data.getProductIds(), references.products())
+                    .forEach(id -> errors.add("product " + id + " does not exist"));
+            if (data.getId() != null && !references.mixtures().containsKey(data.getId())) {
+                errors.add("mixture " + data.getId() + " does not exist");
+            }
+        }
+    }
+
+    private static void validateUniqueUpdates(List<ImportRow> rows) {
+        Map<String, Integer> firstLineByEntity = new HashMap<>();
+        rows.stream()
+                .filter(row -> row.data != null && row.data.getType() != null && row.data.getId() != null)
+                .forEach(row -> {
+                    Integer firstLine = firstLineByEntity.putIfAbsent(row.data.getType() + ":" + row.data.getId(), row.line);
+                    if (firstLine != null) {
+                        row.messages.add(row.data.getType().name().toLowerCase() + " " + row.data.getId()
+                                + " is updated on line " + firstLine + " already");
+                    }
+                });
+    }
+
+    // Applying
+
+    private static Product toProduct(CatalogImportRowDTO data, References references) {
+        Product product = data.getId() != null ? references.products().get(data.getId()) : new Product();
+        product.setPriority(data.getPriority());
+        product.setActive(data.isActive());
+        product.setPrice(data.getPrice());
+        product.setWeightGrams(data.getWeightGrams());
+        product.setMixable(data.isMixable());
+        product.setDisplayInProducts(data.isDisplayInProducts());
+        product.setCategory(references.categories().get(data.getCategoryId()));
+        product.setTags(resolve(data.getTagIds(), references.tags()));
+        if (product.getImageUrl() == null) {
+            product.setImageUrl(new ArrayList<>());
+        }
+        return product;
+    }
+
+    private static Mixture toMixture(CatalogImportRowDTO data, References references) {
+        Mixture mixture = data.getId() != null ? references.mixtures().get(data.getId()) : new Mixture();
+        mixture.setName(data.getName().strip());
+        mixture.setPriority(data.getPriority());
+        mixture.setActive(data.isActive());
+        mixture.setPrice(data.getPrice());
+        mixture.setWeightGrams(data.getWeightGrams());
+        mixture.setDisplayInProducts(data.isDisplayInProducts());
+        mixture.setCategory(references.categories().get(data.getCategoryId()));
+        mixture.setTags(resolve(data.getTagIds(), references.tags()));
+        mixture.setProducts(resolve(data.getProductIds(), references.products()));
+        if (mixture.getImageUrl() == null) {
+            mixture.setImageUrl(new ArrayList<>());
+        }
+        return mixture;
+    }
+
+    /**
+     * Uploads the media of all rows, before anything is written. Objects of new entities go to a folder of the import,
+     * their ids are not known yet. A media that fails to upload makes its row invalid.
+     *
+     * @return The URLs of the uploaded media by row, for every row that has media.
+     */
+    private Map<ImportRow, List<String>> uploadMedia(List<ImportRow> rows, Map<String, Path> media) {
+        String importFolder = "import-" + UUID.randomUUID();
+        List<MediaUpload> uploads = new ArrayList<>();
+        Map<ImportRow, List<String>> urlsByRow = new IdentityHashMap<>();
+        rows.stream().filter(row -> row.data.getMedia() != null).forEach(row -> {
+            urlsByRow.put(row, new ArrayList<>());
+            BucketName bucket = row.data.getType() == CatalogImportType.PRODUCT ? BucketName.PRODUCTS : BucketName.MIXTURES;
+            row.data.getMedia().forEach(name -> uploads.add(new MediaUpload(row, bucket, name)));
+        });
+        if (uploads.isEmpty()) {
+            return urlsByRow;
+        }
+
+        List<String> urls = concurrentMediaLoader.loadAll(uploads, upload -> {
+            Long id = upload.row().data.getId();
+            String entityId = id != null ? id.toString() : "line-" + upload.row().line;
+            return mediaUploader.uploadFile(
+                    media.get(upload.objectKey()),
+                    entityId,
+                    upload.objectKey(),
+                    MediaContentTypes.fromObjectKey(upload.objectKey()),
+                    upload.bucket().getName(),
+                    id != null ? entityId : importFolder);
+        }, uploadTimeout);
+
+        for (int i = 0; i < uploads.size(); i++) {
+            MediaUpload upload = uploads.get(i);
+            if (urls.get(i) != null) {
+                urlsByRow.get(upload.row()).add(urls.get(i));
+            } else {
+                upload.row().messages.add("media '" + upload.objectKey() + "' failed to upload");
+            }
+        }
+        return urlsByRow;
+    }
+
+    private void deleteUploads(Map<ImportRow, List<String>> uploadedUrls) {
+        uploadedUrls.values().forEach(urls -> urls.forEach(mediaUploader::deleteMedia));
+    }
+
+    // The rows whose translations were saved, none when saving failed
+    private List<ImportRow> saveTranslations(List<ImportRow> rows) {
+        List<ImportRow> translatedRows = rows.stream()
+                .filter(row -> row.data.getLocalizedFields() != null && !row.data.getLocalizedFields().isEmpty())
+                .toList();
+        List<TranslationSaveEvent> translations = translatedRows.stream()
+                .map(row -> new TranslationSaveEvent(
+                        UUID.randomUUID().toString(),
+                        row.data.getType() == CatalogImportType.PRODUCT ? TranslationObjectsEnum.PRODUCT : TranslationObjectsEnum.MIXTURE,
+                        row.entity.getId(),
+                        row.data.getLocalizedFields()))
+                .toList();
+        if (translations.isEmpty()) {
+            return List.of();
+        }
+        try {
+            translationWebClient.post()
+                    .uri("/save-batch")
+                    .bodyValue(new TranslationBatchSaveEvent(translations))
+                    .retrieve()
+                    .bodyToMono(Void.class)
+                    .block();
+        } catch (RuntimeException e) {
+            // the entities are committed already, the rows report the translations that have to be saved again
+            log.error("Failed to save the translations of the import", e);
+            translatedRows.forEach(row -> row.messages.add("translations were not saved: " + e.getMessage()));
+            return List.of();
+        }
+        translations.forEach(translation -> translationCache.invalidate(translation.getObjectType(), translation.getEntityId()));
+        return translatedRows;
+    }
+
+    private static ResponseImportResultDTO report(boolean applied, List<ImportRow> rows) {
+        int created = 0;
+        int updated = 0;
+        int invalid = 0;
+        List<ResponseImportRowDTO> results = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            ImportRowStatus status;
+            if (row.invalid()) {
+                status = ImportRowStatus.INVALID;
+                invalid++;
+            } else if (!applied) {
+                status = ImportRowStatus.NOT_APPLIED;
+            } else if (row.data.getId() == null) {
+                status = ImportRowStatus.CREATED;
+                created++;
+            } else {
+                status = ImportRowStatus.UPDATED;
+                updated++;
+            }
+            results.add(new ResponseImportRowDTO(
+                    row.line,
+                    row.data != null ? row.data.getType() : null,
+                    applied ? row.entity.getId() : null,
+                    status,
+                    List.copyOf(row.messages)));
+        }
+        return new ResponseImportResultDTO(applied, created, updated, invalid, results);
+    }
+
+    // Helpers
+
+    private static <T> List<T> entitiesOf(List<ImportRow> rows, CatalogImportType type, boolean newOnly, Class<T> entityClass) {
+        return rows.stream()
+                .filter(row -> row.data.getType() == type && (!newOnly || row.data.getId() == null))
+                .map(row -> entityClass.cast(row.entity))
+                .toList();
+    }
+
+    private static <T extends BaseEntity> Map<Long, T> byId(List<T> entities) {
+        return entities.stream().collect(Collectors.toMap(BaseEntity::getId, Function.identity()));
+    }
+
+    private static <T> List<T> resolve(List<Long> ids, Map<Long, T> entities) {
+        if (ids == null) {
+            return new ArrayList<>();
+        }
+        return ids.stream().distinct().map(entities::get).collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private static List<Long> missing(List<Long> ids, Map<Long, ?> entities) {
+        if (ids == null) {
+            return List.of();
+        }
+        return ids.stream().filter(id -> id == null || !entities.containsKey(id)).distinct().toList();
+    }
+
+    private static void addIfPresent(Set<Long> ids, Long id) {
+        if (id != null) {
+            ids.add(id);
+        }
+    }
+
+    private static void addAllIfPresent(Set<Long> ids, List<Long> values) {
+        if (values != null) {
+            values.stream().filter(Objects::nonNull).forEach(ids::add);
+        }
+    }
+
+    private static final class ImportRow {
+        private final int line;
+        private final List<String> messages = new ArrayList<>();
+        private CatalogImportRowDTO data;
+        private BaseEntity entity;
+
+        private ImportRow(int line) {
+            this.line = line;
+        }
+
+        // an applied row keeps its messages as warnings, so only a row that never got an entity is invalid
+        private boolean invalid() {
+            return entity == null && (data == null || !messages.isEmpty());
+        }
+    }
+
+    private record References(Map<Long, Category> categories,
+                              Map<Long, Tag> tags,
+                              Map<Long, Product> products,
+                              Map<Long, Mixture> mixtures) {
+    }
+
+    private record MediaUpload(ImportRow row, BucketName bucket, String objectKey) {
+    }
+}
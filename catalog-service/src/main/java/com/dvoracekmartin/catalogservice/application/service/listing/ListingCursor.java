@@ -0,0 +1,60 @@
+package com.dvoracekmartin.catalogservice.application.service.listing;
+
+import com.dvoracekmartin.catalogservice.domain.model.BaseEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keyset cursor of the catalog listings.
+ * <p>
+ * A cursor is the {@code priority:id} of the last entity of a page. The next page seeks past it through the
+ * {@code (priority, id)} index, so fetching a page costs the same no matter how deep into the listing it is.
+ */
+public final class ListingCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private ListingCursor() {
+    }
+
+    public static ScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        String[] parts = cursor.split(SEPARATOR, -1);
+        if (parts.length != 2) {
+            throw invalid();
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            keys.put("priority", Integer.valueOf(parts[0]));
+            keys.put("id", Long.valueOf(parts[1]));
+        } catch (NumberFormatException e) {
+            throw invalid();
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    public static String next(Window<? extends BaseEntity> window) {
+        if (!window.hasNext() || window.isEmpty()) {
+            return null;
+        }
+        BaseEntity last = window.getContent().getLast();
+        // a null priority is stored as 0 since the backfill, see BaseEntity
+        return (last.getPriority() == null ? 0 : last.getPriority()) + SEPARATOR + last.getId();
+    }
+
+    public static Limit limit(int size, int maxPageSize) {
+        return Limit.of(Math.clamp(size, 1, maxPageSize));
+    }
+
+    private static ResponseStatusException invalid() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid listing cursor");
+    }
+}
@@ -0,0 +1,263 @@
+package com.dvoracekmartin.catalogservice.application.service.media;
+
+import com.dvoracekmartin.catalogservice.domain.utils.BucketName;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory manifest of the media buckets, mapping each entity folder to the objects stored in it.
+ * <p>
+ * Each bucket is read with a single paginated scan at startup, so listing the media of an entity is a map lookup
+ * instead of an S3 LIST. Uploads and deletions update the manifest of this replica directly and announce the
+ * changed folder over Redis pub/sub; the other replicas re-read just that folder. Pub/sub does not redeliver, so every
+ * bucket is also re-read in full every {@code media.manifest.resync-interval}, which bounds how long a missed change
+ * can leave a replica stale.
+ */
+@Slf4j
+@Component
+public class BucketMediaManifest implements MessageListener {
+
+    public static final String CHANGES_CHANNEL = "media-manifest:changes";
+    private static final Set<BucketName> MANIFEST_BUCKETS = EnumSet.of(BucketName.PRODUCTS, BucketName.MIXTURES, BucketName.CATEGORIES);
+    private static final Comparator<MediaObject> KEY_ORDER = Comparator.comparing(MediaObject::objectKey);
+    private static final String SEPARATOR = "|";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final S3Client s3Client;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    // bucket name -> folder -> objects sorted by key, the lists are immutable
+    private final Map<String, Map<String, List<MediaObject>>> manifests = new ConcurrentHashMap<>();
+    // bucket name -> folders changed while the bucket is being re-read
+    private final Map<String, Set<String>> resyncing = new ConcurrentHashMap<>();
+
+    public BucketMediaManifest(StringRedisTemplate stringRedisTemplate, MeterRegistry meterRegistry, S3Client s3Client) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.s3Client = s3Client;
+    }
+
+    @PostConstruct
+    private void registerMetrics() {
+        Gauge.builder("media.manifest.objects", manifests, BucketMediaManifest::countObjects)
+                .description("Media objects known to the bucket manifest")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void initialize() {
+        for (BucketName bucketName : MANIFEST_BUCKETS) {
+            try {
+                manifest(bucketName.getName());
+            } catch (S3Exception e) {
+                log.warn("Failed to build the media manifest of bucket '{}', it will be built on first use: {}",
+                        bucketName.getName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Re-reads every bucket read so far and replaces its manifest, folders changed during the scan are read again.
+     */
+    @Scheduled(fixedDelayString = "${media.manifest.resync-interval:PT15M}",
+            initialDelayString = "${media.manifest.resync-interval:PT15M}")
+    public void resync() {
+        for (String bucketName : Set.copyOf(manifests.keySet())) {
+            Set<String> changed = ConcurrentHashMap.newKeySet();
+            resyncing.put(bucketName, changed);
+            try {
+                manifests.put(bucketName, scanBucket(bucketName));
+            } catch (S3Exception e) {
+                log.warn("Failed to re-read the media manifest of bucket '{}', keeping the current one: {}",
+                        bucketName, e.getMessage());
+                continue;
+            } finally {
+                resyncing.remove(bucketName);
+            }
+            try {
+                changed.forEach(folder -> reloadFolder(bucketName, folder));
+            } catch (S3Exception e) {
+                log.warn("Failed to re-read folders {} of bucket '{}': {}", changed, bucketName, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Media objects stored in the folder, in key order.
+     */
+    public List<MediaObject> getMedia(String bucketName, String folderName) {
+        return manifest(bucketName).getOrDefault(normalizeFolder(folderName), List.of());
+    }
+
+    public void addMedia(String bucketName, MediaObject mediaObject) {
+        String folder = folderOf(mediaObject.objectKey());
+        manifest(bucketName).compute(folder, (key, objects) -> {
+            List<MediaObject> updated = new ArrayList<>(objects != null ? objects : List.of());
+            updated.removeIf(object -> object.objectKey().equals(mediaObject.objectKey()));
+            updated.add(mediaObject);
+            updated.sort(KEY_ORDER);
+            return List.copyOf(updated);
+        });
+        markChanged(bucketName, folder);
+        publishChange(bucketName, folder);
+    }
+
+    public void removeMedia(String bucketName, String objectKey) {
+        String folder = folderOf(objectKey);
+        manifest(bucketName).computeIfPresent(folder, (key, objects) -> {
+            List<MediaObject> updated = objects.stream()
+                    .filter(object -> !object.objectKey().equals(objectKey))
+                    .toList();
+            return updated.isEmpty() ? null : updated;
+        });
+        markChanged(bucketName, folder);
+        publishChange(bucketName, folder);
+    }
+
+    /**
+     * Re-reads a single folder from the storage and announces the change to the other replicas.
+     */
+    public void refreshFolder(String bucketName, String folderName) {
+        String folder = normalizeFolder(folderName);
+        reloadFolder(bucketName, folder);
+        publishChange(bucketName, folder);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\" + SEPARATOR, 3);
+        if (parts.length != 3) {
+            log.warn("Ignoring malformed media manifest change '{}'", new String(message.getBody(), StandardCharsets.UTF_8));
+            return;
+        }
+        if (instanceId.equals(parts[0]) || !manifests.containsKey(parts[1])) {
+            // our own change, or a bucket we have not read yet and will read in full
+            return;
+        }
+        try {
+            reloadFolder(parts[1], parts[2]);
+        } catch (S3Exception e) {
+            log.error("Failed to reload folder '{}' of bucket '{}': {}", parts[2], parts[1], e.getMessage());
+        }
+    }
+
+    // the bucket is scanned outside of the map, so a slow listing does not block the other buckets; when two callers
+    // scan the same bucket at once, the first result is kept
+    private Map<String, List<MediaObject>> manifest(String bucketName) {
+        Map<String, List<MediaObject>> manifest = manifests.get(bucketName);
+        if (manifest != null) {
+            return manifest;
+        }
+        Map<String, List<MediaObject>> scanned = scanBucket(bucketName);
+        manifest = manifests.putIfAbsent(bucketName, scanned);
+        return manifest != null ? manifest : scanned;
+    }
+
+    private Map<String, List<MediaObject>> scanBucket(String bucketName) {
+        Map<String, List<MediaObject>> folders = new HashMap<>();
+        try {
+            scan(bucketName, null).forEach(object ->
+                    folders.computeIfAbsent(folderOf(object.objectKey()), key -> new ArrayList<>()).add(object));
+        } catch (NoSuchBucketException e) {
+            log.warn("Bucket '{}' does not exist, starting with an empty media manifest", bucketName);
+        }
+        Map<String, List<MediaObject>> manifest = new ConcurrentHashMap<>();
+        folders.forEach((folder, objects) -> {
+            objects.sort(KEY_ORDER);
+            manifest.put(folder, List.copyOf(objects));
+        });
+        log.info("Built media manifest of bucket '{}' with {} folders", bucketName, manifest.size());
+        return manifest;
+    }
+
+    private void markChanged(String bucketName, String folder) {
+        Set<String> changed = resyncing.get(bucketName);
+        if (changed != null) {
+            changed.add(folder);
+        }
+    }
+
+    private void reloadFolder(String bucketName, String folder) {
+        markChanged(bucketName, folder);
+        List<MediaObject> objects = scan(bucketName, folder + "/").stream().sorted(KEY_ORDER).toList();
+        if (objects.isEmpty()) {
+            manifest(bucketName).remove(folder);
+        } else {
+            manifest(bucketName).put(folder, objects);
+        }
+    }
+
+    private List<MediaObject> scan(String bucketName, String prefix) {
+        ListObjectsV2Request listObjectsRequest = ListObjectsV2Request.builder()
+                .bucket(bucketName)
+                .prefix(prefix)
+                .build();
+
+        List<MediaObject> mediaObjects = new ArrayList<>();
+        ListObjectsV2Response listObjectsResponse;
+
+        do {
+            listObjectsResponse = s3Client.listObjectsV2(listObjectsRequest);
+            for (S3Object s3Object : listObjectsResponse.contents()) {
+                String key = s3Object.key();
+                if (!key.endsWith("/")) {
+                    mediaObjects.add(new MediaObject(key, MediaContentTypes.fromObjectKey(key),
+                            s3Object.size(), stripQuotes(s3Object.eTag())));
+                }
+            }
+            listObjectsRequest = listObjectsRequest.toBuilder()
+                    .continuationToken(listObjectsResponse.nextContinuationToken())
+                    .build();
+        } while (listObjectsResponse.isTruncated());
+
+        return mediaObjects;
+    }
+
+    private void publishChange(String bucketName, String folder) {
+        try {
+            stringRedisTemplate.convertAndSend(CHANGES_CHANNEL, instanceId + SEPARATOR + bucketName + SEPARATOR + folder);
+        } catch (DataAccessException e) {
+            log.warn("Failed to announce the change of folder '{}' in bucket '{}': {}", folder, bucketName, e.getMessage());
+        }
+    }
+
+    private static String folderOf(String objectKey) {
+        int lastSlashIndex = objectKey.lastIndexOf('/');
+        return lastSlashIndex > 0 ? objectKey.substring(0, lastSlashIndex) : "";
+    }
+
+    private static String normalizeFolder(String folderName) {
+        return folderName.endsWith("/") ? folderName.substring(0, folderName.length() - 1) : folderName;
+    }
+
+    private static String stripQuotes(String eTag) {
+        return eTag != null ? eTag.replace("\"", "") : null;
+    }
+
+    private static double countObjects(Map<String, Map<String, List<MediaObject>>> manifests) {
+        return manifests.values().stream()
+                .flatMap(manifest -> manifest.values().stream())
+                .mapToInt(List::size)
+                .sum();
+    }
+}
@@ -0,0 +1,111 @@
+package com.dvoracekmartin.catalogservice.application.service.media;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Runs media I/O for many objects concurrently on virtual threads.
+ * <p>
+ * At most {@code catalog.media.fetch.concurrency} calls are in flight at once. A call waits up to
+ * {@code catalog.media.fetch.timeout} for a slot and then gets the same timeout to complete; a call that times out is
+ * cancelled and frees its slot right away. A call that fails, times out or finds no slot yields null, so a single slow
+ * object degrades that object only instead of the whole listing. A single object takes the same path.
+ */
+@Slf4j
+@Component
+public class ConcurrentMediaLoader {
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("media-loader-", 0).factory());
+    private final Semaphore permits;
+    private final Duration timeout;
+
+    public ConcurrentMediaLoader(@Value("${catalog.media.fetch.concurrency:16}") int concurrency,
+                                 @Value("${catalog.media.fetch.timeout:PT5S}") Duration timeout) {
+        this.permits = new Semaphore(concurrency);
+        this.timeout = timeout;
+    }
+
+    /**
+     * Applies the loader to every key and returns the results in the order of the keys.
+     */
+    public <K, V> List<V> loadAll(List<K> keys, Function<K, V> loader) {
+        return loadAll(keys, loader, timeout);
+    }
+
+    /**
+     * Like {@link #loadAll(List, Function)} with a timeout of its own, for calls that move more data than a fetch.
+     */
+    public <K, V> List<V> loadAll(List<K> keys, Function<K, V> loader, Duration timeout) {
+        if (keys.size() <= 1) {
+            return keys.stream().map(key -> load(key, loader, timeout)).toList();
+        }
+        List<Future<V>> futures = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            futures.add(executor.submit(() -> load(key, loader, timeout)));
+        }
+        // every load ends within two timeouts, the results are collected in the order of the keys
+        List<V> results = new ArrayList<>(keys.size());
+        for (Future<V> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(pending -> pending.cancel(true));
+                throw new IllegalStateException("Interrupted while loading media", e);
+            } catch (ExecutionException e) {
+                // load handles the failures of the loader, this is not expected
+                results.add(null);
+            }
+        }
+        return results;
+    }
+
+    private <K, V> V load(K key, Function<K, V> loader, Duration timeout) {
+        try {
+            if (!permits.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Loading media '{}' found no free slot within {}", key, timeout);
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        Future<V> call = executor.submit(() -> loader.apply(key));
+        try {
+            return call.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            call.cancel(true);
+            log.warn("Loading media '{}' timed out after {}", key, timeout);
+            return null;
+        } catch (ExecutionException e) {
+            log.warn("Loading media '{}' failed: {}", key, e.getCause().toString());
+            return null;
+        } catch (InterruptedException e) {
+            call.cancel(true);
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            permits.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,19 @@
+package com.dvoracekmartin.catalogservice.application.service.media;
+
+import java.util.Locale;
+
+public final class MediaContentTypes {
+
+    private MediaContentTypes() {
+    }
+
+    public static String fromObjectKey(String key) {
+        String lowerCaseKey = key.toLowerCase(Locale.ROOT);
+        if (lowerCaseKey.endsWith(".jpg") || lowerCaseKey.endsWith(".jpeg")) return "image/jpeg";
+        if (lowerCaseKey.endsWith(".png")) return "image/png";
+        if (lowerCaseKey.endsWith(".gif")) return "image/gif";
+        if (lowerCaseKey.endsWith(".webp")) return "image/webp";
+        if (lowerCaseKey.endsWith(".svg")) return "image/svg+xml";
+        return "application/octet-stream";
+    }
+}
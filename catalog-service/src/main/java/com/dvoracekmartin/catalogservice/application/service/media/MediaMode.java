@@ -0,0 +1,15 @@
+package com.dvoracekmartin.catalogservice.application.service.media;
+
+/**
+ * How media is represented in catalog response DTOs.
+ */
+public enum MediaMode {
+    /**
+     * Media content is inlined as base64, the original behaviour.
+     */
+    INLINE,
+    /**
+     * Only key, content type, size and content hash are returned, the content is served by the media endpoint.
+     */
+    REFERENCE
+}
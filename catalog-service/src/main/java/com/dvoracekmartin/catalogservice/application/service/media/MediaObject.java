@@ -0,0 +1,18 @@
+package com.dvoracekmartin.catalogservice.application.service.media;
+
+import com.dvoracekmartin.common.media.CachedMedia;
+
+/**
+ * Metadata of a stored media object, available without downloading its content.
+ *
+ * @param objectKey   full key of the object within its bucket
+ * @param contentType content type of the object
+ * @param size        size in bytes
+ * @param eTag        entity tag of the object as reported by the storage, without quotes
+ */
+public record MediaObject(String objectKey, String contentType, long size, String eTag) {
+
+    public static MediaObject of(String objectKey, CachedMedia media) {
+        return new MediaObject(objectKey, media.contentType(), media.data().length, media.eTag());
+    }
+}
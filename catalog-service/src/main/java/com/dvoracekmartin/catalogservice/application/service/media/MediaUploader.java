@@ -1,9 +1,16 @@
 package com.dvoracekmartin.catalogservice.application.service.media;
 
+import java.nio.file.Path;
+
 public interface MediaUploader {
     String uploadBase64(String base64Data, String categoryName, String objectKey, String contentType, String bucketName, String objectName);
 
-    void deleteMedia(String imageUrl);
+    /**
+     * Streams the file to the bucket, like {@link #uploadBase64} without holding the content in memory.
+     *
+     * @return The public URL of the object, null when the upload failed.
+     */
+    String uploadFile(Path file, String entityId, String objectKey, String contentType, String bucketName, String folderName);
 
-    void createBucketIfNotExists(String productBucket);
+    void deleteMedia(String imageUrl);
 }
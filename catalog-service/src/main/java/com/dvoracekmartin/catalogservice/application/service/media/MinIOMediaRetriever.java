@@ -1,23 +1,21 @@
 package com.dvoracekmartin.catalogservice.application.service.media;
 
-import jakarta.annotation.PostConstruct;
+import com.dvoracekmartin.common.media.CachedMedia;
+import com.dvoracekmartin.common.media.MediaCache;
+import com.dvoracekmartin.common.media.MediaStream;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
-import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.core.ResponseBytes;
-import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 
-import java.net.URI;
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -25,37 +23,18 @@ import java.util.stream.Collectors;
 
 @Slf4j
 @Service("mediaRetriever")
+@RequiredArgsConstructor
 public class MinIOMediaRetriever implements MediaRetriever {
 
-    @Value("${minio.endpoint}")
-    private String minioEndpoint;
+    private final MediaCache mediaCache;
+    private final BucketMediaManifest bucketMediaManifest;
+    private final S3Client s3Client;
 
-    @Value("${minio.access-key}")
-    private String accessKey;
-
-    @Value("${minio.secret-key}")
-    private String secretKey;
-
-    private S3Client s3Client;
-
-    @PostConstruct
-    private void initializeClient() {
-        this.s3Client = S3Client.builder()
-                .endpointOverride(URI.create(minioEndpoint))
-                .region(Region.US_EAST_1)
-                .credentialsProvider(StaticCredentialsProvider.create(
-                        AwsBasicCredentials.create(accessKey, secretKey)))
-                .forcePathStyle(true)
-                .build();
-    }
-
-    // TODO caching commented out for testing
-//    @Cacheable(
-//            value = "mediaContent",
-//            key = "#objectKey",
-//            condition = "@mediaRetriever.isUserClient()"
-//    )
     public byte[] retrieveMedia(String objectKey, String bucketName) {
+        CachedMedia cached = mediaCache.getContent(bucketName, objectKey);
+        if (cached != null) {
+            return cached.data();
+        }
         try {
             GetObjectRequest getObjectRequest = GetObjectRequest.builder()
                     .bucket(bucketName)
@@ -63,7 +42,12 @@ public class MinIOMediaRetriever implements MediaRetriever {
                     .build();
 
             ResponseBytes<GetObjectResponse> responseBytes = s3Client.getObjectAsBytes(getObjectRequest);
-            return responseBytes.asByteArray();
+            // the buffer is not shared with anyone else, no need for a defensive copy
+            byte[] data = responseBytes.asByteArrayUnsafe();
+            GetObjectResponse response = responseBytes.response();
+            mediaCache.putContent(bucketName, objectKey,
+                    new CachedMedia(data, contentType(response, objectKey), stripQuotes(response.eTag())));
+            return data;
 
         } catch (NoSuchKeyException e) {
             log.warn("Object '{}' not found in bucket '{}'", objectKey, bucketName);
@@ -74,41 +58,95 @@ public class MinIOMediaRetriever implements MediaRetriever {
         }
     }
 
-
-    //    @Cacheable(value = "folderContents", key = "#folderName",
-//    condition = "@mediaRetriever.isUserClient()")
-    public List<String> listMediaKeysInFolder(String folderName, String bucketName) {
-        ListObjectsV2Request listObjectsRequest = ListObjectsV2Request.builder()
-                .bucket(bucketName)
-                .prefix(folderName.endsWith("/") ? folderName : folderName + "/")
-                .build();
-
-        List<String> keys = new ArrayList<>();
-        ListObjectsV2Response listObjectsResponse;
-
-        do {
-            listObjectsResponse = s3Client.listObjectsV2(listObjectsRequest);
-            for (S3Object s3Object : listObjectsResponse.contents()) {
-                keys.add(s3Object.key());
+    public MediaStream openMedia(String objectKey, String bucketName, String range) {
+        if (range == null) {
+            CachedMedia cached = mediaCache.getContent(bucketName, objectKey);
+            if (cached != null) {
+                return MediaStream.of(cached);
             }
-            listObjectsRequest = listObjectsRequest.toBuilder()
-                    .continuationToken(listObjectsResponse.nextContinuationToken())
+        }
+        try {
+            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .range(range)
                     .build();
-        } while (listObjectsResponse.isTruncated());
 
-        return keys.stream()
-                .filter(key -> !key.equals(folderName) && !key.equals(folderName + "/"))
+            ResponseInputStream<GetObjectResponse> content = s3Client.getObject(getObjectRequest);
+            GetObjectResponse response = content.response();
+            String contentType = contentType(response, objectKey);
+            String eTag = stripQuotes(response.eTag());
+            if (range == null && mediaCache.isCacheable(response.contentLength())) {
+                // small enough to keep, read it whole so the next request does not reach the storage
+                try (content) {
+                    CachedMedia media = new CachedMedia(content.readAllBytes(), contentType, eTag);
+                    mediaCache.putContent(bucketName, objectKey, media);
+                    return MediaStream.of(media);
+                }
+            }
+            return new MediaStream(content, contentType, response.contentLength(),
+                    range != null ? response.contentRange() : null, eTag);
+
+        } catch (NoSuchKeyException e) {
+            log.warn("Object '{}' not found in bucket '{}'", objectKey, bucketName);
+            return null;
+        } catch (S3Exception | IOException e) {
+            log.error("Error opening object '{}' from bucket '{}': {}", objectKey, bucketName, e.getMessage());
+            return null;
+        }
+    }
+
+    public List<String> listMediaKeysInFolder(String folderName, String bucketName) {
+        return listMediaInFolder(folderName, bucketName).stream()
+                .map(MediaObject::objectKey)
                 .collect(Collectors.toList());
     }
 
-    @CacheEvict(value = "folderContents", key = "#folderName")
-    public void evictFolderCache(String folderName) {
-        log.info("Evicting cache for folder: {}", folderName);
+    public List<MediaObject> listMediaInFolder(String folderName, String bucketName) {
+        return bucketMediaManifest.getMedia(bucketName, folderName);
+    }
+
+    public MediaObject getMediaMetadata(String objectKey, String bucketName) {
+        CachedMedia cached = mediaCache.getContent(bucketName, objectKey);
+        if (cached != null) {
+            return MediaObject.of(objectKey, cached);
+        }
+        try {
+            HeadObjectResponse head = s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(objectKey)
+                    .build());
+            String contentType = head.contentType() != null ? head.contentType() : MediaContentTypes.fromObjectKey(objectKey);
+            return new MediaObject(objectKey, contentType, head.contentLength(), stripQuotes(head.eTag()));
+        } catch (NoSuchKeyException e) {
+            log.warn("Object '{}' not found in bucket '{}'", objectKey, bucketName);
+            return null;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                log.warn("Object '{}' not found in bucket '{}'", objectKey, bucketName);
+            } else {
+                log.error("Error reading metadata of object '{}' from bucket '{}': {}", objectKey, bucketName, e.getMessage());
+            }
+            return null;
+        }
+    }
+
+    private static String contentType(GetObjectResponse response, String objectKey) {
+        return response.contentType() != null ? response.contentType() : MediaContentTypes.fromObjectKey(objectKey);
+    }
+
+    private static String stripQuotes(String eTag) {
+        return eTag != null ? eTag.replace("\"", "") : null;
+    }
+
+    public void evictFolderCache(String bucketName, String folderName) {
+        log.info("Refreshing manifest of folder '{}' in bucket '{}'", folderName, bucketName);
+        bucketMediaManifest.refreshFolder(bucketName, folderName);
     }
 
-    @CacheEvict(value = "mediaContent", key = "#objectKey")
-    public void evictMediaCache(String objectKey) {
-        log.info("Evicting cache for media: {}", objectKey);
+    public void evictMediaCache(String bucketName, String objectKey) {
+        log.info("Evicting cache for media '{}' in bucket '{}'", objectKey, bucketName);
+        mediaCache.evictContent(bucketName, objectKey);
     }
 
     public boolean isUserClient() {
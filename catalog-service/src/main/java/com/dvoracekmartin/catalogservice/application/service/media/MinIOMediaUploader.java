@@ -1,18 +1,17 @@
 package com.dvoracekmartin.catalogservice.application.service.media;
 
-import jakarta.annotation.PostConstruct;
+import com.dvoracekmartin.common.media.MediaBucketRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
-import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 
+import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Base64;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -23,62 +22,46 @@ import java.util.regex.Pattern;
 public class MinIOMediaUploader implements MediaUploader {
 
     private final MediaRetriever mediaRetriever;
-    @Value("${minio.endpoint}")
-    private String minioEndpoint;
-    @Value("${minio.access-key}")
-    private String accessKey;
-    @Value("${minio.secret-key}")
-    private String secretKey;
-    private String bucketName;
-    private S3Client s3Client;
-
-    @PostConstruct
-    private void initializeClient() {
-        this.s3Client = S3Client.builder()
-                .endpointOverride(URI.create(minioEndpoint))
-                .region(Region.US_EAST_1)
-                .credentialsProvider(StaticCredentialsProvider.create(
-                        AwsBasicCredentials.create(accessKey, secretKey)))
-                .forcePathStyle(true)
-                .build();
-    }
+    private final MediaBucketRegistry mediaBucketRegistry;
+    private final BucketMediaManifest bucketMediaManifest;
+    private final S3Client s3Client;
 
-    @Override
-    public void createBucketIfNotExists(String productBucket) {
-        this.bucketName = productBucket;
-        createBucketIfNotExists();
+    public String uploadBase64(String base64Data, String entityId, String objectKey, String contentType, String bucketName, String folderName) {
+        byte[] dataBytes;
+        try {
+            dataBytes = Base64.getDecoder().decode(base64Data);
+        } catch (IllegalArgumentException e) {
+            log.error("Upload failed: {}", e.getMessage());
+            return null;
+        }
+        return upload(RequestBody.fromBytes(dataBytes), dataBytes.length, entityId, objectKey, contentType, bucketName, folderName);
     }
 
-    private void createBucketIfNotExists() {
+    @Override
+    public String uploadFile(Path file, String entityId, String objectKey, String contentType, String bucketName, String folderName) {
+        long length;
         try {
-            s3Client.headBucket(HeadBucketRequest.builder().bucket(bucketName).build());
-            log.info("Bucket '{}' already exists", bucketName);
-        } catch (NoSuchBucketException e) {
-            try {
-                s3Client.createBucket(b -> b.bucket(bucketName));
-                log.info("Created bucket '{}'", bucketName);
-            } catch (BucketAlreadyExistsException e2) {
-                log.info("Bucket '{}' already exists (race condition)", bucketName);
-            }
+            length = Files.size(file);
+        } catch (IOException e) {
+            log.error("Upload failed: {}", e.getMessage());
+            return null;
         }
+        return upload(RequestBody.fromFile(file), length, entityId, objectKey, contentType, bucketName, folderName);
     }
 
-    public String uploadBase64(String base64Data, String entityId, String objectKey, String contentType, String bucketName, String folderName) {
-        this.bucketName = bucketName;
-        createBucketIfNotExists();
+    private String upload(RequestBody content, long length, String entityId, String objectKey, String contentType, String bucketName, String folderName) {
+        mediaBucketRegistry.requireBucket(bucketName);
         String extension = getExtension(objectKey);
-        String finalObjectKey = findUniqueObjectName(folderName + "/" + entityId, extension);
+        String finalObjectKey = findUniqueObjectName(bucketName, folderName + "/" + entityId, extension);
 
         try {
-            byte[] dataBytes = Base64.getDecoder().decode(base64Data);
-
-            s3Client.putObject(PutObjectRequest.builder()
+            PutObjectResponse putObjectResponse = s3Client.putObject(PutObjectRequest.builder()
                             .bucket(bucketName)
                             .key(finalObjectKey)
                             .contentType(contentType)
-                            .contentLength((long) dataBytes.length)
+                            .contentLength(length)
                             .build(),
-                    RequestBody.fromBytes(dataBytes));
+                    content);
 
             String publicUrl = s3Client.utilities().getUrl(b -> b
                             .bucket(bucketName)
@@ -86,11 +69,14 @@ public class MinIOMediaUploader implements MediaUploader {
                     .toExternalForm();
             log.info("Uploaded object to: {}", publicUrl);
 
-            evictRelatedCaches(finalObjectKey);
+            mediaRetriever.evictMediaCache(bucketName, finalObjectKey);
+            bucketMediaManifest.addMedia(bucketName, new MediaObject(finalObjectKey,
+                    contentType != null ? contentType : MediaContentTypes.fromObjectKey(finalObjectKey),
+                    length, stripQuotes(putObjectResponse.eTag())));
 
             return publicUrl;
 
-        } catch (IllegalArgumentException | S3Exception e) {
+        } catch (S3Exception e) {
             log.error("Upload failed: {}", e.getMessage());
             return null;
         }
@@ -117,6 +103,8 @@ public class MinIOMediaUploader implements MediaUploader {
                         .key(objectKey)
                         .build());
                 log.info("Deleted media from bucket '{}' with key '{}'", bucketName, objectKey);
+                mediaRetriever.evictMediaCache(bucketName, objectKey);
+                bucketMediaManifest.removeMedia(bucketName, objectKey);
             } else {
                 log.error("Could not parse bucket and key from URL path: {}", path);
             }
@@ -127,21 +115,11 @@ public class MinIOMediaUploader implements MediaUploader {
         }
     }
 
-    private void evictRelatedCaches(String finalObjectKey) {
-        mediaRetriever.evictMediaCache(finalObjectKey);
-
-        String parentFolder = extractParentFolder(finalObjectKey);
-        mediaRetriever.evictFolderCache(parentFolder);
-    }
-
-    private String extractParentFolder(String objectKey) {
-        int lastSlashIndex = objectKey.lastIndexOf('/');
-        return (lastSlashIndex > 0) ?
-                objectKey.substring(0, lastSlashIndex + 1) :
-                "";
+    private static String stripQuotes(String eTag) {
+        return eTag != null ? eTag.replace("\"", "") : null;
     }
 
-    private String findUniqueObjectName(String baseKey, String extension) {
+    private String findUniqueObjectName(String bucketName, String baseKey, String extension) {
         Pattern pattern = Pattern.compile(Pattern.quote(baseKey) + "-(\\d+)" + Pattern.quote(extension) + "$");
         int maxCounter = 0;
 
@@ -165,7 +143,7 @@ public class MinIOMediaUploader implements MediaUploader {
         } while (listResponse.isTruncated());
 
         String nextName = baseKey + (maxCounter > 0 ? "-" + (maxCounter + 1) : "") + extension;
-        if (!doesObjectExist(nextName)) {
+        if (!doesObjectExist(bucketName, nextName)) {
             return nextName;
         }
 
@@ -173,11 +151,11 @@ public class MinIOMediaUploader implements MediaUploader {
         String uniqueName;
         do {
             uniqueName = baseKey + "-" + counter++ + extension;
-        } while (doesObjectExist(uniqueName));
+        } while (doesObjectExist(bucketName, uniqueName));
         return uniqueName;
     }
 
-    private boolean doesObjectExist(String key) {
+    private boolean doesObjectExist(String bucketName, String key) {
         try {
             s3Client.headObject(HeadObjectRequest.builder()
                     .bucket(bucketName)
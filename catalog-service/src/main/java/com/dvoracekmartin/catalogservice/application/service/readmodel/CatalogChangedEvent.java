@@ -0,0 +1,14 @@
+package com.dvoracekmartin.catalogservice.application.service.readmodel;
+
+/**
+ * Published by the catalog write paths, the read model applies it once the surrounding transaction commits.
+ *
+ * @param section  section of the changed entity
+ * @param entityId id of the changed entity, {@code null} when the whole section changed
+ */
+public record CatalogChangedEvent(CatalogSection section, Long entityId) {
+
+    public static CatalogChangedEvent ofSection(CatalogSection section) {
+        return new CatalogChangedEvent(section, null);
+    }
+}
@@ -0,0 +1,321 @@
+package com.dvoracekmartin.catalogservice.application.service.readmodel;
+
+import com.dvoracekmartin.catalogservice.application.service.CatalogResponseAssembler;
+import com.dvoracekmartin.catalogservice.domain.repository.CategoryRepository;
+import com.dvoracekmartin.catalogservice.domain.repository.MixtureRepository;
+import com.dvoracekmartin.catalogservice.domain.repository.ProductRepository;
+import com.dvoracekmartin.catalogservice.domain.repository.TagRepository;
+import com.dvoracekmartin.common.dto.base.BaseUpdateOrResponseDTO;
+import com.dvoracekmartin.common.event.translation.TranslationChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * In-memory read model of the fully assembled catalog listings.
+ * <p>
+ * Readers always get the current immutable {@link CatalogSnapshot} without touching the database, MinIO or
+ * translation-service. Write paths publish a {@link CatalogChangedEvent}; after the commit the change is only recorded,
+ * a single background thread re-assembles the changed entities and the sections embedding them and publishes the
+ * next snapshot with one volatile write. Rebuilds are coalesced, so a burst of changes costs a single round.
+ * <p>
+ * Committed changes are announced to the other replicas over Redis pub/sub, and translations changed in
+ * translation-service mark their entities changed once the {@code TranslationCache} has dropped them. Pub/sub and
+ * Kafka notifications can be missed, so every section is also rebuilt in full every
+ * {@code catalog.read-model.resync-interval}, which bounds how stale a replica can get.
+ * <p>
+ * Snapshots hold media as references only. Callers asking for inline media encode just the items they return, the
+ * content comes from the size-bounded media cache.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogReadModel implements MessageListener {
+
+    public static final String CHANGES_CHANNEL = "catalog-read-model:changes";
+    private static final String SEPARATOR = "|";
+    private static final Comparator<BaseUpdateOrResponseDTO> LISTING_ORDER =
+            Comparator.comparingInt(BaseUpdateOrResponseDTO::getPriority)
+                    .thenComparingLong(BaseUpdateOrResponseDTO::getId);
+    private static final long RETRY_DELAY_SECONDS = 30;
+
+    private final ProductRepository productRepository;
+    private final MixtureRepository mixtureRepository;
+    private final CategoryRepository categoryRepository;
+    private final TagRepository tagRepository;
+    private final CatalogResponseAssembler catalogResponseAssembler;
+    private final PlatformTransactionManager transactionManager;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final ScheduledExecutorService rebuildExecutor = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("catalog-read-model").daemon().factory());
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    // guarded by lock, which is never held across I/O
+    private final Object lock = new Object();
+    private final Set<CatalogSection> staleSections = EnumSet.noneOf(CatalogSection.class);
+    private final Map<CatalogSection, Set<Long>> changedEntities = new EnumMap<>(CatalogSection.class);
+
+    private final Object initializationLock = new Object();
+
+    private volatile CatalogSnapshot snapshot;
+
+    /**
+     * Current snapshot, built synchronously when the read model has not been initialized yet.
+     */
+    public CatalogSnapshot getSnapshot() {
+        CatalogSnapshot current = snapshot;
+        return current != null ? current : initialize();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuildExecutor.execute(() -> {
+            try {
+                initialize();
+            } catch (RuntimeException e) {
+                log.warn("Catalog read model warm-up failed, it will be built on the first request: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Only records the change, the entity is re-read and swapped in by the rebuild thread, so the committing request
+     * never waits for the database, MinIO or translation-service.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        publishChange(event);
+        recordChanges(event.section(), event.entityId() == null ? null : List.of(event.entityId()));
+    }
+
+    /**
+     * Delivered by the {@code TranslationCacheListener} after the changed translations left the cache.
+     */
+    @EventListener
+    public void onTranslationChanged(TranslationChangedEvent event) {
+        if (event.getObjectType() == null || event.getEntityIds() == null || event.getEntityIds().isEmpty()) {
+            return;
+        }
+        CatalogSection section = switch (event.getObjectType()) {
+            case PRODUCT -> CatalogSection.PRODUCTS;
+            case MIXTURE -> CatalogSection.MIXTURES;
+            case CATEGORY -> CatalogSection.CATEGORIES;
+            case TAG -> CatalogSection.TAGS;
+            default -> null;
+        };
+        if (section != null) {
+            recordChanges(section, event.getEntityIds());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split("\\" + SEPARATOR, 3);
+        if (parts.length != 3) {
+            log.warn("Ignoring malformed catalog change '{}'", body);
+            return;
+        }
+        if (instanceId.equals(parts[0])) {
+            return;
+        }
+        try {
+            CatalogSection section = CatalogSection.valueOf(parts[1]);
+            recordChanges(section, parts[2].isEmpty() ? null : List.of(Long.valueOf(parts[2])));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed catalog change '{}'", body);
+        }
+    }
+
+    /**
+     * Rebuilds every section in full, catching up with changes whose notification was lost.
+     */
+    @Scheduled(fixedDelayString = "${catalog.read-model.resync-interval:PT15M}",
+            initialDelayString = "${catalog.read-model.resync-interval:PT15M}")
+    public void resync() {
+        if (snapshot == null) {
+            return;
+        }
+        synchronized (lock) {
+            staleSections.addAll(EnumSet.allOf(CatalogSection.class));
+        }
+        scheduleRebuild(0);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    // null ids mark the whole section stale
+    private void recordChanges(CatalogSection changedSection, Collection<Long> ids) {
+        if (snapshot == null) {
+            // nothing to update yet, the first read builds everything from scratch
+            return;
+        }
+        synchronized (lock) {
+            staleSections.addAll(changedSection.dependentSections());
+            if (ids == null) {
+                staleSections.add(changedSection);
+            } else {
+                changedEntities.computeIfAbsent(changedSection, section -> new LinkedHashSet<>()).addAll(ids);
+            }
+        }
+        scheduleRebuild(0);
+    }
+
+    // sent after the commit, the other replicas read the change from the database right away
+    private void publishChange(CatalogChangedEvent event) {
+        try {
+            stringRedisTemplate.convertAndSend(CHANGES_CHANNEL, instanceId + SEPARATOR + event.section().name()
+                    + SEPARATOR + (event.entityId() == null ? "" : event.entityId()));
+        } catch (DataAccessException e) {
+            log.warn("Failed to announce the catalog change {}: {}", event, e.getMessage());
+        }
+    }
+
+    private CatalogSnapshot initialize() {
+        synchronized (initializationLock) {
+            if (snapshot == null) {
+                Map<CatalogSection, List<?>> sections = readOnly(() -> {
+                    Map<CatalogSection, List<?>> assembled = new EnumMap<>(CatalogSection.class);
+                    for (CatalogSection section : CatalogSection.values()) {
+                        assembled.put(section, assembleSection(section));
+                    }
+                    return assembled;
+                });
+                snapshot = new CatalogSnapshot(0, Instant.now(), List.of(), List.of(), List.of(), List.of())
+                        .withSections(sections);
+                log.info("Catalog read model initialized with version {}", snapshot.version());
+            }
+            return snapshot;
+        }
+    }
+
+    // runs on the rebuild thread only, which is the single writer of the snapshot once it is initialized
+    private void rebuildStaleSections() {
+        rebuildScheduled.set(false);
+        if (snapshot == null) {
+            return;
+        }
+        Set<CatalogSection> sections;
+        Map<CatalogSection, Set<Long>> entities;
+        synchronized (lock) {
+            if (staleSections.isEmpty() && changedEntities.isEmpty()) {
+                return;
+            }
+            sections = EnumSet.copyOf(staleSections);
+            entities = new EnumMap<>(changedEntities);
+            staleSections.clear();
+            changedEntities.clear();
+        }
+        // a section read in full already contains its changed entities
+        entities.keySet().removeAll(sections);
+
+        try {
+            CatalogSnapshot current = snapshot;
+            Map<CatalogSection, List<?>> rebuilt = readOnly(() -> {
+                Map<CatalogSection, List<?>> assembled = new EnumMap<>(CatalogSection.class);
+                sections.forEach(section -> assembled.put(section, assembleSection(section)));
+                entities.forEach((section, ids) -> assembled.put(section, applyEntityChanges(current, section, ids)));
+                return assembled;
+            });
+            // everything drained above committed before it was read, later changes are drained by the next round
+            snapshot = current.withSections(rebuilt);
+            log.info("Rebuilt catalog read model sections {}, version {}", rebuilt.keySet(), snapshot.version());
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild catalog read model sections {}, retrying in {}s",
+                    union(sections, entities.keySet()), RETRY_DELAY_SECONDS, e);
+            synchronized (lock) {
+                staleSections.addAll(union(sections, entities.keySet()));
+            }
+            scheduleRebuild(RETRY_DELAY_SECONDS);
+            return;
+        }
+
+        synchronized (lock) {
+            if (staleSections.isEmpty() && changedEntities.isEmpty()) {
+                return;
+            }
+        }
+        scheduleRebuild(0);
+    }
+
+    private List<?> applyEntityChanges(CatalogSnapshot current, CatalogSection section, Set<Long> ids) {
+        return switch (section) {
+            case PRODUCTS -> upsert(current.products(), ids, id ->
+                    productRepository.findById(id).map(catalogResponseAssembler::assembleProduct));
+            case MIXTURES -> upsert(current.mixtures(), ids, id ->
+                    mixtureRepository.findById(id).map(catalogResponseAssembler::assembleMixture));
+            case CATEGORIES -> upsert(current.categories(), ids, id ->
+                    categoryRepository.findById(id).map(catalogResponseAssembler::assembleCategory));
+            case TAGS -> upsert(current.tags(), ids, id ->
+                    tagRepository.findById(id).map(catalogResponseAssembler::assembleTag));
+        };
+    }
+
+    private void scheduleRebuild(long delaySeconds) {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            rebuildExecutor.schedule(this::rebuildStaleSections, delaySeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    private List<?> assembleSection(CatalogSection section) {
+        return switch (section) {
+            case PRODUCTS -> catalogResponseAssembler.assembleProducts(productRepository.findAll());
+            case MIXTURES -> catalogResponseAssembler.assembleMixtures(mixtureRepository.findAll());
+            case CATEGORIES -> catalogResponseAssembler.assembleCategories(categoryRepository.findAll());
+            case TAGS -> catalogResponseAssembler.assembleTags(tagRepository.findAll());
+        };
+    }
+
+    private static <T extends BaseUpdateOrResponseDTO> List<T> upsert(List<T> current, Set<Long> ids,
+                                                                 Function<Long, Optional<T>> replacement) {
+        List<T> updated = new ArrayList<>(current.size() + ids.size());
+        current.stream()
+                .filter(dto -> !ids.contains(dto.getId()))
+                .forEach(updated::add);
+        ids.forEach(id -> replacement.apply(id).ifPresent(updated::add));
+        updated.sort(LISTING_ORDER);
+        return updated;
+    }
+
+    private static Set<CatalogSection> union(Set<CatalogSection> first, Set<CatalogSection> second) {
+        Set<CatalogSection> union = EnumSet.noneOf(CatalogSection.class);
+        union.addAll(first);
+        union.addAll(second);
+        return union;
+    }
+
+    private <T> T readOnly(Supplier<T> work) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        // we may run in the after-commit phase of the writing transaction
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transactionTemplate.execute(status -> work.get());
+    }
+}
@@ -0,0 +1,32 @@
+package com.dvoracekmartin.catalogservice.application.service.readmodel;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Sections of the catalog read model. Every section knows which other sections embed its entities,
+ * so a change only rebuilds what actually shows the changed data.
+ */
+public enum CatalogSection {
+    PRODUCTS,
+    MIXTURES,
+    CATEGORIES,
+    TAGS;
+
+    /**
+     * Sections whose DTOs embed entities of this section. Tags embed their categories, products and mixtures,
+     * while products and categories embed their tags, so most changes reach further than their own section.
+     */
+    public Set<CatalogSection> dependentSections() {
+        return switch (this) {
+            // products are embedded in mixtures and tags, tags again in products and categories
+            case PRODUCTS -> EnumSet.of(MIXTURES, TAGS, CATEGORIES);
+            // mixtures are embedded in tags only, tags in products and categories
+            case MIXTURES -> EnumSet.of(TAGS, PRODUCTS, CATEGORIES);
+            // categories are embedded in tags, tags in products
+            case CATEGORIES -> EnumSet.of(TAGS, PRODUCTS);
+            // tags carry their own associations, and are embedded in products and categories
+            case TAGS -> EnumSet.of(PRODUCTS, CATEGORIES, MIXTURES);
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package com.dvoracekmartin.catalogservice.application.service.readmodel;
+
+import com.dvoracekmartin.common.dto.category.ResponseCategoryDTO;
+import com.dvoracekmartin.common.dto.mixture.ResponseMixtureDTO;
+import com.dvoracekmartin.common.dto.product.ResponseProductDTO;
+import com.dvoracekmartin.common.dto.tag.ResponseTagDTO;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable, versioned view of the fully assembled catalog. The lists are sorted by priority and id like the
+ * listing endpoints expect. The DTOs are shared between all readers and must be treated as read-only.
+ */
+public record CatalogSnapshot(long version,
+                              Instant builtAt,
+                              List<ResponseProductDTO> products,
+                              List<ResponseMixtureDTO> mixtures,
+                              List<ResponseCategoryDTO> categories,
+                              List<ResponseTagDTO> tags) {
+
+    public CatalogSnapshot {
+        products = List.copyOf(products);
+        mixtures = List.copyOf(mixtures);
+        categories = List.copyOf(categories);
+        tags = List.copyOf(tags);
+    }
+
+    /**
+     * Returns the next version of this snapshot with the given sections replaced, all other sections are reused.
+     */
+    @SuppressWarnings("unchecked")
+    public CatalogSnapshot withSections(Map<CatalogSection, List<?>> sections) {
+        return new CatalogSnapshot(
+                version + 1,
+                Instant.now(),
+                (List<ResponseProductDTO>) sections.getOrDefault(CatalogSection.PRODUCTS, products),
+                (List<ResponseMixtureDTO>) sections.getOrDefault(CatalogSection.MIXTURES, mixtures),
+                (List<ResponseCategoryDTO>) sections.getOrDefault(CatalogSection.CATEGORIES, categories),
+                (List<ResponseTagDTO>) sections.getOrDefault(CatalogSection.TAGS, tags)
+        );
+    }
+
+    public Optional<ResponseProductDTO> findProduct(Long id) {
+        return products.stream().filter(product -> product.getId().equals(id)).findFirst();
+    }
+
+    public Optional<ResponseMixtureDTO> findMixture(Long id) {
+        return mixtures.stream().filter(mixture -> mixture.getId().equals(id)).findFirst();
+    }
+
+    public Optional<ResponseCategoryDTO> findCategory(Long id) {
+        return categories.stream().filter(category -> category.getId().equals(id)).findFirst();
+    }
+
+    public Optional<ResponseTagDTO> findTag(Long id) {
+        return tags.stream().filter(tag -> tag.getId().equals(id)).findFirst();
+    }
+}
@@ -0,0 +1,69 @@
+package com.dvoracekmartin.catalogservice.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Moves the id sequences of the catalog entities past the ids the former identity columns handed out, so the first
+ * insert after the switch to sequences does not collide with an existing row.
+ * <p>
+ * The schema is maintained by Hibernate, which creates a missing {@code product_seq} starting at 1. This runs once the
+ * entity manager factory has updated the schema and before the application takes requests, on every start; a
+ * sequence already past the highest id is left alone. The pooled optimizer treats a sequence value as the top of its
+ * block of 50 ids, so the next value has to be 50 past the highest id. Startups of several replicas are serialized
+ * with an advisory lock. Only PostgreSQL needs this, other databases are skipped.
+ */
+@Slf4j
+@Component
+public class CatalogIdSequenceInitializer {
+
+    private static final long ADVISORY_LOCK_KEY = 0x636174616c6f67L;
+    private static final int ALLOCATION_SIZE = 50;
+    private static final List<String> TABLES = List.of("product", "mixture", "category", "tag");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // the factory is injected so the schema update has run before the sequences are read
+    public CatalogIdSequenceInitializer(JdbcTemplate jdbcTemplate,
+                                        PlatformTransactionManager transactionManager,
+                                        EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void alignSequences() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (database == null || !database.toLowerCase(Locale.ROOT).contains("postgres")) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)", Object.class, ADVISORY_LOCK_KEY);
+            TABLES.forEach(this::alignSequence);
+        });
+    }
+
+    private void alignSequence(String table) {
+        String sequence = table + "_seq";
+        long required = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class) + ALLOCATION_SIZE;
+        Map<String, Object> state = jdbcTemplate.queryForMap("SELECT last_value, is_called FROM " + sequence);
+        long lastValue = ((Number) state.get("last_value")).longValue();
+        long next = Boolean.TRUE.equals(state.get("is_called")) ? lastValue + ALLOCATION_SIZE : lastValue;
+        if (next < required) {
+            jdbcTemplate.queryForObject("SELECT setval(?::regclass, ?, false)", Long.class, sequence, required);
+            log.info("Moved sequence '{}' from {} to {}, past the existing ids of '{}'", sequence, next, required, table);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.dvoracekmartin.catalogservice.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Sets the priority of catalog entities saved without one to 0.
+ * <p>
+ * The listings page by keyset on {@code (priority, id)}, and a row with a null priority falls out of every page after
+ * the first. New and updated entities get 0 from {@code BaseEntity}; this backfills the rows written before, once the
+ * entity manager factory has updated the schema and before the application takes requests, on every start.
+ */
+@Slf4j
+@Component
+public class CatalogPriorityInitializer {
+
+    private static final List<String> TABLES = List.of("product", "mixture", "category", "tag");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // the factory is injected so the schema update has run before the rows are updated
+    public CatalogPriorityInitializer(JdbcTemplate jdbcTemplate,
+                                      PlatformTransactionManager transactionManager,
+                                      EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void backfillPriorities() {
+        transactionTemplate.executeWithoutResult(status -> TABLES.forEach(table -> {
+            int updated = jdbcTemplate.update("UPDATE " + table + " SET priority = 0 WHERE priority IS NULL");
+            if (updated > 0) {
+                log.info("Set the missing priority of {} rows of '{}' to 0", updated, table);
+            }
+        }));
+    }
+}
@@ -0,0 +1,21 @@
+package com.dvoracekmartin.catalogservice.config;
+
+import com.dvoracekmartin.catalogservice.application.service.readmodel.CatalogReadModel;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+public class CatalogReadModelConfig {
+
+    @Bean
+    public RedisMessageListenerContainer catalogReadModelListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                          CatalogReadModel catalogReadModel) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(catalogReadModel, new ChannelTopic(CatalogReadModel.CHANGES_CHANNEL));
+        return container;
+    }
+}
@@ -0,0 +1,31 @@
+package com.dvoracekmartin.catalogservice.config;
+
+import com.dvoracekmartin.common.translation.LocaleProjection;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+@Configuration
+public class LocaleProjectionConfig {
+
+    // the default locale of the latest AppSettings, e.g. cs_CZ
+    @Bean
+    public LocaleProjection localeProjection(WebClient configurationWebClient,
+                                             @Value("${translation.default-locale.refresh-interval:PT5M}") Duration refreshInterval,
+                                             @Value("${translation.default-locale.fallback:}") String fallbackLocale) {
+        return new LocaleProjection(() -> {
+            JsonNode defaultLocale = configurationWebClient.get()
+                    .uri("/last")
+                    .retrieve()
+                    .bodyToMono(JsonNode.class)
+                    .block()
+                    .path("defaultLocale");
+            return LocaleProjection.localeKey(defaultLocale.path("languageCode").asText(null),
+                    defaultLocale.path("regionCode").asText(null));
+        }, refreshInterval, fallbackLocale);
+    }
+}
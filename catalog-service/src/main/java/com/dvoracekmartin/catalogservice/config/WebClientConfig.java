@@ -1,8 +1,14 @@
 package com.dvoracekmartin.catalogservice.config;
 
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
 
 @Configuration
 public class WebClientConfig {
@@ -13,4 +19,18 @@ public class WebClientConfig {
                 .baseUrl("http://localhost:8080/api/translations/v1")
                 .build();
     }
+
+    // the default locale is read from here, a slow configuration-service must not hold up the refresh for long
+    @Bean
+    public WebClient configurationWebClient(WebClient.Builder builder,
+                                            @Value("${configuration.client.connect-timeout:PT2S}") Duration connectTimeout,
+                                            @Value("${configuration.client.read-timeout:PT5S}") Duration readTimeout) {
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout);
+        return builder
+                .baseUrl("http://localhost:8080/api/configuration/v1")
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
 }
@@ -20,17 +20,24 @@ public final class ApiEndpoints {
     public static final String ACTIVE_PRODUCTS_FOR_DISPLAY = "/api/catalog/v1/active-products-for-display-in-products";
     public static final String ACTIVE_PRODUCTS_FOR_MIXING = "/api/catalog/v1/active-products-for-mixing-by-category-id/{categoryId}";
     public static final String ALL_CATEGORIES = "/api/catalog/v1/all-categories";
+    public static final String ALL_CATEGORIES_PAGE = "/api/catalog/v1/all-categories/page";
     public static final String ALL_MIXTURES = "/api/catalog/v1/all-mixtures";
+    public static final String ALL_MIXTURES_PAGE = "/api/catalog/v1/all-mixtures/page";
     public static final String ALL_PRODUCTS = "/api/catalog/v1/all-products";
+    public static final String ALL_PRODUCTS_PAGE = "/api/catalog/v1/all-products/page";
     public static final String ALL_PRODUCTS_BY_CATEGORY = "/api/catalog/v1/all-products-by-category-id/{categoryId}";
     public static final String ALL_TAGS = "/api/catalog/v1/all-tags";
+    public static final String ALL_TAGS_PAGE = "/api/catalog/v1/all-tags/page";
     public static final String CATEGORY_BY_ID = "/api/catalog/v1/categories/{id}";
     public static final String MEDIA = "/api/catalog/v1/media";
     public static final String MEDIA_LIST = "/api/catalog/v1/media/list";
     public static final String MEDIA_LIST_NAMES = "/api/catalog/v1/media/list-names";
     public static final String MIXTURE_BY_ID = "/api/catalog/v1/mixtures/{id}";
+    public static final String MIXTURES_BY_IDS = "/api/catalog/v1/mixtures/by-ids";
     public static final String PRODUCT_BY_ID = "/api/catalog/v1/products/{id}";
+    public static final String PRODUCTS_BY_IDS = "/api/catalog/v1/products/by-ids";
     public static final String SEARCH = "/api/catalog/v1/search";
+    public static final String SUGGEST = "/api/catalog/v1/suggest";
     public static final String TAG_BY_ID = "/api/catalog/v1/tags/{id}";
 
     // ============================================================
@@ -60,17 +67,24 @@ public final class ApiEndpoints {
             ACTIVE_PRODUCTS_FOR_DISPLAY,
             ACTIVE_PRODUCTS_FOR_MIXING,
             ALL_CATEGORIES,
+            ALL_CATEGORIES_PAGE,
             ALL_MIXTURES,
+            ALL_MIXTURES_PAGE,
             ALL_PRODUCTS,
+            ALL_PRODUCTS_PAGE,
             ALL_PRODUCTS_BY_CATEGORY,
             ALL_TAGS,
+            ALL_TAGS_PAGE,
             CATEGORY_BY_ID,
             MEDIA,
             MEDIA_LIST,
             MEDIA_LIST_NAMES,
             MIXTURE_BY_ID,
+            MIXTURES_BY_IDS,
             PRODUCT_BY_ID,
+            PRODUCTS_BY_IDS,
             SEARCH,
+            SUGGEST,
             TAG_BY_ID,
 
             // CatalogAdminControllerV1
@@ -16,10 +16,20 @@ import java.util.List;
 @AllArgsConstructor
 public abstract class BaseEntity {
 
+    /**
+     * Batch size of lazy associations and proxies, so walking a listing costs one SELECT per association
+     * rather than one per row.
+     */
+    public static final int FETCH_BATCH_SIZE = 100;
+
+    // one sequence per entity (product_seq, ...), ids are allocated in blocks so inserts can be JDBC batched
+    // existing databases get their sequences moved past the identity ids by CatalogIdSequenceInitializer
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
+    // listings page by keyset on (priority, id), a null priority would drop the row from every page after the first;
+    // rows saved before are backfilled by CatalogPriorityInitializer
     @Column
     private Integer priority;
 
@@ -29,4 +39,12 @@ public abstract class BaseEntity {
     @ElementCollection
     @Column(name = "image_url", length = 512)
     private List<String> imageUrl;
+
+    @PrePersist
+    @PreUpdate
+    protected void defaultPriority() {
+        if (priority == null) {
+            priority = 0;
+        }
+    }
 }
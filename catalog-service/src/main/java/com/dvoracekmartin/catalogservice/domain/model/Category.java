@@ -4,33 +4,41 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.List;
 
 @Entity
+@NamedEntityGraph(name = Category.LISTING_GRAPH, attributeNodes = @NamedAttributeNode("tags"))
+@BatchSize(size = BaseEntity.FETCH_BATCH_SIZE)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 public class Category extends BaseEntity {
 
+    public static final String LISTING_GRAPH = "Category.listing";
+
     @Column
     private boolean mixable;
 
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL)
     @JsonBackReference
+    @BatchSize(size = FETCH_BATCH_SIZE)
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     private List<Product> products;
 
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL)
     @JsonBackReference
+    @BatchSize(size = FETCH_BATCH_SIZE)
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     private List<Mixture> mixtures;
 
     @ManyToMany
     @JsonManagedReference
+    @BatchSize(size = FETCH_BATCH_SIZE)
     @JoinTable(
             name = "category_tags",
             joinColumns = @JoinColumn(name = "category_id"),
@@ -8,16 +8,26 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_mixture_priority_id", columnList = "priority, id"))
+@NamedEntityGraph(name = Mixture.LISTING_GRAPH, attributeNodes = {
+        @NamedAttributeNode("category"),
+        @NamedAttributeNode("products")
+})
+@BatchSize(size = BaseEntity.FETCH_BATCH_SIZE)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 public class Mixture extends BaseEntity {
 
+    // one bag only, Hibernate cannot join fetch products and tags together; tags are batch fetched
+    public static final String LISTING_GRAPH = "Mixture.listing";
+
     @Column(nullable = false)
     @NotNull
     private Double price;
@@ -29,6 +39,7 @@ public class Mixture extends BaseEntity {
 
     @ManyToMany
     @JsonManagedReference
+    @BatchSize(size = FETCH_BATCH_SIZE)
     @JoinTable(
             name = "mixture_products",
             joinColumns = @JoinColumn(name = "mixture_id"),
@@ -43,6 +54,7 @@ public class Mixture extends BaseEntity {
 
     @ManyToMany
     @JsonManagedReference
+    @BatchSize(size = FETCH_BATCH_SIZE)
     @JoinTable(
             name = "mixture_tags",
             joinColumns = @JoinColumn(name = "mixture_id"),
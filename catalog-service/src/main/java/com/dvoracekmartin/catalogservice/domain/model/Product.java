@@ -7,16 +7,25 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_product_priority_id", columnList = "priority, id"))
+@NamedEntityGraph(name = Product.LISTING_GRAPH, attributeNodes = {
+        @NamedAttributeNode("category"),
+        @NamedAttributeNode("tags")
+})
+@BatchSize(size = BaseEntity.FETCH_BATCH_SIZE)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 public class Product extends BaseEntity {
 
+    public static final String LISTING_GRAPH = "Product.listing";
+
     @Column(nullable = false)
     @NotNull
     private Double price;
@@ -36,6 +45,7 @@ public class Product extends BaseEntity {
 
     @ManyToMany
     @JsonManagedReference
+    @BatchSize(size = FETCH_BATCH_SIZE)
     @JoinTable(
             name = "product_tags",
             joinColumns = @JoinColumn(name = "product_id"),
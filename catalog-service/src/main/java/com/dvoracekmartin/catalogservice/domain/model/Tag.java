@@ -7,11 +7,13 @@ import jakarta.persistence.ManyToMany;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@BatchSize(size = BaseEntity.FETCH_BATCH_SIZE)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,17 +22,20 @@ public class Tag extends BaseEntity {
 
     @ManyToMany(mappedBy = "tags")
     @JsonBackReference
+    @BatchSize(size = FETCH_BATCH_SIZE)
     @EqualsAndHashCode.Exclude
     private List<Category> categories;
 
     @ManyToMany(mappedBy = "tags")
     @JsonBackReference
+    @BatchSize(size = FETCH_BATCH_SIZE)
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     private List<Product> products;
 
     @ManyToMany(mappedBy = "tags")
     @JsonBackReference
+    @BatchSize(size = FETCH_BATCH_SIZE)
     @EqualsAndHashCode.Exclude
     private List<Mixture> mixtures;
 
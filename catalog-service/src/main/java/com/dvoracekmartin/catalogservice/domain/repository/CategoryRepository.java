@@ -1,6 +1,10 @@
 package com.dvoracekmartin.catalogservice.domain.repository;
 
 import com.dvoracekmartin.catalogservice.domain.model.Category;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
@@ -11,7 +15,22 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
 
 //    Optional<Category> findByName(String name);
 
+    @Override
+    @EntityGraph(Category.LISTING_GRAPH)
+    List<Category> findAll();
+
+    @Override
+    @EntityGraph(Category.LISTING_GRAPH)
+    List<Category> findAllById(Iterable<Long> ids);
+
+    @EntityGraph(Category.LISTING_GRAPH)
     List<Category> findByActiveTrue();
 
+    @EntityGraph(Category.LISTING_GRAPH)
     List<Category> findByActiveTrueAndMixableTrue();
+
+    Window<Category> findAllByOrderByPriorityAscIdAsc(ScrollPosition position, Limit limit);
+
+    // keyset page for the search reindex, an offset would skip rows when earlier ones are deleted meanwhile
+    List<Category> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
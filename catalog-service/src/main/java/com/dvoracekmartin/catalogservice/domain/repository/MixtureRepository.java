@@ -3,15 +3,35 @@ package com.dvoracekmartin.catalogservice.domain.repository;
 import com.dvoracekmartin.catalogservice.domain.model.Mixture;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface MixtureRepository extends JpaRepository<Mixture, Long> {
 
 //    boolean existsByName(@NotBlank @Size(min = 3) String name);
 
+    @Override
+    @EntityGraph(Mixture.LISTING_GRAPH)
+    List<Mixture> findAll();
+
+    @Override
+    @EntityGraph(Mixture.LISTING_GRAPH)
+    List<Mixture> findAllById(Iterable<Long> ids);
+
+    @EntityGraph(Mixture.LISTING_GRAPH)
     Collection<Mixture> findAllByActiveTrueAndDisplayInProductsTrue();
+
+    @EntityGraph(attributePaths = "category")
+    Window<Mixture> findAllByOrderByPriorityAscIdAsc(ScrollPosition position, Limit limit);
+
+    // keyset page for the search reindex, an offset would skip rows when earlier ones are deleted meanwhile
+    List<Mixture> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
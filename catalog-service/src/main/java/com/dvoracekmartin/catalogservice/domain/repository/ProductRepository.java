@@ -2,18 +2,42 @@ package com.dvoracekmartin.catalogservice.domain.repository;
 
 import com.dvoracekmartin.catalogservice.domain.model.Product;
 import jakarta.validation.constraints.NotBlank;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.Collection;
+import java.util.List;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
 //    boolean existsByName(@NotBlank String name);
 
+    @Override
+    @EntityGraph(Product.LISTING_GRAPH)
+    List<Product> findAll();
+
+    @Override
+    @EntityGraph(Product.LISTING_GRAPH)
+    List<Product> findAllById(Iterable<Long> ids);
+
+    @EntityGraph(Product.LISTING_GRAPH)
     Collection<Product> findAllByCategoryId(Long categoryId);
 
+    @EntityGraph(Product.LISTING_GRAPH)
     Collection<Product> findAllByCategoryIdAndActiveTrue(Long categoryId);
 
+    @EntityGraph(Product.LISTING_GRAPH)
     Collection<Product> findAllByCategoryIdAndActiveTrueAndMixableTrue(Long categoryId);
 
+    @EntityGraph(Product.LISTING_GRAPH)
     Collection<Product> findAllByActiveTrueAndDisplayInProductsTrue();
+
+    // a fetched collection would make Hibernate apply the limit in memory, tags are batch fetched instead
+    @EntityGraph(attributePaths = "category")
+    Window<Product> findAllByOrderByPriorityAscIdAsc(ScrollPosition position, Limit limit);
+
+    // keyset page for the search reindex, an offset would skip rows when earlier ones are deleted meanwhile
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
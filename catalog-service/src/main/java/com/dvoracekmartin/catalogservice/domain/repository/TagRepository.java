@@ -2,12 +2,21 @@ package com.dvoracekmartin.catalogservice.domain.repository;
 
 import com.dvoracekmartin.catalogservice.domain.model.Tag;
 import jakarta.validation.constraints.NotBlank;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface TagRepository extends JpaRepository<Tag, Long> {
 //    boolean existsByName(String name);
 
 //    Optional<Tag> findByName(@NotBlank String name);
+
+    Window<Tag> findAllByOrderByPriorityAscIdAsc(ScrollPosition position, Limit limit);
+
+    // keyset page for the search reindex, an offset would skip rows when earlier ones are deleted meanwhile
+    List<Tag> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
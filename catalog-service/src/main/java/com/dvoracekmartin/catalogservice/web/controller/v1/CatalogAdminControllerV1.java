@@ -2,16 +2,22 @@ package com.dvoracekmartin.catalogservice.web.controller.v1;
 
 import com.dvoracekmartin.catalogservice.application.dto.category.CreateCategoryDTO;
 import com.dvoracekmartin.catalogservice.application.dto.category.UpdateCategoryDTO;
+import com.dvoracekmartin.catalogservice.application.dto.importing.ResponseImportResultDTO;
+import com.dvoracekmartin.catalogservice.application.dto.listing.ResponsePageDTO;
 import com.dvoracekmartin.catalogservice.application.dto.mixture.CreateMixtureDTO;
 import com.dvoracekmartin.catalogservice.application.dto.mixture.UpdateMixtureDTO;
 import com.dvoracekmartin.catalogservice.application.dto.product.CreateProductDTO;
 import com.dvoracekmartin.catalogservice.application.dto.product.UpdateProductDTO;
 import com.dvoracekmartin.catalogservice.application.dto.product.UpdateProductStockDTO;
+import com.dvoracekmartin.catalogservice.application.dto.search.ResponseReindexStatusDTO;
 import com.dvoracekmartin.catalogservice.application.dto.search.ResponseSearchResultDTO;
 import com.dvoracekmartin.catalogservice.application.dto.tag.CreateTagDTO;
 import com.dvoracekmartin.catalogservice.application.dto.tag.UpdateTagDTO;
+import com.dvoracekmartin.catalogservice.application.elasticsearch.service.ElasticsearchReindexService;
 import com.dvoracekmartin.catalogservice.application.elasticsearch.service.ElasticsearchServiceImpl;
 import com.dvoracekmartin.catalogservice.application.service.CatalogService;
+import com.dvoracekmartin.catalogservice.application.service.importing.CatalogImportService;
+import com.dvoracekmartin.catalogservice.application.service.media.MediaMode;
 import com.dvoracekmartin.common.dto.category.ResponseCategoryDTO;
 import com.dvoracekmartin.common.dto.mixture.ResponseMixtureDTO;
 import com.dvoracekmartin.common.dto.product.ResponseProductDTO;
@@ -21,11 +27,15 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -38,12 +48,20 @@ public class CatalogAdminControllerV1 {
 
     private final CatalogService catalogService;
     private final ElasticsearchServiceImpl elasticsearchService;
+    private final ElasticsearchReindexService elasticsearchReindexService;
+    private final CatalogImportService catalogImportService;
 
     // === PRODUCTS ===
 
     @GetMapping("/all-products")
     public List<ResponseProductDTO> getAllProducts() {
-        return catalogService.getAllProducts();
+        return catalogService.getAllProducts(MediaMode.INLINE);
+    }
+
+    @GetMapping("/all-products/page")
+    public ResponsePageDTO<ResponseProductDTO> getProductsPage(@RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = "50") int size) {
+        return catalogService.getProductsPage(cursor, size, MediaMode.INLINE);
     }
 
     @GetMapping("/products/{id}")
@@ -85,6 +103,12 @@ public class CatalogAdminControllerV1 {
         return catalogService.getAllMixtures();
     }
 
+    @GetMapping("/all-mixtures/page")
+    public ResponsePageDTO<ResponseMixtureDTO> getMixturesPage(@RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = "50") int size) {
+        return catalogService.getMixturesPage(cursor, size);
+    }
+
     @GetMapping("/mixtures/{id}")
     public ResponseEntity<ResponseMixtureDTO> getMixtureById(@PathVariable Long id) {
         return ResponseEntity.ok(catalogService.getMixtureById(id));
@@ -110,7 +134,13 @@ public class CatalogAdminControllerV1 {
 
     @GetMapping("/all-categories")
     public List<ResponseCategoryDTO> getAllCategories() {
-        return catalogService.getAllCategories();
+        return catalogService.getAllCategories(MediaMode.INLINE);
+    }
+
+    @GetMapping("/all-categories/page")
+    public ResponsePageDTO<ResponseCategoryDTO> getCategoriesPage(@RequestParam(required = false) String cursor,
+                                                                  @RequestParam(defaultValue = "50") int size) {
+        return catalogService.getCategoriesPage(cursor, size, MediaMode.INLINE);
     }
 
     @GetMapping("/categories/{id}")
@@ -141,6 +171,12 @@ public class CatalogAdminControllerV1 {
         return catalogService.getAllTags();
     }
 
+    @GetMapping("/all-tags/page")
+    public ResponsePageDTO<ResponseTagDTO> getTagsPage(@RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "50") int size) {
+        return catalogService.getTagsPage(cursor, size);
+    }
+
     @GetMapping("/tags/{id}")
     public ResponseEntity<ResponseTagDTO> getTagById(@PathVariable Long id) {
         return ResponseEntity.ok(catalogService.getTagById(id));
@@ -162,21 +198,40 @@ public class CatalogAdminControllerV1 {
         return ResponseEntity.noContent().build();
     }
 
+    // === IMPORT ===
+
+    /**
+     * Imports products and mixtures from JSON lines, one row per line, with their media in an optional ZIP archive.
+     * Responds 422 with the per-row errors if any row is invalid, nothing is imported then.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ResponseImportResultDTO> importCatalog(@RequestPart("rows") MultipartFile rows,
+                                                                 @RequestPart(value = "media", required = false) MultipartFile media) throws IOException {
+        try (InputStream rowStream = rows.getInputStream();
+             InputStream mediaStream = media != null && !media.isEmpty() ? media.getInputStream() : null) {
+            ResponseImportResultDTO result = catalogImportService.importCatalog(rowStream, mediaStream);
+            return ResponseEntity.status(result.applied() ? HttpStatus.OK : HttpStatus.UNPROCESSABLE_ENTITY).body(result);
+        }
+    }
+
     // === SEARCH / INDEX ===
 
     @GetMapping("/search")
-    public ResponseSearchResultDTO search(@RequestParam("q") String query) {
-        return elasticsearchService.search(query);
+    public ResponseSearchResultDTO search(@RequestParam("q") String query,
+                                          @RequestParam(defaultValue = "0") int page,
+                                          @RequestParam(defaultValue = "20") int size) {
+        return elasticsearchService.search(query, page, size);
     }
 
     @PostMapping("/index-all")
-    @ResponseStatus(HttpStatus.OK)
-    public void indexAll() {
-        elasticsearchService.indexAll(
-                catalogService.getAllCategories(),
-                catalogService.getAllProducts(),
-                catalogService.getAllMixtures(),
-                catalogService.getAllTags()
-        );
+    public ResponseEntity<ResponseReindexStatusDTO> indexAll() {
+        return elasticsearchReindexService.start()
+                .map(status -> ResponseEntity.status(HttpStatus.ACCEPTED).body(status))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).body(elasticsearchReindexService.getStatus()));
+    }
+
+    @GetMapping("/index-all/status")
+    public ResponseReindexStatusDTO getIndexAllStatus() {
+        return elasticsearchReindexService.getStatus();
     }
 }
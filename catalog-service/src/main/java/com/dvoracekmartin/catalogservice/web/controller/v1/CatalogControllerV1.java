@@ -1,10 +1,17 @@
 package com.dvoracekmartin.catalogservice.web.controller.v1;
 
+import com.dvoracekmartin.catalogservice.application.dto.listing.ResponsePageDTO;
 import com.dvoracekmartin.catalogservice.application.dto.mixture.CreateMixtureDTO;
 import com.dvoracekmartin.catalogservice.application.dto.search.ResponseSearchResultDTO;
+import com.dvoracekmartin.catalogservice.application.dto.search.ResponseSuggestionDTO;
+import com.dvoracekmartin.catalogservice.application.dto.search.SearchFilterDTO;
 import com.dvoracekmartin.catalogservice.application.elasticsearch.service.ElasticsearchServiceImpl;
+import com.dvoracekmartin.catalogservice.application.service.CatalogLocaleProjector;
 import com.dvoracekmartin.catalogservice.application.service.CatalogService;
+import com.dvoracekmartin.catalogservice.application.service.media.MediaMode;
+import com.dvoracekmartin.catalogservice.application.service.media.MediaObject;
 import com.dvoracekmartin.catalogservice.application.service.media.MediaRetriever;
+import com.dvoracekmartin.common.media.MediaStream;
 import com.dvoracekmartin.catalogservice.config.RateLimit;
 import com.dvoracekmartin.common.dto.category.ResponseCategoryDTO;
 import com.dvoracekmartin.common.dto.mixture.ResponseMixtureDTO;
@@ -13,12 +20,19 @@ import com.dvoracekmartin.common.dto.tag.ResponseTagDTO;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -31,28 +45,71 @@ public class CatalogControllerV1 {
     private final CatalogService catalogService;
     private final MediaRetriever mediaRetriever;
     private final ElasticsearchServiceImpl elasticsearchService;
+    private final CatalogLocaleProjector catalogLocaleProjector;
+
+    @Value("${catalog.media.cache-max-age:PT1H}")
+    private Duration mediaCacheMaxAge = Duration.ofHours(1);
 
     // === MEDIA ===
 
+    /**
+     * Streams a single media object from the storage. Responses carry the object's ETag and are cacheable,
+     * conditional requests with {@code If-None-Match} are answered with 304 and a single {@code Range} with
+     * partial content read as a ranged request from the storage.
+     */
     @GetMapping("/media")
-    public ResponseEntity<byte[]> getMedia(@RequestParam String objectKey, @RequestParam String bucketName) {
-        byte[] mediaData = mediaRetriever.retrieveMedia(objectKey, bucketName);
-        if (mediaData == null) {
+    public ResponseEntity<StreamingResponseBody> getMedia(@RequestParam String objectKey,
+                                                          @RequestParam String bucketName,
+                                                          @RequestHeader(name = HttpHeaders.RANGE, required = false) String rangeHeader,
+                                                          WebRequest webRequest) {
+        MediaObject metadata = mediaRetriever.getMediaMetadata(objectKey, bucketName);
+        if (metadata == null) {
+            log.error("Media not found: {}", objectKey);
+            return ResponseEntity.notFound().build();
+        }
+        CacheControl cacheControl = CacheControl.maxAge(mediaCacheMaxAge).cachePublic();
+        if (metadata.eTag() != null && webRequest.checkNotModified(metadata.eTag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(metadata.eTag())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        String range;
+        try {
+            range = toStorageRange(rangeHeader, metadata.size());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + metadata.size())
+                    .build();
+        }
+
+        MediaStream media = mediaRetriever.openMedia(objectKey, bucketName, range);
+        if (media == null) {
             log.error("Media not found: {}", objectKey);
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok().contentType(MediaType.IMAGE_JPEG).body(mediaData);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(media.isPartial() ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
+                .eTag(media.eTag())
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .contentType(MediaType.parseMediaType(media.contentType()))
+                .contentLength(media.contentLength());
+        if (media.isPartial()) {
+            response.header(HttpHeaders.CONTENT_RANGE, media.contentRange());
+        }
+        return response.body(media::writeTo);
     }
 
     @GetMapping("/media/list")
     public List<ResponseEntity<byte[]>> listMedia(@RequestParam String folder, @RequestParam String bucketName) {
-        return mediaRetriever.listMediaKeysInFolder(folder, bucketName).stream()
-                .map(key -> {
-                    byte[] data = mediaRetriever.retrieveMedia(key, bucketName);
+        return mediaRetriever.listMediaInFolder(folder, bucketName).stream()
+                .map(mediaObject -> {
+                    byte[] data = mediaRetriever.retrieveMedia(mediaObject.objectKey(), bucketName);
                     if (data != null) {
-                        return ResponseEntity.ok().contentType(MediaType.IMAGE_JPEG).body(data);
+                        return ResponseEntity.ok().contentType(MediaType.parseMediaType(mediaObject.contentType())).body(data);
                     }
-                    log.error("Media not found: {}", key);
+                    log.error("Media not found: {}", mediaObject.objectKey());
                     return null;
                 })
                 .filter(resp -> resp != null)
@@ -65,47 +122,85 @@ public class CatalogControllerV1 {
     }
 
     // === PRODUCTS ===
+    // Reads take an optional locale, the localized fields of the response then hold only that locale
+    // (or the default locale's text for entities not translated to it)
 
     @GetMapping("/all-products")
-    public List<ResponseProductDTO> getAllProducts() {
-        return catalogService.getAllProducts();
+    public List<ResponseProductDTO> getAllProducts(@RequestParam(name = "media", defaultValue = "INLINE") MediaMode media,
+                                                   @RequestParam(required = false) String locale) {
+        return catalogLocaleProjector.products(catalogService.getAllProducts(media), locale);
+    }
+
+    @GetMapping("/all-products/page")
+    public ResponsePageDTO<ResponseProductDTO> getProductsPage(@RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = "50") int size,
+                                                               @RequestParam(name = "media", defaultValue = "REFERENCE") MediaMode media,
+                                                               @RequestParam(required = false) String locale) {
+        return catalogLocaleProjector.page(catalogService.getProductsPage(cursor, size, media), locale, catalogLocaleProjector::products);
     }
 
     @GetMapping("/all-products-by-category-id/{categoryId}")
-    public List<ResponseProductDTO> getAllProductsByCategory(@PathVariable Long categoryId) {
-        return catalogService.getAllProductsByCategoryId(categoryId);
+    public List<ResponseProductDTO> getAllProductsByCategory(@PathVariable Long categoryId,
+                                                             @RequestParam(name = "media", defaultValue = "INLINE") MediaMode media,
+                                                             @RequestParam(required = false) String locale) {
+        return catalogLocaleProjector.products(catalogService.getAllProductsByCategoryId(categoryId, media), locale);
     }
 
     @GetMapping("/active-products-by-category-id/{categoryId}")
-    public List<ResponseProductDTO> getActiveProductsByCategory(@PathVariable Long categoryId) {
-        return catalogService.getActiveProductsByCategoryId(categoryId);
+    public List<ResponseProductDTO> getActiveProductsByCategory(@PathVariable Long categoryId,
+                                                                @RequestParam(name = "media", defaultValue = "INLINE") MediaMode media,
+                                                                @RequestParam(required = false) String locale) {
+        return catalogLocaleProjector.products(catalogService.getActiveProductsByCategoryId(categoryId, media), locale);
     }
 
     @GetMapping("/active-products-for-mixing-by-category-id/{categoryId}")
-    public List<ResponseProductDTO> getActiveProductsForMixing(@PathVariable Long categoryId) {
-        return catalogService.getActiveProductsForMixingByCategoryId(categoryId);
+    public List<ResponseProductDTO> getActiveProductsForMixing(@PathVariable Long categoryId,
+                                                               @RequestParam(name = "media", defaultValue = "INLINE") MediaMode media,
+                                                               @RequestParam(required = false) String locale) {
+        return catalogLocaleProjector.products(catalogService.getActiveProductsForMixingByCategoryId(categoryId, media), locale);
     }
 
     @GetMapping("/active-products-for-display-in-products")
-    public List<ResponseProductDTO> getActiveProductsForDisplay() {
-        return catalogService.getActiveProductsForDisplayInProducts();
+    public List<ResponseProductDTO> getActiveProductsForDisplay(@RequestParam(name = "media", defaultValue = "INLINE") MediaMode media,
+                                                                @RequestParam(required = false) String locale) {
+        return catalogLocaleProjector.products(catalogService.getActiveProductsForDisplayInProducts(media), locale);
     }
 
     @GetMapping("/products/{id}")
-    public ResponseEntity<ResponseProductDTO> getProductById(@PathVariable Long id) {
-        return ResponseEntity.ok(catalogService.getProductById(id));
+    public ResponseEntity<ResponseProductDTO> getProductById(@PathVariable Long id,
+                                                             @RequestParam(name = "media", defaultValue = "INLINE") MediaMode media,
+                                                             @RequestParam(required = false) String locale) {
+        return ResponseEntity.ok(catalogLocaleProjector.product(catalogService.getProductById(id, media), locale));
+    }
+
+    /**
+     * Products of the given ids in one call, e.g. {@code /products/by-ids?ids=1,2,3}. Like the paged listings it returns
+     * media by reference unless {@code media=INLINE} is asked for.
+     */
+    @GetMapping("/products/by-ids")
+    public List<ResponseProductDTO> getProductsByIds(@RequestParam List<Long> ids,
+                                                     @RequestParam(name = "media", defaultValue = "REFERENCE") MediaMode media,
+                                                     @RequestParam(required = false) String locale) {
+        return catalogLocaleProjector.products(catalogService.getProductsByIds(ids, media), locale);
     }
 
     // === MIXTURES ===
 
     @GetMapping("/all-mixtures")
-    public List<ResponseMixtureDTO> getAllMixtures() {
-        return catalogService.getAllMixtures();
+    public List<ResponseMixtureDTO> getAllMixtures(@RequestParam(required = false) String locale) {
+        return catalogLocaleProjector.mixtures(catalogService.getAllMixtures(), locale);
+    }
+
+    @GetMapping("/all-mixtures/page")
+    public ResponsePageDTO<ResponseMixtureDTO> getMixturesPage(@RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = "50") int size,
+                                                               @RequestParam(required = false) String locale) {
+        return catalogLocaleProjector.page(catalogService.getMixturesPage(cursor, size), locale, catalogLocaleProjector::mixtures);
     }
 
     @GetMapping("/active-mixtures-for-display-in-products")
-    public List<ResponseMixtureDTO> getActiveMixturesForDisplay() {
-        return catalogService.getActiveMixturesForDisplayInProducts();
+    public List<ResponseMixtureDTO> getActiveMixturesForDisplay(@RequestParam(required = false) String locale) {
+        return catalogLocaleProjector.mixtures(catalogService.getActiveMixturesForDisplayInProducts(), locale);
     }
 
     @PostMapping("/mixtures")
@@ -114,49 +209,121 @@ public class CatalogControllerV1 {
     }
 
     @GetMapping("/mixtures/{id}")
-    public ResponseEntity<ResponseMixtureDTO> getMixtureById(@PathVariable Long id) {
-        return ResponseEntity.ok(catalogService.getMixtureById(id));
+    public ResponseEntity<ResponseMixtureDTO> getMixtureById(@PathVariable Long id,
+                                                             @RequestParam(required = false) String locale) {
+        return ResponseEntity.ok(catalogLocaleProjector.mixture(catalogService.getMixtureById(id), locale));
+    }
+
+    @GetMapping("/mixtures/by-ids")
+    public List<ResponseMixtureDTO> getMixturesByIds(@RequestParam List<Long> ids,
+                                                     @RequestParam(required = false) String locale) {
+        return catalogLocaleProjector.mixtures(catalogService.getMixturesByIds(ids), locale);
     }
 
     // === CATEGORIES ===
 
     @GetMapping("/all-categories")
-    public List<ResponseCategoryDTO> getAllCategories() {
-        return catalogService.getAllCategories();
+    public List<ResponseCategoryDTO> getAllCategories(@RequestParam(name = "media", defaultValue = "INLINE") MediaMode media,
+                                                      @RequestParam(required = false) String locale) {
+        return catalogLocaleProjector.categories(catalogService.getAllCategories(media), locale);
+    }
+
+    @GetMapping("/all-categories/page")
+    public ResponsePageDTO<ResponseCategoryDTO> getCategoriesPage(@RequestParam(required = false) String cursor,
+                                                                  @RequestParam(defaultValue = "50") int size,
+                                                                  @RequestParam(name = "media", defaultValue = "REFERENCE") MediaMode media,
+                                                                  @RequestParam(required = false) String locale) {
+        return catalogLocaleProjector.page(catalogService.getCategoriesPage(cursor, size, media), locale, catalogLocaleProjector::categories);
     }
 
     @GetMapping("/active-categories")
-    public List<ResponseCategoryDTO> getActiveCategories() {
-        return catalogService.getActiveCategories();
+    public List<ResponseCategoryDTO> getActiveCategories(@RequestParam(name = "media", defaultValue = "INLINE") MediaMode media,
+                                                         @RequestParam(required = false) String locale) {
+        return catalogLocaleProjector.categories(catalogService.getActiveCategories(media), locale);
     }
 
     @GetMapping("/active-categories-for-mixing")
-    public List<ResponseCategoryDTO> getActiveCategoriesForMixing() {
-        return catalogService.getActiveCategoriesForMixing();
+    public List<ResponseCategoryDTO> getActiveCategoriesForMixing(@RequestParam(name = "media", defaultValue = "INLINE") MediaMode media,
+                                                                  @RequestParam(required = false) String locale) {
+        return catalogLocaleProjector.categories(catalogService.getActiveCategoriesForMixing(media), locale);
     }
 
     @GetMapping("/categories/{id}")
-    public ResponseEntity<ResponseCategoryDTO> getCategoryById(@PathVariable Long id) {
-        return ResponseEntity.ok(catalogService.getCategoryById(id));
+    public ResponseEntity<ResponseCategoryDTO> getCategoryById(@PathVariable Long id,
+                                                               @RequestParam(name = "media", defaultValue = "INLINE") MediaMode media,
+                                                               @RequestParam(required = false) String locale) {
+        return ResponseEntity.ok(catalogLocaleProjector.category(catalogService.getCategoryById(id, media), locale));
     }
 
     // === TAGS ===
 
     @GetMapping("/all-tags")
-    public List<ResponseTagDTO> getAllTags() {
-        return catalogService.getAllTags();
+    public List<ResponseTagDTO> getAllTags(@RequestParam(required = false) String locale) {
+        return catalogLocaleProjector.tags(catalogService.getAllTags(), locale);
+    }
+
+    @GetMapping("/all-tags/page")
+    public ResponsePageDTO<ResponseTagDTO> getTagsPage(@RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "50") int size,
+                                                       @RequestParam(required = false) String locale) {
+        return catalogLocaleProjector.page(catalogService.getTagsPage(cursor, size), locale, catalogLocaleProjector::tags);
     }
 
     @GetMapping("/tags/{id}")
-    public ResponseEntity<ResponseTagDTO> getTagById(@PathVariable Long id) {
-        return ResponseEntity.ok(catalogService.getTagById(id));
+    public ResponseEntity<ResponseTagDTO> getTagById(@PathVariable Long id,
+                                                     @RequestParam(required = false) String locale) {
+        return ResponseEntity.ok(catalogLocaleProjector.tag(catalogService.getTagById(id), locale));
     }
 
     // === SEARCH ===
 
+    /**
+     * Searches products and mixtures. Filters are bound from the query parameters of {@link SearchFilterDTO}, without
+     * a query the matching entities are listed by priority. Pass the returned {@code nextCursor} as {@code cursor}
+     * to fetch the following page.
+     */
     @RateLimit(limit = 100, durationInSeconds = 15)
     @GetMapping("/search")
-    public ResponseSearchResultDTO search(@RequestParam("q") String query) {
-        return elasticsearchService.searchProductsAndMixtures(query);
+    public ResponseSearchResultDTO search(@RequestParam(name = "q", required = false) String query,
+                                          SearchFilterDTO filter,
+                                          @RequestParam(defaultValue = "0") int page,
+                                          @RequestParam(defaultValue = "20") int size,
+                                          @RequestParam(required = false) String cursor) {
+        return elasticsearchService.searchProductsAndMixtures(query, filter, page, size, cursor);
+    }
+
+    /**
+     * Search-as-you-type suggestions, only id, type and display name of active products, mixtures and categories.
+     */
+    @RateLimit(limit = 300, durationInSeconds = 15)
+    @GetMapping("/suggest")
+    public List<ResponseSuggestionDTO> suggest(@RequestParam("q") String prefix,
+                                               @RequestParam String locale,
+                                               @RequestParam(defaultValue = "8") int size) {
+        return elasticsearchService.suggest(prefix, locale, size);
+    }
+
+    // Only a single range is passed on to the storage, multiple ranges are answered with the whole object. A header
+    // that cannot be parsed is ignored as RFC 9110 asks, only a well-formed range outside the object throws.
+    private static String toStorageRange(String rangeHeader, long size) {
+        if (rangeHeader == null) {
+            return null;
+        }
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (ranges.size() != 1) {
+            return null;
+        }
+        HttpRange range = ranges.get(0);
+        long start = range.getRangeStart(size);
+        long end = range.getRangeEnd(size);
+        if (start > end) {
+            throw new IllegalArgumentException("Range " + rangeHeader + " is outside of " + size + " bytes");
+        }
+        return "bytes=" + start + "-" + end;
     }
 }
@@ -1,10 +1,19 @@
 package com.dvoracekmartin.catalogservice;
 
 import com.dvoracekmartin.catalogservice.application.dto.category.CreateCategoryDTO;
+import com.dvoracekmartin.catalogservice.application.dto.importing.CatalogImportType;
+import com.dvoracekmartin.catalogservice.application.dto.importing.ImportRowStatus;
+import com.dvoracekmartin.catalogservice.application.dto.importing.ResponseImportResultDTO;
+import com.dvoracekmartin.catalogservice.application.dto.importing.ResponseImportRowDTO;
+import com.dvoracekmartin.catalogservice.application.dto.listing.ResponsePageDTO;
 import com.dvoracekmartin.catalogservice.application.dto.product.UpdateProductStockDTO;
+import com.dvoracekmartin.catalogservice.application.dto.search.ResponseSearchFacetsDTO;
 import com.dvoracekmartin.catalogservice.application.dto.search.ResponseSearchResultDTO;
+import com.dvoracekmartin.catalogservice.application.elasticsearch.service.ElasticsearchReindexService;
 import com.dvoracekmartin.catalogservice.application.elasticsearch.service.ElasticsearchServiceImpl;
 import com.dvoracekmartin.catalogservice.application.service.CatalogService;
+import com.dvoracekmartin.catalogservice.application.service.importing.CatalogImportService;
+import com.dvoracekmartin.catalogservice.application.service.media.MediaMode;
 import com.dvoracekmartin.catalogservice.web.controller.v1.CatalogAdminControllerV1;
 import com.dvoracekmartin.common.dto.category.ResponseCategoryDTO;
 import com.dvoracekmartin.common.dto.media.MediaDTO;
@@ -15,25 +24,33 @@ import com.dvoracekmartin.common.event.ResponseProductStockEvent;
 import com.dvoracekmartin.common.event.translation.LocalizedField;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
 
 import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.*;
 
 class CatalogAdminControllerV1Test {
 
     private CatalogService catalogService;
     private ElasticsearchServiceImpl elasticsearchService;
+    private ElasticsearchReindexService elasticsearchReindexService;
+    private CatalogImportService catalogImportService;
     private CatalogAdminControllerV1 controller;
 
     @BeforeEach
     void setUp() {
         catalogService = mock(CatalogService.class);
         elasticsearchService = mock(ElasticsearchServiceImpl.class);
-        controller = new CatalogAdminControllerV1(catalogService, elasticsearchService);
+        elasticsearchReindexService = mock(ElasticsearchReindexService.class);
+        catalogImportService = mock(CatalogImportService.class);
+        controller = new CatalogAdminControllerV1(catalogService, elasticsearchService, elasticsearchReindexService,
+                catalogImportService);
     }
 
     private MediaDTO dummyMedia() {
@@ -69,10 +86,19 @@ class CatalogAdminControllerV1Test {
 
     @Test
     void testGetAllProducts() {
-        when(catalogService.getAllProducts()).thenReturn(List.of(dummyProduct()));
+        when(catalogService.getAllProducts(MediaMode.INLINE)).thenReturn(List.of(dummyProduct()));
         var products = controller.getAllProducts();
         assertEquals(1, products.size());
-        verify(catalogService).getAllProducts();
+        verify(catalogService).getAllProducts(MediaMode.INLINE);
+    }
+
+    @Test
+    void testGetTagsPage() {
+        when(catalogService.getTagsPage(null, 20)).thenReturn(new ResponsePageDTO<>(List.of(dummyTag()), null));
+        var page = controller.getTagsPage(null, 20);
+        assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
+        verify(catalogService).getTagsPage(null, 20);
     }
 
     @Test
@@ -142,13 +168,32 @@ class CatalogAdminControllerV1Test {
                 List.of(dummyProduct()),
                 List.of(dummyCategory()),
                 List.of(dummyMixture()),
-                List.of(dummyTag())
+                List.of(dummyTag()),
+                4,
+                ResponseSearchFacetsDTO.EMPTY,
+                null
         );
-        when(elasticsearchService.search("query")).thenReturn(result);
+        when(elasticsearchService.search("query", 0, 20)).thenReturn(result);
 
-        ResponseSearchResultDTO response = controller.search("query");
+        ResponseSearchResultDTO response = controller.search("query", 0, 20);
 
         assertEquals(result, response);
-        verify(elasticsearchService).search("query");
+        verify(elasticsearchService).search("query", 0, 20);
+    }
+
+    @Test
+    void testImportCatalog_InvalidRows() throws Exception {
+        MockMultipartFile rows = new MockMultipartFile("rows", "rows.jsonl", "application/x-ndjson",
+                "{\"type\":\"PRODUCT\"}".getBytes());
+        ResponseImportResultDTO result = new ResponseImportResultDTO(false, 0, 0, 1, List.of(
+                new ResponseImportRowDTO(1, CatalogImportType.PRODUCT, null, ImportRowStatus.INVALID,
+                        List.of("price must be a non-negative number"))));
+        when(catalogImportService.importCatalog(any(), isNull())).thenReturn(result);
+
+        ResponseEntity<ResponseImportResultDTO> response = controller.importCatalog(rows, null);
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+        assertEquals(result, response.getBody());
+        verify(catalogImportService).importCatalog(any(), isNull());
     }
 }
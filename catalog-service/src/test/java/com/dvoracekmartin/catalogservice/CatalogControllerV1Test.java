@@ -1,21 +1,35 @@
 package com.dvoracekmartin.catalogservice;
 
+import com.dvoracekmartin.catalogservice.application.dto.listing.ResponsePageDTO;
 import com.dvoracekmartin.catalogservice.application.dto.mixture.CreateMixtureDTO;
 import com.dvoracekmartin.catalogservice.application.elasticsearch.service.ElasticsearchServiceImpl;
+import com.dvoracekmartin.catalogservice.application.service.CatalogLocaleProjector;
 import com.dvoracekmartin.catalogservice.application.service.CatalogService;
+import com.dvoracekmartin.catalogservice.application.service.media.MediaMode;
+import com.dvoracekmartin.catalogservice.application.service.media.MediaObject;
 import com.dvoracekmartin.catalogservice.application.service.media.MediaRetriever;
 import com.dvoracekmartin.catalogservice.web.controller.v1.CatalogControllerV1;
+import com.dvoracekmartin.catalogservice.application.dto.search.ResponseSearchFacetsDTO;
 import com.dvoracekmartin.catalogservice.application.dto.search.ResponseSearchResultDTO;
+import com.dvoracekmartin.catalogservice.application.dto.search.ResponseSuggestionDTO;
+import com.dvoracekmartin.catalogservice.application.dto.search.SearchFilterDTO;
+import com.dvoracekmartin.catalogservice.application.service.readmodel.CatalogSection;
 import com.dvoracekmartin.common.dto.category.ResponseCategoryDTO;
 import com.dvoracekmartin.common.dto.mixture.ResponseMixtureDTO;
 import com.dvoracekmartin.common.dto.product.ResponseProductDTO;
 import com.dvoracekmartin.common.dto.tag.ResponseTagDTO;
 import com.dvoracekmartin.common.dto.media.MediaDTO;
 import com.dvoracekmartin.common.event.translation.LocalizedField;
+import com.dvoracekmartin.common.media.MediaStream;
+import com.dvoracekmartin.common.translation.LocaleProjection;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
@@ -34,7 +48,9 @@ class CatalogControllerV1Test {
         catalogService = mock(CatalogService.class);
         mediaRetriever = mock(MediaRetriever.class);
         elasticsearchService = mock(ElasticsearchServiceImpl.class);
-        controller = new CatalogControllerV1(catalogService, mediaRetriever, elasticsearchService);
+        LocaleProjection localeProjection = new LocaleProjection(() -> "en", Duration.ofMinutes(5), null);
+        controller = new CatalogControllerV1(catalogService, mediaRetriever, elasticsearchService,
+                new CatalogLocaleProjector(localeProjection));
     }
 
     private MediaDTO dummyMedia() {
@@ -103,19 +119,43 @@ class CatalogControllerV1Test {
 
     @Test
     void testGetAllProducts() {
-        when(catalogService.getAllProducts()).thenReturn(List.of(dummyProduct()));
+        when(catalogService.getAllProducts(MediaMode.INLINE)).thenReturn(List.of(dummyProduct()));
 
-        var products = controller.getAllProducts();
+        var products = controller.getAllProducts(MediaMode.INLINE, null);
 
         assertEquals(1, products.size());
-        verify(catalogService).getAllProducts();
+        verify(catalogService).getAllProducts(MediaMode.INLINE);
+    }
+
+    @Test
+    void testGetAllProductsProjectedToLocale() {
+        when(catalogService.getAllProducts(MediaMode.INLINE)).thenReturn(List.of(dummyProduct()));
+
+        var english = controller.getAllProducts(MediaMode.INLINE, "en");
+        var czech = controller.getAllProducts(MediaMode.INLINE, "cs");
+
+        assertEquals(Map.of("en", new LocalizedField("name", "desc", "url")), english.get(0).getLocalizedFields());
+        // not translated to cs, the default locale's text is served under the requested key
+        assertEquals(Map.of("cs", new LocalizedField("name", "desc", "url")), czech.get(0).getLocalizedFields());
+    }
+
+    @Test
+    void testGetProductsPage() {
+        when(catalogService.getProductsPage("1:1", 50, MediaMode.REFERENCE))
+                .thenReturn(new ResponsePageDTO<>(List.of(dummyProduct()), "1:2"));
+
+        var page = controller.getProductsPage("1:1", 50, MediaMode.REFERENCE, null);
+
+        assertEquals(1, page.items().size());
+        assertEquals("1:2", page.nextCursor());
+        verify(catalogService).getProductsPage("1:1", 50, MediaMode.REFERENCE);
     }
 
     @Test
     void testGetAllMixtures() {
         when(catalogService.getAllMixtures()).thenReturn(List.of(dummyMixture()));
 
-        var mixtures = controller.getAllMixtures();
+        var mixtures = controller.getAllMixtures(null);
 
         assertEquals(1, mixtures.size());
         verify(catalogService).getAllMixtures();
@@ -123,19 +163,19 @@ class CatalogControllerV1Test {
 
     @Test
     void testGetAllCategories() {
-        when(catalogService.getAllCategories()).thenReturn(List.of(dummyCategory()));
+        when(catalogService.getAllCategories(MediaMode.INLINE)).thenReturn(List.of(dummyCategory()));
 
-        var categories = controller.getAllCategories();
+        var categories = controller.getAllCategories(MediaMode.INLINE, null);
 
         assertEquals(1, categories.size());
-        verify(catalogService).getAllCategories();
+        verify(catalogService).getAllCategories(MediaMode.INLINE);
     }
 
     @Test
     void testGetAllTags() {
         when(catalogService.getAllTags()).thenReturn(List.of(dummyTag()));
 
-        var tags = controller.getAllTags();
+        var tags = controller.getAllTags(null);
 
         assertEquals(1, tags.size());
         verify(catalogService).getAllTags();
@@ -143,18 +183,60 @@ class CatalogControllerV1Test {
 
     @Test
     void testSearch() {
+        SearchFilterDTO filter = new SearchFilterDTO(List.of(1L), null, 10.0, 50.0, null, null, true);
         ResponseSearchResultDTO searchResult = new ResponseSearchResultDTO(
                 List.of(dummyProduct()),
                 List.of(dummyCategory()),
                 List.of(dummyMixture()),
-                List.of(dummyTag())
+                List.of(dummyTag()),
+                4,
+                ResponseSearchFacetsDTO.EMPTY,
+                null
         );
-        when(elasticsearchService.searchProductsAndMixtures("query")).thenReturn(searchResult);
+        when(elasticsearchService.searchProductsAndMixtures("query", filter, 0, 20, null)).thenReturn(searchResult);
 
-        var result = controller.search("query");
+        var result = controller.search("query", filter, 0, 20, null);
 
         assertEquals(searchResult, result);
-        verify(elasticsearchService).searchProductsAndMixtures("query");
+        verify(elasticsearchService).searchProductsAndMixtures("query", filter, 0, 20, null);
+    }
+
+    @Test
+    void testSuggest() {
+        List<ResponseSuggestionDTO> suggestions = List.of(new ResponseSuggestionDTO(1L, CatalogSection.PRODUCTS, "name"));
+        when(elasticsearchService.suggest("na", "en", 8)).thenReturn(suggestions);
+
+        var result = controller.suggest("na", "en", 8);
+
+        assertEquals(suggestions, result);
+        verify(elasticsearchService).suggest("na", "en", 8);
+    }
+
+    @Test
+    void testGetMediaIgnoresMalformedRange() {
+        when(mediaRetriever.getMediaMetadata("key.jpg", "products"))
+                .thenReturn(new MediaObject("key.jpg", "image/jpeg", 10, "etag"));
+        when(mediaRetriever.openMedia("key.jpg", "products", null))
+                .thenReturn(new MediaStream(new ByteArrayInputStream(new byte[10]), "image/jpeg", 10, null, "etag"));
+
+        var response = controller.getMedia("key.jpg", "products", "bytes=abc",
+                new ServletWebRequest(new MockHttpServletRequest()));
+
+        assertEquals(200, response.getStatusCode().value());
+        verify(mediaRetriever).openMedia("key.jpg", "products", null);
+    }
+
+    @Test
+    void testGetMediaRejectsUnsatisfiableRange() {
+        when(mediaRetriever.getMediaMetadata("key.jpg", "products"))
+                .thenReturn(new MediaObject("key.jpg", "image/jpeg", 10, "etag"));
+
+        var response = controller.getMedia("key.jpg", "products", "bytes=20-30",
+                new ServletWebRequest(new MockHttpServletRequest()));
+
+        assertEquals(416, response.getStatusCode().value());
+        assertEquals("bytes */10", response.getHeaders().getFirst("Content-Range"));
+        verify(mediaRetriever, never()).openMedia(any(), any(), any());
     }
 
     @Test
@@ -0,0 +1,156 @@
+package com.dvoracekmartin.catalogservice;
+
+import com.dvoracekmartin.catalogservice.domain.model.Category;
+import com.dvoracekmartin.catalogservice.domain.model.Mixture;
+import com.dvoracekmartin.catalogservice.domain.model.Product;
+import com.dvoracekmartin.catalogservice.domain.model.Tag;
+import com.dvoracekmartin.catalogservice.domain.repository.CategoryRepository;
+import com.dvoracekmartin.catalogservice.domain.repository.MixtureRepository;
+import com.dvoracekmartin.catalogservice.domain.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Listing queries must load their associations in a number of statements that does not grow with the rows.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+class CatalogRepositoryFetchPlanTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private MixtureRepository mixtureRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Statistics statistics;
+    private final List<Category> categories = new ArrayList<>();
+    private final List<Tag> tags = new ArrayList<>();
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int i = 0; i < 3; i++) {
+            Tag tag = new Tag();
+            tag.setPriority(i);
+            tag.setActive(true);
+            tag.setColor("#00000" + i);
+            tags.add(entityManager.persist(tag));
+        }
+        for (int i = 0; i < 2; i++) {
+            Category category = new Category();
+            category.setPriority(i);
+            category.setActive(true);
+            category.setTags(new ArrayList<>(tags));
+            categories.add(entityManager.persist(category));
+        }
+    }
+
+    @Test
+    void productListingStatementsDoNotGrowWithRows() {
+        seedProducts(5);
+        long fewRows = statementsOf(() -> productRepository.findAll().forEach(CatalogRepositoryFetchPlanTest::walk));
+
+        seedProducts(30);
+        long manyRows = statementsOf(() -> productRepository.findAll().forEach(CatalogRepositoryFetchPlanTest::walk));
+
+        assertEquals(fewRows, manyRows);
+        assertTrue(manyRows < 35, "listing 35 products took " + manyRows + " statements");
+    }
+
+    @Test
+    void mixtureListingStatementsDoNotGrowWithRows() {
+        seedProducts(10);
+        seedMixtures(5);
+        long fewRows = statementsOf(() -> mixtureRepository.findAll().forEach(CatalogRepositoryFetchPlanTest::walk));
+
+        seedMixtures(30);
+        long manyRows = statementsOf(() -> mixtureRepository.findAll().forEach(CatalogRepositoryFetchPlanTest::walk));
+
+        assertEquals(fewRows, manyRows);
+    }
+
+    @Test
+    void categoryListingLoadsTagsWithinTheQuery() {
+        long statements = statementsOf(() -> categoryRepository.findAll()
+                .forEach(category -> category.getTags().forEach(Tag::getId)));
+
+        assertEquals(1, statements);
+    }
+
+    private long statementsOf(Runnable listing) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        listing.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    // touches what CatalogResponseAssembler reads for a product
+    private static void walk(Product product) {
+        product.getCategory().getId();
+        product.getTags().forEach(tag -> {
+            tag.getCategories().size();
+            tag.getProducts().size();
+            tag.getMixtures().size();
+        });
+    }
+
+    // touches what CatalogResponseAssembler reads for a mixture
+    private static void walk(Mixture mixture) {
+        mixture.getCategory().getId();
+        mixture.getTags().forEach(Tag::getId);
+        mixture.getProducts().forEach(product -> {
+            product.getCategory().getId();
+            product.getTags().forEach(Tag::getId);
+        });
+    }
+
+    private void seedProducts(int count) {
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setPriority(products.size());
+            product.setActive(true);
+            product.setPrice(10.0);
+            product.setCategory(categories.get(i % categories.size()));
+            product.setTags(new ArrayList<>(tags.subList(0, 1 + i % tags.size())));
+            products.add(entityManager.persist(product));
+        }
+    }
+
+    private void seedMixtures(int count) {
+        for (int i = 0; i < count; i++) {
+            Mixture mixture = new Mixture();
+            mixture.setPriority(i);
+            mixture.setActive(true);
+            mixture.setName("Mixture " + i);
+            mixture.setPrice(20.0);
+            mixture.setCategory(categories.get(i % categories.size()));
+            mixture.setTags(new ArrayList<>(tags.subList(0, 1 + i % tags.size())));
+            mixture.setProducts(new ArrayList<>(products.subList(0, 1 + i % products.size())));
+            entityManager.persist(mixture);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.dvoracekmartin.catalogservice;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.CompletionSuggester;
+import co.elastic.clients.elasticsearch.core.search.Suggestion;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.ElasticsearchTransport;
+import com.dvoracekmartin.catalogservice.application.dto.search.ResponseSuggestionDTO;
+import com.dvoracekmartin.catalogservice.application.elasticsearch.document.ProductDocument;
+import com.dvoracekmartin.catalogservice.application.elasticsearch.service.CatalogSearchEngine;
+import com.dvoracekmartin.catalogservice.application.elasticsearch.utils.ElasticsearchMapperImpl;
+import com.dvoracekmartin.catalogservice.application.service.readmodel.CatalogSection;
+import com.dvoracekmartin.common.dto.product.ResponseProductDTO;
+import com.dvoracekmartin.common.event.translation.LocalizedField;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.suggest.Completion;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CatalogSearchEngineSuggestTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ElasticsearchTransport transport;
+    private CatalogSearchEngine searchEngine;
+
+    @BeforeEach
+    void setUp() {
+        transport = mock(ElasticsearchTransport.class);
+        when(transport.jsonpMapper()).thenReturn(new JacksonJsonpMapper());
+        ElasticsearchClient elasticsearchClient = mock(ElasticsearchClient.class);
+        when(elasticsearchClient._transport()).thenReturn(transport);
+        ElasticsearchOperations elasticsearchOperations = mock(ElasticsearchOperations.class);
+        when(elasticsearchOperations.getIndexCoordinatesFor(any()))
+                .thenAnswer(invocation -> IndexCoordinates.of(
+                        ((Class<?>) invocation.getArgument(0)).getSimpleName().toLowerCase()));
+        searchEngine = new CatalogSearchEngine(elasticsearchClient, elasticsearchOperations, objectMapper,
+                100, 100, Duration.ofSeconds(5), 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void suggestQueriesTheLocaleTheCompletionsAreIndexedWith() {
+        ResponseProductDTO product = new ResponseProductDTO(7L,
+                Map.of("en_US", new LocalizedField("Lavender oil", "desc", "url")),
+                1, true, List.of(), List.of(), 1L, 10.0, 100.0, true, true);
+        ProductDocument document = new ElasticsearchMapperImpl().mapResponseProductDTOToProductDocument(product);
+        Completion completion = document.getSuggest().getFirst();
+        assertEquals(List.of("en_US"), completion.getContexts().get("locale"));
+
+        ObjectNode source = objectMapper.createObjectNode();
+        source.putObject("localized").putObject("en_US").put("name", "Lavender oil");
+        SearchResponse<ObjectNode> response = SearchResponse.of(r -> r
+                .took(1)
+                .timedOut(false)
+                .shards(shards -> shards.total(1).successful(1).failed(0))
+                .hits(hits -> hits.hits(List.of()))
+                .suggest("name", List.of(Suggestion.of(suggestion -> suggestion.completion(c -> c
+                        .text("lav").offset(0).length(3)
+                        .options(option -> option.index("productdocument").id("7").text("Lavender oil")
+                                .source(source)))))));
+        when(transport.performRequestAsync(any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(response));
+
+        List<ResponseSuggestionDTO> suggestions = searchEngine.suggest("Lav", "en_US", 5);
+
+        assertEquals(List.of(new ResponseSuggestionDTO(7L, CatalogSection.PRODUCTS, "Lavender oil")), suggestions);
+        ArgumentCaptor<SearchRequest> request = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(transport).performRequestAsync(request.capture(), any(), any());
+        CompletionSuggester suggester = request.getValue().suggest().suggesters().get("name").completion();
+        assertEquals(completion.getContexts().get("locale").getFirst(),
+                suggester.contexts().get("locale").getFirst().context().category());
+        assertEquals(List.of("localized.en_US.name"), request.getValue().source().filter().includes());
+    }
+}
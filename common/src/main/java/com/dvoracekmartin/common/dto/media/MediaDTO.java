@@ -1,6 +1,17 @@
 package com.dvoracekmartin.common.dto.media;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A single media object. In inline mode {@code base64Data} carries the content itself, in reference mode
+ * it is omitted and the content is fetched separately by {@code objectKey}; {@code size} and {@code contentHash}
+ * let clients cache and revalidate it.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record MediaDTO(
-        String base64Data, String objectKey, String contentType
+        String base64Data, String objectKey, String contentType, Long size, String contentHash
 ) {
+    public MediaDTO(String base64Data, String objectKey, String contentType) {
+        this(base64Data, objectKey, contentType, null, null);
+    }
 }
@@ -0,0 +1,19 @@
+package com.dvoracekmartin.common.event.translation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request for the translations of many entities at once. Each entry is an (objectType, entityId) pair,
+ * so a single call can mix products, tags, categories and mixtures.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TranslationBatchGetEvent {
+    private List<TranslationGetOrDeleteEvent> requests = new ArrayList<>();
+}
@@ -0,0 +1,34 @@
+package com.dvoracekmartin.common.event.translation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Locale maps of many entities, grouped by object type and entity id. Every requested pair is present
+ * in the response, entities without any translation map to an empty map.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TranslationBatchResponseEvent {
+
+    private Map<TranslationObjectsEnum, Map<Long, Map<String, LocalizedField>>> translations = new EnumMap<>(TranslationObjectsEnum.class);
+
+    public Map<String, LocalizedField> get(TranslationObjectsEnum objectType, Long entityId) {
+        Map<Long, Map<String, LocalizedField>> byEntityId = translations.get(objectType);
+        if (byEntityId == null) {
+            return Collections.emptyMap();
+        }
+        return byEntityId.getOrDefault(entityId, Collections.emptyMap());
+    }
+
+    public void put(TranslationObjectsEnum objectType, Long entityId, Map<String, LocalizedField> localizedFields) {
+        translations.computeIfAbsent(objectType, type -> new HashMap<>()).put(entityId, localizedFields);
+    }
+}
@@ -0,0 +1,18 @@
+package com.dvoracekmartin.common.event.translation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Saves the translations of many entities in one call, e.g. after a bulk catalog import.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TranslationBatchSaveEvent {
+    private List<TranslationSaveEvent> requests = new ArrayList<>();
+}
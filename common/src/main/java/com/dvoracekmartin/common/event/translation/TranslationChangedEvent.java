@@ -0,0 +1,20 @@
+package com.dvoracekmartin.common.event.translation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Published by translation-service after the translations of some entities were saved or deleted.
+ * Services caching translations evict the listed entities when they receive it.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TranslationChangedEvent {
+    private TranslationObjectsEnum objectType;
+    private List<Long> entityIds = new ArrayList<>();
+}
@@ -0,0 +1,11 @@
+package com.dvoracekmartin.common.media;
+
+/**
+ * Content of a media object together with the metadata needed to serve it, as held by {@link MediaCache}.
+ *
+ * @param data        content of the object, shared with every reader and therefore never to be modified
+ * @param contentType content type of the object
+ * @param eTag        entity tag of the object as reported by the storage, without quotes
+ */
+public record CachedMedia(byte[] data, String contentType, String eTag) {
+}
@@ -0,0 +1,72 @@
+package com.dvoracekmartin.common.media;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes {@link CachedMedia} to Redis as plain bytes: the lengths and UTF-8 bytes of the content type and entity tag,
+ * then the content. Reading it back needs no Java deserialization, so a tampered entry cannot run code.
+ */
+class CachedMediaRedisSerializer implements RedisSerializer<CachedMedia> {
+
+    private static final int ABSENT = -1;
+
+    @Override
+    public byte[] serialize(CachedMedia media) {
+        if (media == null) {
+            return null;
+        }
+        byte[] contentType = encode(media.contentType());
+        byte[] eTag = encode(media.eTag());
+        ByteBuffer buffer = ByteBuffer.allocate(8 + length(contentType) + length(eTag) + media.data().length);
+        put(buffer, contentType);
+        put(buffer, eTag);
+        buffer.put(media.data());
+        return buffer.array();
+    }
+
+    @Override
+    public CachedMedia deserialize(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            String contentType = get(buffer);
+            String eTag = get(buffer);
+            byte[] data = new byte[buffer.remaining()];
+            buffer.get(data);
+            return new CachedMedia(data, contentType, eTag);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Cannot read cached media", e);
+        }
+    }
+
+    private static byte[] encode(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] value) {
+        return value == null ? 0 : value.length;
+    }
+
+    private static void put(ByteBuffer buffer, byte[] value) {
+        buffer.putInt(value == null ? ABSENT : value.length);
+        if (value != null) {
+            buffer.put(value);
+        }
+    }
+
+    private static String get(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == ABSENT) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        buffer.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
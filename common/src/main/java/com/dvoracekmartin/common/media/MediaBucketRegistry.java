@@ -0,0 +1,86 @@
+package com.dvoracekmartin.common.media;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.BucketAlreadyExistsException;
+import software.amazon.awssdk.services.s3.model.BucketAlreadyOwnedByYouException;
+import software.amazon.awssdk.services.s3.model.HeadBucketRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Provisions the media buckets of a service once at startup and records the buckets known to exist in an immutable
+ * set.
+ * <p>
+ * Read paths assume the buckets exist and never touch bucket metadata. Uploads go through
+ * {@link #requireBucket(String)}, which only reaches the storage for a bucket that could not be provisioned at
+ * startup, e.g. because MinIO was not reachable yet.
+ */
+@Slf4j
+public class MediaBucketRegistry {
+
+    private final S3Client s3Client;
+    private final Set<String> bucketNames;
+
+    private volatile Set<String> provisionedBuckets = Set.of();
+
+    public MediaBucketRegistry(S3Client s3Client, Collection<String> bucketNames) {
+        this.s3Client = s3Client;
+        this.bucketNames = Set.copyOf(bucketNames);
+    }
+
+    @PostConstruct
+    void provisionBuckets() {
+        Set<String> provisioned = new HashSet<>();
+        for (String bucketName : bucketNames) {
+            try {
+                createBucketIfNotExists(bucketName);
+                provisioned.add(bucketName);
+            } catch (SdkException e) {
+                log.warn("Failed to provision bucket '{}', retrying on the first upload: {}", bucketName, e.getMessage());
+            }
+        }
+        provisionedBuckets = Set.copyOf(provisioned);
+        log.info("Provisioned media buckets {}", provisionedBuckets);
+    }
+
+    public boolean isProvisioned(String bucketName) {
+        return provisionedBuckets.contains(bucketName);
+    }
+
+    /**
+     * Makes sure the bucket exists before writing into it.
+     */
+    public void requireBucket(String bucketName) {
+        if (isProvisioned(bucketName)) {
+            return;
+        }
+        synchronized (this) {
+            if (!isProvisioned(bucketName)) {
+                createBucketIfNotExists(bucketName);
+                Set<String> provisioned = new HashSet<>(provisionedBuckets);
+                provisioned.add(bucketName);
+                provisionedBuckets = Set.copyOf(provisioned);
+            }
+        }
+    }
+
+    private void createBucketIfNotExists(String bucketName) {
+        try {
+            s3Client.headBucket(HeadBucketRequest.builder().bucket(bucketName).build());
+            log.info("Bucket '{}' already exists", bucketName);
+        } catch (NoSuchBucketException e) {
+            try {
+                s3Client.createBucket(b -> b.bucket(bucketName));
+                log.info("Created bucket '{}'", bucketName);
+            } catch (BucketAlreadyExistsException | BucketAlreadyOwnedByYouException e2) {
+                log.info("Bucket '{}' already exists (race condition)", bucketName);
+            }
+        }
+    }
+}
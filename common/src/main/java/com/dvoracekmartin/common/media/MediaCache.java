@@ -0,0 +1,204 @@
+package com.dvoracekmartin.common.media;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier cache of media content and folder listings.
+ * <p>
+ * The first tier is an in-process Caffeine cache bounded by the total size of the cached content and evicting with
+ * W-TinyLFU. The second tier is Redis, shared by all replicas. Objects larger than the entry limit are never cached,
+ * they are streamed from the storage on every request. Evictions remove the entry from Redis and are broadcast over
+ * Redis pub/sub, so every replica drops its local copy.
+ * <p>
+ * Shared by the services serving media from MinIO, each registers it with its own limits. Redis entries are written
+ * by {@link CachedMediaRedisSerializer} as plain bytes.
+ */
+@Slf4j
+public class MediaCache implements MessageListener {
+
+    public static final String EVICTION_CHANNEL = "media-cache:evictions";
+    private static final String CONTENT_KEY_PREFIX = "media-cache:content:";
+    private static final String CONTENT = "content";
+    private static final String FOLDER = "folder";
+    private static final String SEPARATOR = "|";
+
+    private final RedisTemplate<String, CachedMedia> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Cache<String, CachedMedia> localContent;
+    private final Cache<String, List<String>> localFolders;
+    private final long maxEntryBytes;
+    private final Duration remoteTimeToLive;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+
+    public MediaCache(RedisConnectionFactory redisConnectionFactory,
+                      StringRedisTemplate stringRedisTemplate,
+                      MeterRegistry meterRegistry,
+                      long localMaxBytes,
+                      long localFoldersMaxBytes,
+                      long maxEntryBytes,
+                      Duration remoteTimeToLive) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.maxEntryBytes = maxEntryBytes;
+        this.remoteTimeToLive = remoteTimeToLive;
+
+        this.redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(redisConnectionFactory);
+        redisTemplate.setKeySerializer(RedisSerializer.string());
+        redisTemplate.setValueSerializer(new CachedMediaRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+
+        this.localContent = Caffeine.newBuilder()
+                .maximumWeight(localMaxBytes)
+                .weigher((String key, CachedMedia media) -> key.length() + media.data().length)
+                .recordStats()
+                .build();
+        this.localFolders = Caffeine.newBuilder()
+                .maximumWeight(localFoldersMaxBytes)
+                .weigher((String key, List<String> objectKeys) -> key.length() + objectKeys.stream()
+                        .mapToInt(objectKey -> objectKey.length() + 16)
+                        .sum())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, localContent, "mediaContent");
+        CaffeineCacheMetrics.monitor(meterRegistry, localFolders, "folderContents");
+        Gauge.builder("media.cache.local.size", localContent, MediaCache::weightedSize)
+                .description("Bytes of media content held by the local cache tier")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("media.cache.local.hit.ratio", localContent, cache -> cache.stats().hitRate())
+                .description("Hit ratio of the local media cache tier")
+                .register(meterRegistry);
+        this.remoteHits = Counter.builder("media.cache.remote.requests").tag("result", "hit")
+                .description("Lookups of media content in the Redis cache tier")
+                .register(meterRegistry);
+        this.remoteMisses = Counter.builder("media.cache.remote.requests").tag("result", "miss")
+                .description("Lookups of media content in the Redis cache tier")
+                .register(meterRegistry);
+    }
+
+    public boolean isCacheable(long size) {
+        return size >= 0 && size <= maxEntryBytes;
+    }
+
+    /**
+     * Cached content of the object, looked up in the local tier first and then in Redis.
+     *
+     * @return The cached content, or null when neither tier holds it.
+     */
+    public CachedMedia getContent(String bucketName, String objectKey) {
+        String key = contentKey(bucketName, objectKey);
+        CachedMedia media = localContent.getIfPresent(key);
+        if (media != null) {
+            return media;
+        }
+        try {
+            media = redisTemplate.opsForValue().get(CONTENT_KEY_PREFIX + key);
+        } catch (DataAccessException e) {
+            log.warn("Failed to read media '{}' from Redis: {}", key, e.getMessage());
+            return null;
+        }
+        if (media == null) {
+            remoteMisses.increment();
+            return null;
+        }
+        remoteHits.increment();
+        localContent.put(key, media);
+        return media;
+    }
+
+    public void putContent(String bucketName, String objectKey, CachedMedia media) {
+        if (!isCacheable(media.data().length)) {
+            return;
+        }
+        String key = contentKey(bucketName, objectKey);
+        localContent.put(key, media);
+        try {
+            redisTemplate.opsForValue().set(CONTENT_KEY_PREFIX + key, media, remoteTimeToLive);
+        } catch (DataAccessException e) {
+            log.warn("Failed to write media '{}' to Redis: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Cached listing of the folder, loaded by the given supplier on a miss. Listings are only kept locally.
+     */
+    public List<String> getFolder(String bucketName, String folderName, Supplier<List<String>> loader) {
+        return localFolders.get(folderKey(bucketName, folderName), key -> List.copyOf(loader.get()));
+    }
+
+    public void evictContent(String bucketName, String objectKey) {
+        String key = contentKey(bucketName, objectKey);
+        localContent.invalidate(key);
+        try {
+            redisTemplate.delete(CONTENT_KEY_PREFIX + key);
+        } catch (DataAccessException e) {
+            log.warn("Failed to evict media '{}' from Redis: {}", key, e.getMessage());
+        }
+        broadcast(CONTENT, key);
+    }
+
+    public void evictFolder(String bucketName, String folderName) {
+        String key = folderKey(bucketName, folderName);
+        localFolders.invalidate(key);
+        broadcast(FOLDER, key);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separatorIndex = body.indexOf(SEPARATOR);
+        if (separatorIndex < 0) {
+            log.warn("Ignoring malformed media cache eviction '{}'", body);
+            return;
+        }
+        String key = body.substring(separatorIndex + 1);
+        if (CONTENT.equals(body.substring(0, separatorIndex))) {
+            localContent.invalidate(key);
+        } else {
+            localFolders.invalidate(key);
+        }
+        log.debug("Evicted '{}' from the local media cache", key);
+    }
+
+    private void broadcast(String type, String key) {
+        try {
+            stringRedisTemplate.convertAndSend(EVICTION_CHANNEL, type + SEPARATOR + key);
+        } catch (DataAccessException e) {
+            log.warn("Failed to broadcast eviction of '{}', other replicas keep their copy: {}", key, e.getMessage());
+        }
+    }
+
+    private static String contentKey(String bucketName, String objectKey) {
+        return bucketName + "/" + objectKey;
+    }
+
+    private static String folderKey(String bucketName, String folderName) {
+        return bucketName + "/" + (folderName.endsWith("/") ? folderName : folderName + "/");
+    }
+
+    private static double weightedSize(Cache<String, CachedMedia> cache) {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0))
+                .orElse(0L);
+    }
+}
@@ -0,0 +1,51 @@
+package com.dvoracekmartin.common.media;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * An opened media object whose content is read straight from the storage. The consumer has to either
+ * {@link #writeTo(OutputStream) write it out} or {@link #close() close} it to release the connection.
+ *
+ * @param content       content of the object, or of the requested range
+ * @param contentType   content type of the object
+ * @param contentLength number of bytes in {@code content}
+ * @param contentRange  value of the Content-Range header for a ranged read, null for the whole object
+ * @param eTag          entity tag of the object as reported by the storage, without quotes
+ */
+public record MediaStream(InputStream content, String contentType, long contentLength, String contentRange,
+                          String eTag) implements Closeable {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    public static MediaStream of(CachedMedia media) {
+        return new MediaStream(new ByteArrayInputStream(media.data()), media.contentType(), media.data().length, null,
+                media.eTag());
+    }
+
+    public boolean isPartial() {
+        return contentRange != null;
+    }
+
+    /**
+     * Copies the content to the given output through a fixed size buffer and closes the content afterwards.
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        try (content) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+            outputStream.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        content.close();
+    }
+}
@@ -0,0 +1,112 @@
+package com.dvoracekmartin.common.translation;
+
+import com.dvoracekmartin.common.event.translation.LocalizedField;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Reduces locale maps to the one locale a client renders, falling back to the default locale of the shop.
+ * <p>
+ * A projection is keyed by the requested locale, so clients look it up exactly as in the full map. The default
+ * locale comes from the source (the {@code AppSettings} of configuration-service). Only the very first read waits for
+ * the source; afterwards a stale value triggers a refresh in the background and callers keep getting the last known
+ * default locale. When the source fails the last known default locale stays in use, before the first successful read
+ * the configured fallback locale.
+ */
+@Slf4j
+public class LocaleProjection {
+
+    private final Supplier<String> defaultLocaleSource;
+    private final long refreshIntervalNanos;
+    private final String fallbackLocale;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile String defaultLocale;
+    private volatile long readAt;
+    private volatile boolean read;
+
+    public LocaleProjection(Supplier<String> defaultLocaleSource, Duration refreshInterval, String fallbackLocale) {
+        this.defaultLocaleSource = defaultLocaleSource;
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+        this.fallbackLocale = fallbackLocale == null || fallbackLocale.isBlank() ? null : fallbackLocale;
+    }
+
+    /**
+     * Projection of the locale map to the locale, the full map when no locale is requested.
+     */
+    public Map<String, LocalizedField> project(Map<String, LocalizedField> localizedFields, String locale) {
+        if (locale == null || locale.isBlank()) {
+            return localizedFields;
+        }
+        return project(localizedFields, locale, defaultLocale());
+    }
+
+    /**
+     * Locale key of the default locale, null when neither the source nor the fallback provide one.
+     */
+    public String defaultLocale() {
+        if (!read) {
+            initialize();
+        } else if (System.nanoTime() - readAt > refreshIntervalNanos && refreshing.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("default-locale-refresh").start(() -> {
+                try {
+                    load();
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        }
+        String current = defaultLocale;
+        return current != null ? current : fallbackLocale;
+    }
+
+    private synchronized void initialize() {
+        if (!read) {
+            load();
+        }
+    }
+
+    private void load() {
+        try {
+            String loaded = defaultLocaleSource.get();
+            if (loaded != null && !loaded.isBlank()) {
+                defaultLocale = loaded;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not read the default locale, keeping {}: {}",
+                    defaultLocale != null ? defaultLocale : fallbackLocale, e.getMessage());
+        }
+        // failures are retried after the interval as well, a down source is not asked on every request
+        readAt = System.nanoTime();
+        read = true;
+    }
+
+    /**
+     * Single entry map of the requested locale, holding the default locale's field when the requested one is missing.
+     * Empty when the entity has neither.
+     */
+    public static Map<String, LocalizedField> project(Map<String, LocalizedField> localizedFields, String locale, String defaultLocale) {
+        if (localizedFields == null || localizedFields.isEmpty()) {
+            return Map.of();
+        }
+        LocalizedField field = localizedFields.get(locale);
+        if (field == null && defaultLocale != null) {
+            field = localizedFields.get(defaultLocale);
+        }
+        return field == null ? Map.of() : Map.of(locale, field);
+    }
+
+    /**
+     * Locale key as used in the locale maps, e.g. {@code cs_CZ}, or just the language without a region.
+     */
+    public static String localeKey(String languageCode, String regionCode) {
+        if (languageCode == null || languageCode.isBlank()) {
+            return null;
+        }
+        return regionCode == null || regionCode.isBlank() ? languageCode : languageCode + "_" + regionCode;
+    }
+}
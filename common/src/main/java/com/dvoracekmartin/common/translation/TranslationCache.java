@@ -0,0 +1,165 @@
+package com.dvoracekmartin.common.translation;
+
+import com.dvoracekmartin.common.event.translation.LocalizedField;
+import com.dvoracekmartin.common.event.translation.TranslationBatchResponseEvent;
+import com.dvoracekmartin.common.event.translation.TranslationChangedEvent;
+import com.dvoracekmartin.common.event.translation.TranslationGetOrDeleteEvent;
+import com.dvoracekmartin.common.event.translation.TranslationObjectsEnum;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Client side cache of the locale maps served by translation-service, keyed by (objectType, entityId) and, for
+ * locale-projected maps, the requested locale. Full maps and projections of the same entity are separate entries and
+ * are invalidated together; an index of the cached keys per entity lets an invalidation touch only that entity's
+ * entries.
+ * <p>
+ * The cache is bounded in size and every entry expires after the time to live, which caps how stale an entry
+ * can get when a {@link TranslationChangedEvent} is missed. Cached maps are unmodifiable, they are shared between
+ * all callers.
+ */
+public class TranslationCache {
+
+    private final Cache<TranslationKey, Map<String, LocalizedField>> cache;
+    private final Map<EntityKey, Set<TranslationKey>> keysByEntity = new ConcurrentHashMap<>();
+
+    public TranslationCache(long maximumSize, Duration timeToLive) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .evictionListener((TranslationKey key, Map<String, LocalizedField> value, RemovalCause cause) -> unindex(key))
+                .build();
+    }
+
+    /**
+     * Returns the cached locale map of the entity, calling the loader on a miss.
+     */
+    public Map<String, LocalizedField> get(TranslationObjectsEnum objectType, Long entityId,
+                                           Function<TranslationGetOrDeleteEvent, Map<String, LocalizedField>> loader) {
+        return get(objectType, entityId, null, loader);
+    }
+
+    /**
+     * Returns the cached projection of the entity to the locale, calling the loader on a miss. A null locale caches
+     * the full locale map.
+     */
+    public Map<String, LocalizedField> get(TranslationObjectsEnum objectType, Long entityId, String locale,
+                                           Function<TranslationGetOrDeleteEvent, Map<String, LocalizedField>> loader) {
+        return cache.get(new TranslationKey(objectType, entityId, locale),
+                key -> {
+                    index(key);
+                    return freeze(loader.apply(new TranslationGetOrDeleteEvent(key.objectType(), key.entityId())));
+                });
+    }
+
+    /**
+     * Returns the locale maps of all requested entities. Only the misses are passed to the loader, in one call.
+     */
+    public TranslationBatchResponseEvent getAll(Collection<TranslationGetOrDeleteEvent> requests,
+                                                Function<List<TranslationGetOrDeleteEvent>, TranslationBatchResponseEvent> loader) {
+        return getAll(requests, null, loader);
+    }
+
+    /**
+     * Returns the projections of all requested entities to the locale. Only the misses are passed to the loader, in one
+     * call. A null locale caches the full locale maps. A loaded map whose entity was invalidated while the loader ran
+     * is returned to the caller but not cached.
+     */
+    public TranslationBatchResponseEvent getAll(Collection<TranslationGetOrDeleteEvent> requests, String locale,
+                                                Function<List<TranslationGetOrDeleteEvent>, TranslationBatchResponseEvent> loader) {
+        Set<TranslationKey> keys = new LinkedHashSet<>();
+        requests.forEach(request -> keys.add(new TranslationKey(request.getObjectType(), request.getEntityId(), locale)));
+
+        Map<TranslationKey, Map<String, LocalizedField>> found = new HashMap<>(cache.getAllPresent(keys));
+        List<TranslationKey> missing = keys.stream().filter(key -> !found.containsKey(key)).toList();
+        if (!missing.isEmpty()) {
+            // the loader runs outside of the cache, Caffeine would write its result after an invalidation during the load
+            Map<TranslationKey, Set<TranslationKey>> indexes = new HashMap<>();
+            missing.forEach(key -> indexes.put(key, index(key)));
+            TranslationBatchResponseEvent loaded = loader.apply(missing.stream()
+                    .map(key -> new TranslationGetOrDeleteEvent(key.objectType(), key.entityId()))
+                    .toList());
+            missing.forEach(key -> {
+                Map<String, LocalizedField> localizedFields = freeze(loaded == null ? null : loaded.get(key.objectType(), key.entityId()));
+                found.put(key, localizedFields);
+                store(key, localizedFields, indexes.get(key));
+            });
+        }
+
+        TranslationBatchResponseEvent response = new TranslationBatchResponseEvent();
+        found.forEach((key, localizedFields) -> response.put(key.objectType(), key.entityId(), localizedFields));
+        return response;
+    }
+
+    public void invalidate(TranslationObjectsEnum objectType, Long entityId) {
+        invalidate(objectType, Collections.singleton(entityId));
+    }
+
+    public void invalidate(TranslationChangedEvent event) {
+        if (event.getObjectType() == null || event.getEntityIds() == null) {
+            return;
+        }
+        invalidate(event.getObjectType(), new HashSet<>(event.getEntityIds()));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        keysByEntity.clear();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    // drops the full map and every locale projection of the entities, found through the index instead of a key scan
+    private void invalidate(TranslationObjectsEnum objectType, Set<Long> entityIds) {
+        for (Long entityId : entityIds) {
+            Set<TranslationKey> keys = keysByEntity.remove(new EntityKey(objectType, entityId));
+            if (keys != null) {
+                cache.invalidateAll(keys);
+            }
+        }
+    }
+
+    // Registered before the load. A single key is loaded inside the cache, so an invalidation racing with it finds the
+    // key and waits for the load to finish; the bulk load compares the returned set instead, see store().
+    private Set<TranslationKey> index(TranslationKey key) {
+        return keysByEntity.compute(new EntityKey(key.objectType(), key.entityId()), (entity, keys) -> {
+            Set<TranslationKey> indexed = keys != null ? keys : ConcurrentHashMap.newKeySet();
+            indexed.add(key);
+            return indexed;
+        });
+    }
+
+    // An invalidation removes the entity's index set, so a different set means the entity was invalidated after the
+    // load started. Checked after the put, an invalidation between the check and the put would be missed otherwise.
+    private void store(TranslationKey key, Map<String, LocalizedField> localizedFields, Set<TranslationKey> index) {
+        cache.put(key, localizedFields);
+        if (keysByEntity.get(new EntityKey(key.objectType(), key.entityId())) != index) {
+            cache.asMap().remove(key, localizedFields);
+        }
+    }
+
+    private void unindex(TranslationKey key) {
+        keysByEntity.computeIfPresent(new EntityKey(key.objectType(), key.entityId()), (entity, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private static Map<String, LocalizedField> freeze(Map<String, LocalizedField> localizedFields) {
+        return localizedFields == null ? Collections.emptyMap() : Collections.unmodifiableMap(new HashMap<>(localizedFields));
+    }
+
+    private record TranslationKey(TranslationObjectsEnum objectType, Long entityId, String locale) {
+    }
+
+    private record EntityKey(TranslationObjectsEnum objectType, Long entityId) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.dvoracekmartin.common.translation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+
+import java.time.Duration;
+
+/**
+ * {@link TranslationCache} of the services reading translations from translation-service, kept current by the
+ * {@link TranslationCacheListener}. Services opt in with {@code translation.cache.enabled=true}.
+ */
+@AutoConfiguration(after = TranslationChangedKafkaAutoConfiguration.class)
+@ConditionalOnClass(ConcurrentKafkaListenerContainerFactory.class)
+@ConditionalOnProperty(prefix = "translation.cache", name = "enabled", havingValue = "true")
+public class TranslationCacheAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public TranslationCache translationCache(@Value("${translation.cache.maximum-size:10000}") long maximumSize,
+                                             @Value("${translation.cache.time-to-live:PT10M}") Duration timeToLive) {
+        return new TranslationCache(maximumSize, timeToLive);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public TranslationCacheListener translationCacheListener(TranslationCache translationCache,
+                                                             ApplicationEventPublisher applicationEventPublisher) {
+        return new TranslationCacheListener(translationCache, applicationEventPublisher);
+    }
+}
@@ -0,0 +1,45 @@
+package com.dvoracekmartin.common.translation;
+
+import com.dvoracekmartin.common.event.translation.TranslationChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+
+import java.util.Map;
+
+/**
+ * Evicts the translations changed in translation-service from the local {@link TranslationCache}, then publishes the
+ * {@link TranslationChangedEvent} as an application event, so anything built from the cached translations is
+ * refreshed only after the stale entries are gone.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class TranslationCacheListener implements ConsumerSeekAware {
+
+    private final TranslationCache translationCache;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @KafkaListener(
+            id = "translation-cache",
+            idIsGroup = false,
+            topicPartitions = @org.springframework.kafka.annotation.TopicPartition(
+                    topic = "${global.kafka.topics.translations.translation-changed:translation-changed}",
+                    partitions = "#{@translationChangedPartitions.of('${global.kafka.topics.translations.translation-changed:translation-changed}')}"
+            ),
+            containerFactory = "translationChangedListenerContainerFactory"
+    )
+    public void handleTranslationChanged(TranslationChangedEvent event) {
+        log.debug("Evicting translations of {} {}", event.getObjectType(), event.getEntityIds());
+        translationCache.invalidate(event);
+        applicationEventPublisher.publishEvent(event);
+    }
+
+    // Changes published while the listener was not assigned are lost, so nothing cached before can be trusted
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        translationCache.invalidateAll();
+    }
+}
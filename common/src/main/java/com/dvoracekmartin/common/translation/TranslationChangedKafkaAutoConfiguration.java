@@ -0,0 +1,60 @@
+package com.dvoracekmartin.common.translation;
+
+import com.dvoracekmartin.common.event.translation.TranslationChangedEvent;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kafka consumer setup shared by every listener of the translation change events, see
+ * {@link TranslationChangedPartitions} for how the partitions are assigned.
+ */
+@AutoConfiguration
+@ConditionalOnClass(ConcurrentKafkaListenerContainerFactory.class)
+public class TranslationChangedKafkaAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(name = "translationChangedListenerContainerFactory")
+    public ConcurrentKafkaListenerContainerFactory<String, TranslationChangedEvent> translationChangedListenerContainerFactory(
+            @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers) {
+        ConcurrentKafkaListenerContainerFactory<String, TranslationChangedEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory(bootstrapServers));
+        // records are never acknowledged, so the container never commits an offset
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public TranslationChangedPartitions translationChangedPartitions(
+            @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers) {
+        return new TranslationChangedPartitions(consumerFactory(bootstrapServers));
+    }
+
+    // not a bean, it would replace the consumer factory Spring Boot configures for the other listeners
+    private static ConsumerFactory<String, TranslationChangedEvent> consumerFactory(String bootstrapServers) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        // no group and no commits, only changes made from now on matter
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, TranslationChangedEvent.class.getName());
+        return new DefaultKafkaConsumerFactory<>(props);
+    }
+}
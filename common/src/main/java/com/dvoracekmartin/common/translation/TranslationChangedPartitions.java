@@ -0,0 +1,37 @@
+package com.dvoracekmartin.common.translation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.PartitionInfo;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import java.util.List;
+
+/**
+ * Lists the partitions of the translation change topic for listeners that assign them manually.
+ * <p>
+ * Every replica has to see every change, so the listeners read all partitions without a consumer group and never
+ * commit offsets; nothing is left behind on the broker when a replica goes away. Used from the listener annotations as
+ * {@code #{@translationChangedPartitions.of('topic')}}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class TranslationChangedPartitions {
+
+    private final ConsumerFactory<?, ?> consumerFactory;
+
+    public String[] of(String topic) {
+        try (Consumer<?, ?> consumer = consumerFactory.createConsumer()) {
+            List<PartitionInfo> partitions = consumer.partitionsFor(topic);
+            if (partitions != null && !partitions.isEmpty()) {
+                return partitions.stream().map(partition -> String.valueOf(partition.partition())).toArray(String[]::new);
+            }
+            log.warn("Topic '{}' has no partitions yet, listening on partition 0", topic);
+        } catch (KafkaException e) {
+            log.warn("Could not list the partitions of '{}', listening on partition 0: {}", topic, e.getMessage());
+        }
+        return new String[]{"0"};
+    }
+}
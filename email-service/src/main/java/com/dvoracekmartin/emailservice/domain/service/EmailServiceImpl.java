@@ -7,6 +7,7 @@ import com.dvoracekmartin.common.event.translation.LocalizedField;
 import com.dvoracekmartin.common.event.translation.TranslationGetOrDeleteEvent;
 import com.dvoracekmartin.common.event.translation.TranslationObjectsEnum;
 import com.dvoracekmartin.common.event.translation.TranslationSaveEvent;
+import com.dvoracekmartin.common.translation.TranslationCache;
 import com.dvoracekmartin.emailservice.application.dto.ResponseEmailDTO;
 import com.dvoracekmartin.emailservice.application.dto.ResponseEmailLogDTO;
 import com.dvoracekmartin.emailservice.application.utils.EmailLogMapper;
@@ -38,6 +39,7 @@ public class EmailServiceImpl implements EmailService {
     private final WebClient translationWebClient;
     private final JavaMailSender mailSender;
     private final EmailLogMapper emailLogMapper;
+    private final TranslationCache translationCache;
 
     private static TranslationSaveEvent createRequestForTranslationSave(Long elementId, TranslationObjectsEnum elementType, Map<String, LocalizedField> localizedFieldMap) {
         return new TranslationSaveEvent(
@@ -65,13 +67,14 @@ public class EmailServiceImpl implements EmailService {
     }
 
     private Map<String, LocalizedField> getTranslationMap(TranslationGetOrDeleteEvent translationGetOrDeleteEvent) {
-        return translationWebClient.post()
-                .uri("/get")
-                .bodyValue(translationGetOrDeleteEvent)
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<Map<String, LocalizedField>>() {
-                })
-                .block();
+        return translationCache.get(translationGetOrDeleteEvent.getObjectType(), translationGetOrDeleteEvent.getEntityId(),
+                request -> translationWebClient.post()
+                        .uri("/get")
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToMono(new ParameterizedTypeReference<Map<String, LocalizedField>>() {
+                        })
+                        .block());
     }
 
     private Map<String, LocalizedField> deleteTranslationMap(TranslationGetOrDeleteEvent translationGetOrDeleteEvent) {
@@ -88,6 +91,7 @@ public class EmailServiceImpl implements EmailService {
     public void createOrUpdateEmail(EmailDTO emailDTO) {
         Email email = emailRepository.getEmailByEmailType(emailDTO.getEmailType()).orElseThrow(() -> new RuntimeException("Email not found with email type: " + emailDTO.getEmailType()));
         saveOrUpdateTranslation(createRequestForTranslationSave(email.getId(), TranslationObjectsEnum.EMAIL_TEMPLATE, emailDTO.getLocalizedFields()));
+        translationCache.invalidate(TranslationObjectsEnum.EMAIL_TEMPLATE, email.getId());
     }
 
 
@@ -1,6 +1,7 @@
 package com.dvoracekmartin.orderservice.application.dto;
 
 import com.dvoracekmartin.common.dto.cart.CartItemDTO;
+import com.dvoracekmartin.orderservice.application.utils.InvoiceStatus;
 import com.dvoracekmartin.orderservice.application.utils.OrderStatus;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -23,8 +24,9 @@ public class OrderResponseDTO {
     private LocalDateTime orderDate;
     private String trackingNumber;
     private int orderYearOrderCounter;
+    private InvoiceStatus invoiceStatus;
 
-    public OrderResponseDTO(Long id, String customerId, List<CartItemDTO> items, Double shippingCost, Double cartTotal, Double finalTotal, OrderStatus status, String shippingMethod, String paymentMethod, LocalDateTime orderDate, String trackingNumber, int orderYearOrderCounter) {
+    public OrderResponseDTO(Long id, String customerId, List<CartItemDTO> items, Double shippingCost, Double cartTotal, Double finalTotal, OrderStatus status, String shippingMethod, String paymentMethod, LocalDateTime orderDate, String trackingNumber, int orderYearOrderCounter, InvoiceStatus invoiceStatus) {
         this.id = id;
         this.customerId = customerId;
         this.items = items;
@@ -37,5 +39,6 @@ public class OrderResponseDTO {
         this.orderDate = orderDate;
         this.trackingNumber = trackingNumber;
         this.orderYearOrderCounter = orderYearOrderCounter;
+        this.invoiceStatus = invoiceStatus;
     }
 }
@@ -0,0 +1,7 @@
+package com.dvoracekmartin.orderservice.application.event;
+
+/**
+ * Published in the transaction that creates the order, its invoice is generated once that transaction commits.
+ */
+public record OrderCreatedEvent(Long orderId) {
+}
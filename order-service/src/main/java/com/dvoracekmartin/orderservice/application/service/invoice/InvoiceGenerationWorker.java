@@ -0,0 +1,150 @@
+package com.dvoracekmartin.orderservice.application.service.invoice;
+
+import com.dvoracekmartin.orderservice.application.event.OrderCreatedEvent;
+import com.dvoracekmartin.orderservice.application.service.media.MediaUploader;
+import com.dvoracekmartin.orderservice.application.service.pdf.PdfGenerationService;
+import com.dvoracekmartin.orderservice.application.utils.BucketName;
+import com.dvoracekmartin.orderservice.application.utils.InvoiceStatus;
+import com.dvoracekmartin.orderservice.domain.model.Order;
+import com.dvoracekmartin.orderservice.domain.model.OrderNumber;
+import com.dvoracekmartin.orderservice.domain.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Renders and uploads the invoices of new orders in the background, so checkout only waits for the order insert.
+ * <p>
+ * The order row is the durable record of the work: it is created with a pending invoice, and a worker takes it by
+ * moving its due time to the end of a lease. Every committed {@link OrderCreatedEvent} is handed to the worker pool
+ * right away. The sweeper picks up what the pool did not finish, orders that were queued when the instance stopped,
+ * could not be queued, or whose worker died with the lease held. Failed attempts are retried with an exponential
+ * backoff until the attempts run out, the invoice is then marked failed.
+ */
+@Component
+@Slf4j
+public class InvoiceGenerationWorker {
+
+    private static final String CONTENT_TYPE = "application/pdf";
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OrderRepository orderRepository;
+    private final PdfGenerationService pdfGenerationService;
+    private final MediaUploader mediaUploader;
+    private final TaskExecutor invoiceExecutor;
+
+    @Value("${order.invoice.lease:PT5M}")
+    private Duration lease = Duration.ofMinutes(5);
+    @Value("${order.invoice.max-attempts:8}")
+    private int maxAttempts = 8;
+    @Value("${order.invoice.retry-delay:PT10S}")
+    private Duration retryDelay = Duration.ofSeconds(10);
+    @Value("${order.invoice.max-retry-delay:PT30M}")
+    private Duration maxRetryDelay = Duration.ofMinutes(30);
+    @Value("${order.invoice.sweep-batch-size:100}")
+    private int sweepBatchSize = 100;
+
+    public InvoiceGenerationWorker(OrderRepository orderRepository,
+                                   PdfGenerationService pdfGenerationService,
+                                   MediaUploader mediaUploader,
+                                   @Qualifier("invoiceExecutor") TaskExecutor invoiceExecutor) {
+        this.orderRepository = orderRepository;
+        this.pdfGenerationService = pdfGenerationService;
+        this.mediaUploader = mediaUploader;
+        this.invoiceExecutor = invoiceExecutor;
+    }
+
+    @TransactionalEventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        submit(event.orderId());
+    }
+
+    @Scheduled(fixedDelayString = "${order.invoice.sweep-interval:PT30S}")
+    public void sweep() {
+        List<Long> due;
+        try {
+            due = orderRepository.findIdsByInvoiceStatusDue(InvoiceStatus.PENDING, Instant.now(), PageRequest.of(0, sweepBatchSize));
+        } catch (RuntimeException e) {
+            log.error("Failed to look up pending invoices", e);
+            return;
+        }
+        due.forEach(this::submit);
+    }
+
+    private void submit(Long orderId) {
+        try {
+            invoiceExecutor.execute(() -> generate(orderId));
+        } catch (TaskRejectedException e) {
+            // the order stays pending, the sweeper submits it again
+            log.warn("Invoice queue is full, order {} waits for the next sweep", orderId);
+        }
+    }
+
+    private void generate(Long orderId) {
+        Instant now = Instant.now();
+        // the lease identifies this attempt, millisecond precision survives the round trip through every database
+        Instant leaseUntil = now.plus(lease).truncatedTo(ChronoUnit.MILLIS);
+        if (orderRepository.claimInvoice(orderId, now, leaseUntil) == 0) {
+            return;
+        }
+        Order order = orderRepository.findWithItemsById(orderId).orElse(null);
+        if (order == null) {
+            return;
+        }
+        try {
+            byte[] invoicePdf = pdfGenerationService.generateInvoice(order, order.getInvoiceLocale());
+            String invoiceName = new OrderNumber(order.getOrderDate().getYear(), order.getOrderYearOrderCounter()).invoiceName();
+            String folderPath = order.getCustomerId();
+            String url = mediaUploader.uploadBase64(Base64.getEncoder().encodeToString(invoicePdf), folderPath, invoiceName,
+                    CONTENT_TYPE, BucketName.INVOICES.getName(), folderPath);
+            if (url == null) {
+                throw new IllegalStateException("Upload of invoice " + invoiceName + " failed");
+            }
+            if (orderRepository.updateClaimedInvoice(orderId, leaseUntil, InvoiceStatus.GENERATED, null, null) == 0) {
+                log.warn("Lease on the invoice of order {} ran out, leaving it to the newer attempt", orderId);
+                return;
+            }
+            log.info("Generated invoice {} of order {}", invoiceName, orderId);
+        } catch (RuntimeException e) {
+            failed(order, leaseUntil, e);
+        }
+    }
+
+    private void failed(Order order, Instant leaseUntil, RuntimeException e) {
+        String error = e.getMessage() == null ? e.getClass().getName() : e.getMessage();
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+        // attempts were counted when the invoice was claimed
+        int attempts = order.getInvoiceAttempts() == null ? 0 : order.getInvoiceAttempts();
+        if (attempts >= maxAttempts) {
+            if (orderRepository.updateClaimedInvoice(order.getId(), leaseUntil, InvoiceStatus.FAILED, null, error) == 0) {
+                return;
+            }
+            log.error("Invoice of order {} failed after {} attempts: {}", order.getId(), attempts, error);
+            return;
+        }
+        if (orderRepository.updateClaimedInvoice(order.getId(), leaseUntil, InvoiceStatus.PENDING,
+                Instant.now().plus(backoff(attempts)), error) == 0) {
+            return;
+        }
+        log.warn("Invoice of order {} failed (attempt {}), retrying: {}", order.getId(), attempts, error);
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = retryDelay.multipliedBy(1L << Math.min(Math.max(attempts - 1, 0), 20));
+        return delay.compareTo(maxRetryDelay) > 0 ? maxRetryDelay : delay;
+    }
+}
@@ -1,5 +1,7 @@
 package com.dvoracekmartin.orderservice.application.service.media;
 
+import com.dvoracekmartin.common.media.MediaStream;
+
 import java.util.List;
 
 public interface MediaRetriever {
@@ -12,6 +14,16 @@ public interface MediaRetriever {
      */
     byte[] retrieveMedia(String objectKey, String bucketName);
 
+    /**
+     * Opens media content for streaming without buffering it in memory.
+     *
+     * @param objectKey  The full key of the object to retrieve.
+     * @param bucketName The name of the bucket.
+     * @param range      An HTTP byte range ({@code bytes=first-last}) to read, or null for the whole object.
+     * @return The opened content, which the caller has to write out or close, or null if not found.
+     */
+    MediaStream openMedia(String objectKey, String bucketName, String range);
+
     /**
      * Lists all media keys within a specific folder (prefix).
      *
@@ -22,16 +34,18 @@ public interface MediaRetriever {
     List<String> listMediaKeysInFolder(String folderName, String bucketName);
 
     /**
-     * Evicts cached folder data. (Not implemented in this version).
+     * Evicts cached folder data on all replicas.
      *
+     * @param bucketName The name of the bucket.
      * @param folderName The name of the folder to evict.
      */
-    void evictFolderCache(String folderName);
+    void evictFolderCache(String bucketName, String folderName);
 
     /**
-     * Evicts cached media data. (Not implemented in this version).
+     * Evicts cached media data on all replicas.
      *
-     * @param objectKey The key of the object to evict.
+     * @param bucketName The name of the bucket.
+     * @param objectKey  The key of the object to evict.
      */
-    void evictMediaCache(String objectKey);
+    void evictMediaCache(String bucketName, String objectKey);
 }
@@ -1,14 +1,10 @@
 package com.dvoracekmartin.orderservice.application.service.media;
 
-import jakarta.annotation.PostConstruct;
+import com.dvoracekmartin.common.media.MediaBucketRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
-import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 
@@ -23,50 +19,12 @@ import java.util.regex.Pattern;
 public class MinIOMediaUploader implements MediaUploader {
 
     private final MediaRetriever mediaRetriever;
-    @Value("${minio.endpoint}")
-    private String minioEndpoint;
-    @Value("${minio.access-key}")
-    private String accessKey;
-    @Value("${minio.secret-key}")
-    private String secretKey;
-    private String bucketName;
-    private S3Client s3Client;
-
-    @PostConstruct
-    private void initializeClient() {
-        this.s3Client = S3Client.builder()
-                .endpointOverride(URI.create(minioEndpoint))
-                .region(Region.US_EAST_1)
-                .credentialsProvider(StaticCredentialsProvider.create(
-                        AwsBasicCredentials.create(accessKey, secretKey)))
-                .forcePathStyle(true)
-                .build();
-    }
-
-    @Override
-    public void createBucketIfNotExists(String productBucket) {
-        this.bucketName = productBucket;
-        createBucketIfNotExists();
-    }
-
-    private void createBucketIfNotExists() {
-        try {
-            s3Client.headBucket(HeadBucketRequest.builder().bucket(bucketName).build());
-            log.info("Bucket '{}' already exists", bucketName);
-        } catch (NoSuchBucketException e) {
-            try {
-                s3Client.createBucket(b -> b.bucket(bucketName));
-                log.info("Created bucket '{}'", bucketName);
-            } catch (BucketAlreadyExistsException e2) {
-                log.info("Bucket '{}' already exists (race condition)", bucketName);
-            }
-        }
-    }
+    private final MediaBucketRegistry mediaBucketRegistry;
+    private final S3Client s3Client;
 
     public String uploadBase64(String base64Data, String entityId, String objectKey, String contentType, String bucketName, String folderName) {
-        this.bucketName = bucketName;
-        createBucketIfNotExists();
-        String finalObjectKey = findUniqueObjectName(folderName + "/" + objectKey, ".pdf");
+        mediaBucketRegistry.requireBucket(bucketName);
+        String finalObjectKey = findUniqueObjectName(bucketName, folderName + "/" + objectKey, ".pdf");
 
         try {
             byte[] dataBytes = Base64.getDecoder().decode(base64Data);
@@ -85,7 +43,7 @@ public class MinIOMediaUploader implements MediaUploader {
                     .toExternalForm();
             log.info("Uploaded object to: {}", publicUrl);
 
-            evictRelatedCaches(finalObjectKey);
+            evictRelatedCaches(bucketName, finalObjectKey);
 
             return publicUrl;
 
@@ -116,6 +74,7 @@ public class MinIOMediaUploader implements MediaUploader {
                         .key(objectKey)
                         .build());
                 log.info("Deleted media from bucket '{}' with key '{}'", bucketName, objectKey);
+                evictRelatedCaches(bucketName, objectKey);
             } else {
                 log.error("Could not parse bucket and key from URL path: {}", path);
             }
@@ -126,11 +85,11 @@ public class MinIOMediaUploader implements MediaUploader {
         }
     }
 
-    private void evictRelatedCaches(String finalObjectKey) {
-        mediaRetriever.evictMediaCache(finalObjectKey);
+    private void evictRelatedCaches(String bucketName, String finalObjectKey) {
+        mediaRetriever.evictMediaCache(bucketName, finalObjectKey);
 
         String parentFolder = extractParentFolder(finalObjectKey);
-        mediaRetriever.evictFolderCache(parentFolder);
+        mediaRetriever.evictFolderCache(bucketName, parentFolder);
     }
 
     private String extractParentFolder(String objectKey) {
@@ -140,7 +99,7 @@ public class MinIOMediaUploader implements MediaUploader {
                 "";
     }
 
-    private String findUniqueObjectName(String baseKey, String extension) {
+    private String findUniqueObjectName(String bucketName, String baseKey, String extension) {
         Pattern pattern = Pattern.compile(Pattern.quote(baseKey) + "-(\\d+)" + Pattern.quote(extension) + "$");
         int maxCounter = 0;
 
@@ -164,7 +123,7 @@ public class MinIOMediaUploader implements MediaUploader {
         } while (listResponse.isTruncated());
 
         String nextName = baseKey + (maxCounter > 0 ? "-" + (maxCounter + 1) : "") + extension;
-        if (!doesObjectExist(nextName)) {
+        if (!doesObjectExist(bucketName, nextName)) {
             return nextName;
         }
 
@@ -172,11 +131,11 @@ public class MinIOMediaUploader implements MediaUploader {
         String uniqueName;
         do {
             uniqueName = baseKey + "-" + counter++ + extension;
-        } while (doesObjectExist(uniqueName));
+        } while (doesObjectExist(bucketName, uniqueName));
         return uniqueName;
     }
 
-    private boolean doesObjectExist(String key) {
+    private boolean doesObjectExist(String bucketName, String key) {
         try {
             s3Client.headObject(HeadObjectRequest.builder()
                     .bucket(bucketName)
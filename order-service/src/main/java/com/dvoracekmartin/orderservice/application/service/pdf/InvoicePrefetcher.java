@@ -0,0 +1,175 @@
+package com.dvoracekmartin.orderservice.application.service.pdf;
+
+import com.dvoracekmartin.common.dto.cart.CartItemType;
+import com.dvoracekmartin.common.dto.customer.ResponseCustomerDTO;
+import com.dvoracekmartin.common.dto.mixture.ResponseMixtureDTO;
+import com.dvoracekmartin.common.dto.product.ResponseProductDTO;
+import com.dvoracekmartin.common.event.translation.LocalizedField;
+import com.dvoracekmartin.common.event.translation.TranslationBatchGetEvent;
+import com.dvoracekmartin.common.event.translation.TranslationBatchResponseEvent;
+import com.dvoracekmartin.common.event.translation.TranslationGetOrDeleteEvent;
+import com.dvoracekmartin.common.event.translation.TranslationObjectsEnum;
+import com.dvoracekmartin.common.translation.TranslationCache;
+import com.dvoracekmartin.orderservice.application.service.customer.CustomerClient;
+import com.dvoracekmartin.orderservice.application.service.product.CatalogClient;
+import com.dvoracekmartin.orderservice.domain.model.Order;
+import com.dvoracekmartin.orderservice.domain.model.OrderItem;
+import com.dvoracekmartin.orderservice.domain.model.OrderNumber;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves the data of an invoice up front: the customer, all products and mixtures of the order and their
+ * translations, each with one bulk call. The four calls run in parallel, so an invoice waits for the slowest of them
+ * instead of the sum of a round trip per item.
+ * <p>
+ * The item ids are known from the order, which lets the translations load alongside the catalog calls. The whole
+ * prefetch gets {@code order.invoice.prefetch-timeout}; when any call fails the invoice fails and is retried by the
+ * invoice worker.
+ */
+@Component
+public class InvoicePrefetcher {
+
+    // invoices show no pictures, references keep the base64 content out of the response
+    private static final String MEDIA_REFERENCE = "REFERENCE";
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("invoice-prefetch-", 0).factory());
+    private final CustomerClient customerClient;
+    private final CatalogClient catalogClient;
+    private final WebClient translationWebClient;
+    private final TranslationCache translationCache;
+    private final Duration timeout;
+
+    public InvoicePrefetcher(CustomerClient customerClient,
+                             CatalogClient catalogClient,
+                             WebClient translationWebClient,
+                             TranslationCache translationCache,
+                             @Value("${order.invoice.prefetch-timeout:PT30S}") Duration timeout) {
+        this.customerClient = customerClient;
+        this.catalogClient = catalogClient;
+        this.translationWebClient = translationWebClient;
+        this.translationCache = translationCache;
+        this.timeout = timeout;
+    }
+
+    public InvoiceViewModel prefetch(Order order, String locale) {
+        Set<Long> productIds = new LinkedHashSet<>();
+        Set<Long> mixtureIds = new LinkedHashSet<>();
+        for (OrderItem item : order.getItems()) {
+            if (CartItemType.PRODUCT.name().equals(item.getItemType())) {
+                productIds.add(item.getItemId());
+            } else if (CartItemType.MIXTURE.name().equals(item.getItemType())) {
+                mixtureIds.add(item.getItemId());
+            }
+        }
+        List<TranslationGetOrDeleteEvent> translationRequests = new ArrayList<>();
+        productIds.forEach(id -> translationRequests.add(new TranslationGetOrDeleteEvent(TranslationObjectsEnum.PRODUCT, id)));
+        mixtureIds.forEach(id -> translationRequests.add(new TranslationGetOrDeleteEvent(TranslationObjectsEnum.MIXTURE, id)));
+
+        CompletableFuture<ResponseCustomerDTO> customer = supply(() -> customerClient.getCustomerById(order.getCustomerId()));
+        CompletableFuture<Map<Long, ResponseProductDTO>> products = productIds.isEmpty()
+                ? CompletableFuture.completedFuture(Map.of())
+                : supply(() -> byId(catalogClient.getProductsByIds(productIds, MEDIA_REFERENCE), ResponseProductDTO::getId));
+        CompletableFuture<Map<Long, ResponseMixtureDTO>> mixtures = mixtureIds.isEmpty()
+                ? CompletableFuture.completedFuture(Map.of())
+                : supply(() -> byId(catalogClient.getMixturesByIds(mixtureIds), ResponseMixtureDTO::getId));
+        CompletableFuture<TranslationBatchResponseEvent> translations = translationRequests.isEmpty()
+                ? CompletableFuture.completedFuture(new TranslationBatchResponseEvent())
+                : supply(() -> getTranslations(translationRequests, locale));
+
+        List<CompletableFuture<?>> calls = List.of(customer, products, mixtures, translations);
+        try {
+            CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new))
+                    .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .join();
+        } catch (CompletionException e) {
+            calls.forEach(call -> call.cancel(true));
+            throw new IllegalStateException("Prefetching the invoice of order " + order.getId() + " failed",
+                    e.getCause() != null ? e.getCause() : e);
+        }
+
+        ResponseCustomerDTO responseCustomerDTO = customer.join();
+        List<InvoiceViewModel.Line> lines = order.getItems().stream()
+                .map(item -> line(order, item, products.join(), mixtures.join(), translations.join(), locale))
+                .toList();
+        return new InvoiceViewModel(
+                new OrderNumber(order.getOrderDate().getYear(), order.getOrderYearOrderCounter()).invoiceName(),
+                order.getOrderDate(),
+                responseCustomerDTO.firstName() + " " + responseCustomerDTO.lastName(),
+                responseCustomerDTO.email(),
+                lines,
+                order.getCartTotal(),
+                order.getShippingCost(),
+                order.getFinalTotal(),
+                order.getPaymentMethod(),
+                order.getShippingMethod()
+        );
+    }
+
+    private static InvoiceViewModel.Line line(Order order, OrderItem item, Map<Long, ResponseProductDTO> products,
+                                              Map<Long, ResponseMixtureDTO> mixtures, TranslationBatchResponseEvent translations,
+                                              String locale) {
+        int quantity = item.getQuantity() == null ? 0 : item.getQuantity();
+        if (CartItemType.PRODUCT.name().equals(item.getItemType())) {
+            ResponseProductDTO product = products.get(item.getItemId());
+            if (product == null) {
+                throw new IllegalStateException("Product " + item.getItemId() + " of order " + order.getId() + " not found");
+            }
+            LocalizedField localizedField = translations.get(TranslationObjectsEnum.PRODUCT, product.getId()).get(locale);
+            return new InvoiceViewModel.Line(localizedField == null ? "" : localizedField.getName(), quantity, product.getPrice());
+        }
+        if (CartItemType.MIXTURE.name().equals(item.getItemType())) {
+            ResponseMixtureDTO mixture = mixtures.get(item.getItemId());
+            if (mixture == null) {
+                throw new IllegalStateException("Mixture " + item.getItemId() + " of order " + order.getId() + " not found");
+            }
+            LocalizedField localizedField = translations.get(TranslationObjectsEnum.MIXTURE, mixture.getId()).get(locale);
+            // user-defined mixtures are not translated and keep their own name
+            String name = localizedField == null ? mixture.getName() : localizedField.getName();
+            return new InvoiceViewModel.Line(name, quantity, mixture.getPrice());
+        }
+        return new InvoiceViewModel.Line("", quantity, 0D);
+    }
+
+    // only the invoice locale is fetched, with the default locale's text when an entity is not translated to it
+    private TranslationBatchResponseEvent getTranslations(Collection<TranslationGetOrDeleteEvent> requests, String locale) {
+        return translationCache.getAll(requests, locale, misses -> translationWebClient.post()
+                .uri(uriBuilder -> uriBuilder.path("/get-batch").queryParam("locale", locale).build())
+                .bodyValue(new TranslationBatchGetEvent(misses))
+                .retrieve()
+                .bodyToMono(TranslationBatchResponseEvent.class)
+                .block());
+    }
+
+    private <T> CompletableFuture<T> supply(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, executor);
+    }
+
+    private static <T> Map<Long, T> byId(List<T> dtos, Function<T, Long> id) {
+        return dtos == null ? Map.of() : dtos.stream().collect(Collectors.toMap(id, Function.identity(), (first, second) -> first));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,28 @@
+package com.dvoracekmartin.orderservice.application.service.pdf;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Everything an invoice shows, resolved before rendering starts. Item names are already in the invoice locale.
+ */
+public record InvoiceViewModel(
+        String invoiceName,
+        LocalDateTime orderDate,
+        String customerName,
+        String customerEmail,
+        List<Line> lines,
+        Double cartTotal,
+        Double shippingCost,
+        Double finalTotal,
+        String paymentMethod,
+        String shippingMethod
+) {
+
+    public record Line(String name, int quantity, double unitPrice) {
+
+        public double total() {
+            return unitPrice * quantity;
+        }
+    }
+}
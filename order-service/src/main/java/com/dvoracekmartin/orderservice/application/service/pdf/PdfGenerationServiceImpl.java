@@ -1,67 +1,30 @@
 package com.dvoracekmartin.orderservice.application.service.pdf;
 
-import com.dvoracekmartin.common.dto.cart.CartItemType;
-import com.dvoracekmartin.common.dto.customer.ResponseCustomerDTO;
-import com.dvoracekmartin.common.dto.mixture.ResponseMixtureDTO;
-import com.dvoracekmartin.common.dto.product.ResponseProductDTO;
-import com.dvoracekmartin.common.event.translation.LocalizedField;
-import com.dvoracekmartin.common.event.translation.TranslationGetOrDeleteEvent;
-import com.dvoracekmartin.common.event.translation.TranslationObjectsEnum;
-import com.dvoracekmartin.orderservice.application.service.customer.CustomerClient;
-import com.dvoracekmartin.orderservice.application.service.product.CatalogClient;
 import com.dvoracekmartin.orderservice.domain.model.Order;
-import com.dvoracekmartin.orderservice.domain.model.OrderItem;
 import lombok.RequiredArgsConstructor;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
-import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class PdfGenerationServiceImpl implements PdfGenerationService {
 
-    private final CustomerClient customerClient;
-    private final CatalogClient catalogClient;
-    private final WebClient translationWebClient;
-    private final WebClient catalogWebClient;
+    private final InvoicePrefetcher invoicePrefetcher;
 
-    private static TranslationGetOrDeleteEvent createRequestForTranslationGetOrDelete(Long elementId, TranslationObjectsEnum elementType) {
-        return new TranslationGetOrDeleteEvent(
-                elementType,
-                elementId
-        );
-    }
-    public ResponseMixtureDTO getMixtureById(Long id) {
-        return translationWebClient.get()
-                .uri("/mixtures/{id}", id)
-                .retrieve()
-                .bodyToMono(ResponseMixtureDTO.class)
-                .block();
-    }
-
-
-    private Map<String, LocalizedField> getTranslationMap(TranslationGetOrDeleteEvent translationGetOrDeleteEvent) {
-        return translationWebClient.post()
-                .uri("/get")
-                .bodyValue(translationGetOrDeleteEvent)
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<Map<String, LocalizedField>>() {
-                })
-                .block();
+    public byte[] generateInvoice(Order order, String selectedLocale) {
+        return render(invoicePrefetcher.prefetch(order, selectedLocale));
     }
 
-    public byte[] generateInvoice(Order order, String selectedLocale) {
+    // everything is resolved by the prefetch, rendering makes no remote calls
+    private byte[] render(InvoiceViewModel invoice) {
         try (PDDocument document = new PDDocument();
              ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
 
@@ -78,7 +41,7 @@ public class PdfGenerationServiceImpl implements PdfGenerationService {
                 contentStream.beginText();
                 contentStream.setFont(titleFont, 18);
                 contentStream.newLineAtOffset(100, 750);
-                contentStream.showText("INVOICE" + " #" + String.format("%d%05d", LocalDateTime.now().getYear(), order.getOrderYearOrderCounter()));
+                contentStream.showText("INVOICE" + " #" + invoice.invoiceName());
                 contentStream.endText();
 
                 // Add order details
@@ -92,7 +55,7 @@ public class PdfGenerationServiceImpl implements PdfGenerationService {
                 contentStream.setFont(normalFont, 10);
                 contentStream.newLineAtOffset(100, 680);
                 contentStream.showText("Order Date: " +
-                        order.getOrderDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
+                        invoice.orderDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
                 contentStream.endText();
 
                 // Add customer details
@@ -102,17 +65,13 @@ public class PdfGenerationServiceImpl implements PdfGenerationService {
                 contentStream.showText("Customer Details");
                 contentStream.endText();
 
-                // Get Customer by ID
-                ResponseCustomerDTO responseCustomerDTO = customerClient.getCustomerById(order.getCustomerId());
-
                 contentStream.beginText();
                 contentStream.setFont(normalFont, 10);
                 contentStream.newLineAtOffset(100, 600);
                 contentStream.newLineAtOffset(0, -15);
-                contentStream.showText("Name: " +
-                        responseCustomerDTO.firstName() + " " + responseCustomerDTO.lastName());
+                contentStream.showText("Name: " + invoice.customerName());
                 contentStream.newLineAtOffset(0, -15);
-                contentStream.showText("Email: " + responseCustomerDTO.email());
+                contentStream.showText("Email: " + invoice.customerEmail());
                 contentStream.endText();
 
                 // Add items table header
@@ -130,40 +89,17 @@ public class PdfGenerationServiceImpl implements PdfGenerationService {
 
                 // Add items
                 int yPosition = 500;
-                String itemName = "";
-                Double itemPrice = 0D;
-                for (OrderItem item : order.getItems()) {
-                    if (item.getItemType().equals(CartItemType.PRODUCT.name())) {
-                        ResponseProductDTO responseProductDTO = catalogClient.getProductById(item.getItemId()).getBody();
-                        Map<String, LocalizedField> translationMap = getTranslationMap(createRequestForTranslationGetOrDelete(responseProductDTO.getId(), TranslationObjectsEnum.PRODUCT));
-                        if (translationMap != null) {
-                            itemName = translationMap.get(selectedLocale).getName();
-                        }
-                        itemPrice = responseProductDTO.getPrice();
-                    } else if (item.getItemType().equals(CartItemType.MIXTURE.name())) {
-                        ResponseMixtureDTO responseMixtureDTO = catalogClient.getMixtureById(item.getItemId()).getBody();
-                        Map<String, LocalizedField> translationMap = getTranslationMap(createRequestForTranslationGetOrDelete(responseMixtureDTO.getId(), TranslationObjectsEnum.MIXTURE));
-                        if (translationMap != null) {
-                            LocalizedField localizedField = translationMap.get(selectedLocale);
-                            if (localizedField == null) {
-                                // user-defined mixture
-                                itemName = responseMixtureDTO.getName();
-                            } else {
-                                itemName = localizedField.getName();
-                            }
-                            itemPrice = responseMixtureDTO.getPrice();
-                        }
-                    }
+                for (InvoiceViewModel.Line line : invoice.lines()) {
                     contentStream.beginText();
                     contentStream.setFont(normalFont, 10);
                     contentStream.newLineAtOffset(100, yPosition);
-                    contentStream.showText(truncateText(itemName, 30));
+                    contentStream.showText(truncateText(line.name(), 30));
                     contentStream.newLineAtOffset(200, 0);
-                    contentStream.showText(String.valueOf(item.getQuantity()));
+                    contentStream.showText(String.valueOf(line.quantity()));
                     contentStream.newLineAtOffset(80, 0);
-                    contentStream.showText("$" + String.format("%.2f", itemPrice));
+                    contentStream.showText("$" + String.format("%.2f", line.unitPrice()));
                     contentStream.newLineAtOffset(80, 0);
-                    contentStream.showText("$" + String.format("%.2f", itemPrice * item.getQuantity()));
+                    contentStream.showText("$" + String.format("%.2f", line.total()));
                     contentStream.endText();
                     yPosition -= 15;
                 }
@@ -178,20 +114,20 @@ public class PdfGenerationServiceImpl implements PdfGenerationService {
                 contentStream.beginText();
                 contentStream.setFont(normalFont, 10);
                 contentStream.newLineAtOffset(100, yPosition - 50);
-                contentStream.showText("Subtotal: $" + String.format("%.2f", order.getCartTotal()));
+                contentStream.showText("Subtotal: $" + String.format("%.2f", invoice.cartTotal()));
                 contentStream.newLineAtOffset(0, -15);
-                contentStream.showText("Shipping: $" + String.format("%.2f", order.getShippingCost()));
+                contentStream.showText("Shipping: $" + String.format("%.2f", invoice.shippingCost()));
                 contentStream.newLineAtOffset(0, -15);
-                contentStream.showText("Total: $" + String.format("%.2f", order.getFinalTotal()));
+                contentStream.showText("Total: $" + String.format("%.2f", invoice.finalTotal()));
                 contentStream.endText();
 
                 // Add payment method
                 contentStream.beginText();
                 contentStream.setFont(normalFont, 10);
                 contentStream.newLineAtOffset(100, yPosition - 100);
-                contentStream.showText("Payment Method: " + order.getPaymentMethod());
+                contentStream.showText("Payment Method: " + invoice.paymentMethod());
                 contentStream.newLineAtOffset(0, -15);
-                contentStream.showText("Shipping Method: " + order.getShippingMethod());
+                contentStream.showText("Shipping Method: " + invoice.shippingMethod());
                 contentStream.endText();
             }
 
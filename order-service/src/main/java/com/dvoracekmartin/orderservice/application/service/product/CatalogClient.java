@@ -6,6 +6,10 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.Collection;
+import java.util.List;
 
 @FeignClient(name = "catalog-service", url = "http://localhost:8080/api/catalog/v1")
 public interface CatalogClient {
@@ -14,4 +18,11 @@ public interface CatalogClient {
 
     @GetMapping("/mixtures/{id}")
     ResponseEntity<ResponseMixtureDTO> getMixtureById(@PathVariable("id") Long id);
+
+    // media is REFERENCE or INLINE, invoices only need references
+    @GetMapping("/products/by-ids")
+    List<ResponseProductDTO> getProductsByIds(@RequestParam("ids") Collection<Long> ids, @RequestParam("media") String media);
+
+    @GetMapping("/mixtures/by-ids")
+    List<ResponseMixtureDTO> getMixturesByIds(@RequestParam("ids") Collection<Long> ids);
 }
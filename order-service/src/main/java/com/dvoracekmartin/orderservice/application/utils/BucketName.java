@@ -0,0 +1,14 @@
+package com.dvoracekmartin.orderservice.application.utils;
+
+import lombok.Getter;
+
+@Getter
+public enum BucketName {
+    INVOICES("invoices");
+
+    private final String name;
+
+    BucketName(String name) {
+        this.name = name;
+    }
+}
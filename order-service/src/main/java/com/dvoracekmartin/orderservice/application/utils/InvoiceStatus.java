@@ -0,0 +1,7 @@
+package com.dvoracekmartin.orderservice.application.utils;
+
+public enum InvoiceStatus {
+    PENDING,
+    GENERATED,
+    FAILED
+}
@@ -24,7 +24,8 @@ public interface OrderMapper {
                 order.getPaymentMethod(),
                 order.getOrderDate(),
                 order.getTrackingNumber(),
-                order.getOrderYearOrderCounter());
+                order.getOrderYearOrderCounter(),
+                order.getInvoiceStatus());
     }
 
     default Order mapUpdateOrderToOrder(UpdateOrderDTO updateOrderDTO) {
@@ -1,7 +1,9 @@
 package com.dvoracekmartin.orderservice.application.utils;
 
+import com.dvoracekmartin.common.media.MediaStream;
+
 public record PdfDataWrapper(
-        byte[] data,
+        MediaStream data,
         String filename
 ) {
 }
@@ -0,0 +1,25 @@
+package com.dvoracekmartin.orderservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class InvoiceConfig {
+
+    // Rendering waits on customer-, catalog- and translation-service, the pool bounds how many invoices do so at once.
+    // A full queue rejects, the order then stays pending for the sweeper.
+    @Bean
+    public ThreadPoolTaskExecutor invoiceExecutor(@Value("${order.invoice.workers:4}") int workers,
+                                                  @Value("${order.invoice.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("invoice-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -0,0 +1,64 @@
+package com.dvoracekmartin.orderservice.config;
+
+import com.dvoracekmartin.common.media.MediaBucketRegistry;
+import com.dvoracekmartin.common.media.MediaCache;
+import com.dvoracekmartin.orderservice.application.utils.BucketName;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+
+@Configuration
+public class MediaCacheConfig {
+
+    @Bean
+    public MediaCache mediaCache(RedisConnectionFactory redisConnectionFactory,
+                                 StringRedisTemplate stringRedisTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${media.cache.local.max-bytes:67108864}") long localMaxBytes,
+                                 @Value("${media.cache.local.folders-max-bytes:4194304}") long localFoldersMaxBytes,
+                                 @Value("${media.cache.max-entry-bytes:1048576}") long maxEntryBytes,
+                                 @Value("${media.cache.remote.time-to-live:PT1H}") Duration remoteTimeToLive) {
+        return new MediaCache(redisConnectionFactory, stringRedisTemplate, meterRegistry,
+                localMaxBytes, localFoldersMaxBytes, maxEntryBytes, remoteTimeToLive);
+    }
+
+    @Bean(destroyMethod = "close")
+    public S3Client s3Client(@Value("${minio.endpoint}") String minioEndpoint,
+                             @Value("${minio.access-key}") String accessKey,
+                             @Value("${minio.secret-key}") String secretKey) {
+        return S3Client.builder()
+                .endpointOverride(URI.create(minioEndpoint))
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(accessKey, secretKey)))
+                .forcePathStyle(true)
+                .build();
+    }
+
+    @Bean
+    public MediaBucketRegistry mediaBucketRegistry(S3Client s3Client) {
+        return new MediaBucketRegistry(s3Client, Arrays.stream(BucketName.values()).map(BucketName::getName).toList());
+    }
+
+    @Bean
+    public RedisMessageListenerContainer mediaCacheEvictionListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                             MediaCache mediaCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(mediaCache, new ChannelTopic(MediaCache.EVICTION_CHANNEL));
+        return container;
+    }
+}
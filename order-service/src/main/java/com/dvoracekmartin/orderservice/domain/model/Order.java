@@ -1,5 +1,6 @@
 package com.dvoracekmartin.orderservice.domain.model;
 
+import com.dvoracekmartin.orderservice.application.utils.InvoiceStatus;
 import com.dvoracekmartin.orderservice.application.utils.OrderStatus;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -7,6 +8,7 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -42,9 +44,27 @@ public class Order {
     private String trackingNumber;
     private int orderYearOrderCounter;
 
+    // Invoice generation runs in the background, see InvoiceGenerationWorker. Orders created before have no status
+    // and no attempt count, the columns are added by the schema update without a default, so null counts as 0.
+    // Only the worker changes these after the insert, with targeted updates; saving an order never overwrites them.
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, updatable = false)
+    private InvoiceStatus invoiceStatus;
+    @Column(length = 16, updatable = false)
+    private String invoiceLocale;
+    @Column(updatable = false)
+    private Integer invoiceAttempts;
+    // the next attempt is due at this time, a running attempt holds the order until then
+    @Column(updatable = false)
+    private Instant invoiceAvailableAt;
+    @Column(length = 1000, updatable = false)
+    private String invoiceError;
+
     @PrePersist
     protected void onCreate() {
-        orderDate = LocalDateTime.now();
+        if (orderDate == null) {
+            orderDate = LocalDateTime.now();
+        }
         trackingNumber = "TRK" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
 }
@@ -0,0 +1,11 @@
+package com.dvoracekmartin.orderservice.domain.model;
+
+/**
+ * Order number allocated for one year, the invoice of the order is named after it.
+ */
+public record OrderNumber(int year, int counter) {
+
+    public String invoiceName() {
+        return String.format("%d%05d", year, counter);
+    }
+}
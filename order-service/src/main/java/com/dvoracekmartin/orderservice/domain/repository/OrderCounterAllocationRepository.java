@@ -0,0 +1,81 @@
+package com.dvoracekmartin.orderservice.domain.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+
+/**
+ * Reserves order numbers on the per-year {@code order_counter} row with a single atomic increment, so concurrent
+ * checkouts on any number of replicas never get the same number.
+ * <p>
+ * PostgreSQL runs one {@code INSERT ... ON CONFLICT DO UPDATE ... RETURNING} statement. Other databases (H2) run the
+ * increment and read it back in one transaction, the row lock of the update keeps both atomic. Block allocations
+ * commit on their own, the row is locked only for the increment and not for the rest of the checkout. Single numbers
+ * can be taken in the caller's transaction instead, so they are given back when the checkout rolls back.
+ */
+@Repository
+public class OrderCounterAllocationRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate joiningTransactionTemplate;
+    private final boolean postgres;
+
+    public OrderCounterAllocationRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.joiningTransactionTemplate = new TransactionTemplate(transactionManager);
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        this.postgres = database != null && database.toLowerCase(Locale.ROOT).contains("postgres");
+    }
+
+    /**
+     * Adds {@code count} to the counter of the year, creating the counter at zero first, and returns the new value.
+     * The reserved numbers are {@code result - count + 1} to {@code result}.
+     */
+    public int allocate(int year, int count) {
+        return transactionTemplate.execute(status -> postgres ? upsertReturning(year, count) : incrementAndRead(year, count));
+    }
+
+    /**
+     * Adds one to the counter of the year within the caller's transaction and returns the new value. The counter row
+     * stays locked until that transaction ends, a rollback gives the number back.
+     */
+    public int allocateInCurrentTransaction(int year) {
+        return joiningTransactionTemplate.execute(status -> postgres ? upsertReturning(year, 1) : incrementAndRead(year, 1));
+    }
+
+    private int upsertReturning(int year, int count) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO order_counter (counter_year, order_number_counter) VALUES (?, ?)"
+                        + " ON CONFLICT (counter_year)"
+                        + " DO UPDATE SET order_number_counter = order_counter.order_number_counter + EXCLUDED.order_number_counter"
+                        + " RETURNING order_number_counter",
+                Integer.class, year, count);
+    }
+
+    private int incrementAndRead(int year, int count) {
+        int updated = jdbcTemplate.update(
+                "UPDATE order_counter SET order_number_counter = order_number_counter + ? WHERE counter_year = ?", count, year);
+        if (updated == 0) {
+            try {
+                jdbcTemplate.update("INSERT INTO order_counter (counter_year, order_number_counter) VALUES (?, ?)", year, count);
+                return count;
+            } catch (DuplicateKeyException e) {
+                // another instance created the year's row first, increment that one
+                jdbcTemplate.update(
+                        "UPDATE order_counter SET order_number_counter = order_number_counter + ? WHERE counter_year = ?", count, year);
+            }
+        }
+        return jdbcTemplate.queryForObject(
+                "SELECT order_number_counter FROM order_counter WHERE counter_year = ?", Integer.class, year);
+    }
+}
@@ -1,10 +1,18 @@
 package com.dvoracekmartin.orderservice.domain.repository;
 
+import com.dvoracekmartin.orderservice.application.utils.InvoiceStatus;
 import com.dvoracekmartin.orderservice.application.utils.OrderStatus;
 import com.dvoracekmartin.orderservice.domain.model.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +23,34 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByStatus(OrderStatus status);
 
     Optional<Order> findByIdAndCustomerId(Long id, String customerId);
+
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsById(Long id);
+
+    @Query("SELECT o.id FROM Order o WHERE o.invoiceStatus = :status AND o.invoiceAvailableAt <= :now ORDER BY o.invoiceAvailableAt")
+    List<Long> findIdsByInvoiceStatusDue(@Param("status") InvoiceStatus status, @Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Takes the pending invoice of the order until {@code leaseUntil}. Returns 0 when another worker holds it,
+     * it is not due yet or not pending any more.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Order o SET o.invoiceAvailableAt = :leaseUntil, o.invoiceAttempts = COALESCE(o.invoiceAttempts, 0) + 1"
+            + " WHERE o.id = :id AND o.invoiceStatus = com.dvoracekmartin.orderservice.application.utils.InvoiceStatus.PENDING"
+            + " AND o.invoiceAvailableAt <= :now")
+    int claimInvoice(@Param("id") Long id, @Param("now") Instant now, @Param("leaseUntil") Instant leaseUntil);
+
+    /**
+     * Records the outcome of an attempt that claimed the invoice until {@code leaseUntil}. Returns 0 when the lease
+     * was lost, the invoice was claimed again after it ran out, and leaves the order to the newer attempt.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Order o SET o.invoiceStatus = :status, o.invoiceAvailableAt = :availableAt, o.invoiceError = :error"
+            + " WHERE o.id = :id AND o.invoiceStatus = com.dvoracekmartin.orderservice.application.utils.InvoiceStatus.PENDING"
+            + " AND o.invoiceAvailableAt = :leaseUntil")
+    int updateClaimedInvoice(@Param("id") Long id, @Param("leaseUntil") Instant leaseUntil,
+                             @Param("status") InvoiceStatus status, @Param("availableAt") Instant availableAt,
+                             @Param("error") String error);
 }
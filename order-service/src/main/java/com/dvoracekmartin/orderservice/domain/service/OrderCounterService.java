@@ -1,11 +1,13 @@
 package com.dvoracekmartin.orderservice.domain.service;
 
-public interface OrderCounterService {
-    String generateInvoiceName();
+import com.dvoracekmartin.orderservice.domain.model.OrderNumber;
 
-    String generateInvoiceName(int year, int orderNumberCounter);
+public interface OrderCounterService {
 
-    int getNextOrderNumberCounter();
+    /**
+     * Allocates the next order number of the year, unique across all order-service instances.
+     */
+    OrderNumber nextOrderNumber(int year);
 
-    int getOrderNumberCounter();
+    String generateInvoiceName(int year, int orderNumberCounter);
 }
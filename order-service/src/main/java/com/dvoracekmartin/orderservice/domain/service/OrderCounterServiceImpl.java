@@ -1,53 +1,70 @@
 package com.dvoracekmartin.orderservice.domain.service;
 
-import com.dvoracekmartin.orderservice.domain.model.OrderCounter;
-import com.dvoracekmartin.orderservice.domain.repository.OrderCounterRepository;
-import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
-import lombok.RequiredArgsConstructor;
+import com.dvoracekmartin.orderservice.domain.model.OrderNumber;
+import com.dvoracekmartin.orderservice.domain.repository.OrderCounterAllocationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Hands out order numbers from blocks reserved on the counter row.
+ * <p>
+ * With the default block size of 1 every order takes its number in its own transaction, a rolled-back checkout gives
+ * the number back, so numbers are gapless and follow the order of commits. The counter row stays locked until the
+ * order commits, which serializes the checkouts of a year. A larger {@code order.number.block-size} reserves that
+ * many numbers per round trip in a separate transaction and serves them from memory, which takes the counter row out
+ * of the hot path when several replicas create orders. Numbers then have gaps: they interleave between replicas, a
+ * rolled-back checkout loses its number and the unused rest of a block is skipped when the instance stops.
+ */
 @Service
-@RequiredArgsConstructor
-@Transactional
+@Slf4j
 public class OrderCounterServiceImpl implements OrderCounterService {
-    private final OrderCounterRepository orderCounterRepository;
 
-    @Override
-    public int getNextOrderNumberCounter() {
-        int currentYear = LocalDateTime.now().getYear();
-
-        OrderCounter counter = orderCounterRepository.findByCounterYear(currentYear)
-                .orElseGet(() -> {
-                    OrderCounter newCounter = new OrderCounter();
-                    newCounter.setCounterYear(currentYear);
-                    newCounter.setOrderNumberCounter(0);
-                    return newCounter;
-                });
-
-        int nextCounter = counter.getOrderNumberCounter() + 1;
-        counter.setOrderNumberCounter(nextCounter);
-
-        orderCounterRepository.save(counter);
-        return nextCounter;
+    private final OrderCounterAllocationRepository orderCounterAllocationRepository;
+    private final int blockSize;
+
+    private volatile Block block;
+
+    public OrderCounterServiceImpl(OrderCounterAllocationRepository orderCounterAllocationRepository,
+                                   @Value("${order.number.block-size:1}") int blockSize) {
+        this.orderCounterAllocationRepository = orderCounterAllocationRepository;
+        this.blockSize = Math.max(1, blockSize);
     }
 
     @Override
-    public String generateInvoiceName() {
-        return String.format("%d%05d", LocalDateTime.now().getYear(), getOrderNumberCounter());
+    public OrderNumber nextOrderNumber(int year) {
+        if (blockSize == 1) {
+            return new OrderNumber(year, orderCounterAllocationRepository.allocateInCurrentTransaction(year));
+        }
+        while (true) {
+            Block current = block;
+            if (current != null && current.year() == year) {
+                int counter = current.next().getAndIncrement();
+                if (counter <= current.last()) {
+                    return new OrderNumber(year, counter);
+                }
+            }
+            reserve(current, year);
+        }
     }
 
     @Override
     public String generateInvoiceName(int year, int orderNumberCounter) {
-        return String.format("%d%05d", year, orderNumberCounter);
+        return new OrderNumber(year, orderNumberCounter).invoiceName();
     }
 
-    @Override
-    public int getOrderNumberCounter() {
-        OrderCounter currentOrderCounter = orderCounterRepository.findById(LocalDateTime.now().getYear())
-                .orElseThrow(() -> new EntityNotFoundException("Current year not found"));
-        return currentOrderCounter.getOrderNumberCounter();
+    // one thread reserves the next block, the others wait and take their numbers from it
+    private synchronized void reserve(Block exhausted, int year) {
+        if (block != exhausted) {
+            return;
+        }
+        int last = orderCounterAllocationRepository.allocate(year, blockSize);
+        block = new Block(year, new AtomicInteger(last - blockSize + 1), last);
+        log.debug("Reserved order numbers {} to {} of {}", last - blockSize + 1, last, year);
+    }
+
+    private record Block(int year, AtomicInteger next, int last) {
     }
 }
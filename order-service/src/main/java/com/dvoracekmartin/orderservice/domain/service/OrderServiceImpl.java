@@ -3,19 +3,26 @@ package com.dvoracekmartin.orderservice.domain.service;
 import com.dvoracekmartin.orderservice.application.dto.OrderRequestDTO;
 import com.dvoracekmartin.orderservice.application.dto.OrderResponseDTO;
 import com.dvoracekmartin.orderservice.application.dto.UpdateOrderDTO;
+import com.dvoracekmartin.orderservice.application.event.OrderCreatedEvent;
 import com.dvoracekmartin.orderservice.application.service.media.MediaRetriever;
-import com.dvoracekmartin.orderservice.application.service.media.MediaUploader;
+import com.dvoracekmartin.common.media.MediaStream;
 import com.dvoracekmartin.orderservice.application.service.pdf.PdfGenerationService;
+import com.dvoracekmartin.orderservice.application.utils.BucketName;
+import com.dvoracekmartin.orderservice.application.utils.InvoiceStatus;
 import com.dvoracekmartin.orderservice.application.utils.OrderMapper;
 import com.dvoracekmartin.orderservice.application.utils.OrderStatus;
 import com.dvoracekmartin.orderservice.application.utils.PdfDataWrapper;
 import com.dvoracekmartin.orderservice.domain.model.Order;
 import com.dvoracekmartin.orderservice.domain.model.OrderItem;
+import com.dvoracekmartin.orderservice.domain.model.OrderNumber;
 import com.dvoracekmartin.orderservice.domain.repository.OrderRepository;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Base64;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.Comparator;
 import java.util.List;
 
@@ -25,17 +32,17 @@ public class OrderServiceImpl implements OrderService {
 
     private static final String DELIMITER = "/";
     private static final String PDF_EXTENSION = ".pdf";
-    private static final String INVOICES_BUCKET_NAME = "invoices";
-    public static final String CONTENT_TYPE = "application/pdf";
+    private static final String INVOICES_BUCKET_NAME = BucketName.INVOICES.getName();
 
     private final OrderRepository orderRepository;
     private final MediaRetriever mediaRetriever;
-    private final MediaUploader mediaUploader;
     private final PdfGenerationService pdfGenerationService;
     private final OrderCounterService orderCounterService;
     private final OrderMapper orderMapper;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     @Override
+    @Transactional
     public OrderResponseDTO createOrder(String username, OrderRequestDTO orderRequestDTO) {
         Order order = new Order();
 
@@ -59,15 +66,18 @@ public class OrderServiceImpl implements OrderService {
         order.setShippingMethod(orderRequestDTO.getShippingMethod());
         order.setPaymentMethod(orderRequestDTO.getPaymentMethod());
         order.setStatus(OrderStatus.CREATED);
-        order.setOrderYearOrderCounter(orderCounterService.getNextOrderNumberCounter());
+        // the number is allocated for the year of the order date, the invoice name follows from both
+        order.setOrderDate(LocalDateTime.now());
+        OrderNumber orderNumber = orderCounterService.nextOrderNumber(order.getOrderDate().getYear());
+        order.setOrderYearOrderCounter(orderNumber.counter());
 
-        Order savedOrder = orderRepository.save(order);
-        byte[] invoicePdf = pdfGenerationService.generateInvoice(savedOrder, orderRequestDTO.getSelectedLocale());
-        String base64Invoice = Base64.getEncoder().encodeToString(invoicePdf);
+        // the invoice is rendered and uploaded by InvoiceGenerationWorker once the order is committed
+        order.setInvoiceStatus(InvoiceStatus.PENDING);
+        order.setInvoiceLocale(orderRequestDTO.getSelectedLocale());
+        order.setInvoiceAvailableAt(Instant.now());
 
-        // Create the correct path structure
-        String folderPath = savedOrder.getCustomerId();
-        mediaUploader.uploadBase64(base64Invoice, folderPath, orderCounterService.generateInvoiceName(), CONTENT_TYPE, INVOICES_BUCKET_NAME, folderPath);
+        Order savedOrder = orderRepository.save(order);
+        applicationEventPublisher.publishEvent(new OrderCreatedEvent(savedOrder.getId()));
         return orderMapper.mapOrderToOrderResponseDTO(savedOrder);
     }
 
@@ -96,10 +106,14 @@ public class OrderServiceImpl implements OrderService {
             throw new IllegalArgumentException("id doesn't match with the current user");
         }
         Order order = orderRepository.findByIdAndCustomerId(orderId, customerId).orElseThrow(() -> new IllegalArgumentException("Order not found for customer"));
+        // orders from before the background generation have no status, their invoice was uploaded at checkout
+        if (order.getInvoiceStatus() != null && order.getInvoiceStatus() != InvoiceStatus.GENERATED) {
+            throw new IllegalStateException("Invoice of order " + orderId + " is " + order.getInvoiceStatus().name().toLowerCase());
+        }
 
         // Retrieve the PDF from MediaRetriever
         String invoiceName = orderCounterService.generateInvoiceName(order.getOrderDate().getYear(), order.getOrderYearOrderCounter());
-        byte[] invoiceData = mediaRetriever.retrieveMedia(username + DELIMITER + invoiceName + PDF_EXTENSION, "invoices");
+        MediaStream invoiceData = mediaRetriever.openMedia(username + DELIMITER + invoiceName + PDF_EXTENSION, INVOICES_BUCKET_NAME, null);
 
         if (invoiceData == null) {
             throw new RuntimeException("Invoice file not found");
@@ -117,6 +131,14 @@ public class OrderServiceImpl implements OrderService {
     @Override
     public OrderResponseDTO updateOrder(UpdateOrderDTO updateOrderDTO) {
         Order order = orderMapper.mapUpdateOrderToOrder(updateOrderDTO);
+        // the invoice columns are not updatable, the stored state is copied for the response only
+        orderRepository.findById(updateOrderDTO.getId()).ifPresent(stored -> {
+            order.setInvoiceStatus(stored.getInvoiceStatus());
+            order.setInvoiceLocale(stored.getInvoiceLocale());
+            order.setInvoiceAttempts(stored.getInvoiceAttempts());
+            order.setInvoiceAvailableAt(stored.getInvoiceAvailableAt());
+            order.setInvoiceError(stored.getInvoiceError());
+        });
         return orderMapper.mapOrderToOrderResponseDTO(orderRepository.save(order));
     }
 
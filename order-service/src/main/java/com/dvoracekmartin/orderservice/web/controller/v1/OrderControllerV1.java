@@ -12,6 +12,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -50,7 +51,7 @@ public class OrderControllerV1 {
     }
 
     @GetMapping("/customer/{customerId}/invoice/{orderId}")
-    public ResponseEntity<byte[]> getInvoiceByOrderId(
+    public ResponseEntity<StreamingResponseBody> getInvoiceByOrderId(
             @AuthenticationPrincipal Jwt jwt,
             @PathVariable String customerId,
             @PathVariable Long orderId) {
@@ -60,6 +61,7 @@ public class OrderControllerV1 {
         return ResponseEntity.ok()
                 .header("Content-Disposition", "attachment; filename=\"" + pdfWrapper.filename() + ".pdf\"")
                 .contentType(org.springframework.http.MediaType.APPLICATION_PDF)
-                .body(pdfWrapper.data());
+                .contentLength(pdfWrapper.data().contentLength())
+                .body(pdfWrapper.data()::writeTo);
     }
 }
@@ -28,16 +28,11 @@ public class TranslationEventListener {
         try {
             log.info("Received translation save request with correlationId: {}", request.getCorrelationId());
 
-            switch (request.getObjectType()) {
-                case CATEGORY ->
-                        translationService.createOrUpdateCategoryTranslation(request.getEntityId(), request.getLocalizedFields());
-                case PRODUCT ->
-                        translationService.createOrUpdateProductTranslation(request.getEntityId(), request.getLocalizedFields());
-                default -> {
-                    log.warn("Unknown object type: {}", request.getObjectType());
-                    return; // or handle error appropriately
-                }
+            if (request.getObjectType() == null) {
+                log.warn("Unknown object type: {}", request.getObjectType());
+                return;
             }
+            translationService.createOrUpdateTranslation(request.getObjectType(), request.getEntityId(), request.getLocalizedFields());
 
 //            translationEventPublisher.sendTranslationResponse(
 //                    request.getCorrelationId(),
@@ -57,16 +52,11 @@ public class TranslationEventListener {
         try {
 //            log.info("Received translation request with correlationId: {}", request.getCorrelationId());
             Map<String, LocalizedField> localizedFieldMap;
-            switch (request.getObjectType()) {
-                case CATEGORY ->
-                        localizedFieldMap = translationService.getTranslationsByCategoryId(request.getEntityId());
-//                case PRODUCT ->
-//                        translationService.saveProductTranslation(request.getEntityId(), request.getLocalizedFields());
-                default -> {
-                    log.warn("Unknown object type: {}", request.getObjectType());
-                    return; // or handle error appropriately
-                }
+            if (request.getObjectType() == null) {
+                log.warn("Unknown object type: {}", request.getObjectType());
+                return;
             }
+            localizedFieldMap = translationService.getTranslations(request.getObjectType(), request.getEntityId());
 
 //            translationEventPublisher.sendTranslationResponse(
 ////                    request.getCorrelationId(),
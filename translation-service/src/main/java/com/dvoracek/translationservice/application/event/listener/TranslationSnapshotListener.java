@@ -0,0 +1,47 @@
+package com.dvoracek.translationservice.application.event.listener;
+
+import com.dvoracek.translationservice.domain.service.TranslationSnapshot;
+import com.dvoracekmartin.common.event.translation.TranslationChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+/**
+ * Applies the translation changes committed by other replicas to the local {@link TranslationSnapshot}.
+ * Changes of this replica are applied right after their commit already, reloading them again is harmless. All
+ * partitions are assigned without a consumer group, see {@link com.dvoracekmartin.common.translation.TranslationChangedPartitions}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TranslationSnapshotListener implements ConsumerSeekAware {
+
+    private final TranslationSnapshot translationSnapshot;
+
+    @KafkaListener(
+            id = "translation-snapshot",
+            idIsGroup = false,
+            topicPartitions = @org.springframework.kafka.annotation.TopicPartition(
+                    topic = "${global.kafka.topics.translations.translation-changed:translation-changed}",
+                    partitions = "#{@translationChangedPartitions.of('${global.kafka.topics.translations.translation-changed:translation-changed}')}"
+            ),
+            containerFactory = "translationChangedListenerContainerFactory"
+    )
+    public void handleTranslationChanged(TranslationChangedEvent event) {
+        log.debug("Reloading translations of {} {}", event.getObjectType(), event.getEntityIds());
+        translationSnapshot.reload(event);
+    }
+
+    // Changes published while the listener was not assigned are lost, so the snapshot is rebuilt
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        if (translationSnapshot.isLoaded()) {
+            translationSnapshot.loadAll();
+        }
+    }
+}
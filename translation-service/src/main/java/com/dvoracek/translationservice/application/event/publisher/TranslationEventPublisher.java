@@ -1,12 +1,14 @@
 package com.dvoracek.translationservice.application.event.publisher;
 
 import com.dvoracekmartin.common.event.translation.LocalizedField;
+import com.dvoracekmartin.common.event.translation.TranslationChangedEvent;
 import com.dvoracekmartin.common.event.translation.TranslationResponseEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.Map;
 
@@ -19,6 +21,9 @@ public class TranslationEventPublisher {
 
     @Value("${global.kafka.topics.translations.translation-response}")
     private String translationResponseTopic;
+
+    @Value("${global.kafka.topics.translations.translation-changed:translation-changed}")
+    private String translationChangedTopic;
 //
 //    public void sendTranslationResponse(String correlationId, Long categoryId) {
 //        try {
@@ -53,4 +58,18 @@ public class TranslationEventPublisher {
             log.error("Error sending translation response:", e);
         }
     }
+
+    /**
+     * Tells the services caching translations which entities changed. Sent only after the change is committed,
+     * so a cache reloading on the event never reads the old rows.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void sendTranslationChanged(TranslationChangedEvent event) {
+        try {
+            log.debug("Sending translation change of {} {}", event.getObjectType(), event.getEntityIds());
+            kafkaTemplate.send(translationChangedTopic, event.getObjectType().name(), event);
+        } catch (Exception e) {
+            log.error("Error sending translation change:", e);
+        }
+    }
 }
@@ -24,6 +24,9 @@ public class KafkaProducerConfig {
     @Value("${global.kafka.topics.translations.translation-response}")
     private String translationReplyTopic;
 
+    @Value("${global.kafka.topics.translations.translation-changed:translation-changed}")
+    private String translationChangedTopic;
+
     @Bean
     public Map<String, Object> producerConfigs() {
         Map<String, Object> props = new HashMap<>();
@@ -47,4 +50,9 @@ public class KafkaProducerConfig {
     public NewTopic inventoryResponseTopic() {
         return new NewTopic(translationReplyTopic, 3, (short) 1);
     }
+
+    @Bean
+    public NewTopic translationChangedTopic() {
+        return new NewTopic(translationChangedTopic, 3, (short) 1);
+    }
 }
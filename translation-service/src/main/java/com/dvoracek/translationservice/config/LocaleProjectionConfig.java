@@ -0,0 +1,44 @@
+package com.dvoracek.translationservice.config;
+
+import com.dvoracekmartin.common.translation.LocaleProjection;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+
+@Configuration
+public class LocaleProjectionConfig {
+
+    @Bean
+    public RestClient configurationRestClient(RestClient.Builder builder,
+                                              @Value("${configuration.client.connect-timeout:PT2S}") Duration connectTimeout,
+                                              @Value("${configuration.client.read-timeout:PT5S}") Duration readTimeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeout);
+        requestFactory.setReadTimeout(readTimeout);
+        return builder
+                .baseUrl("http://localhost:8080/api/configuration/v1")
+                .requestFactory(requestFactory)
+                .build();
+    }
+
+    // the default locale of the latest AppSettings, e.g. cs_CZ
+    @Bean
+    public LocaleProjection localeProjection(RestClient configurationRestClient,
+                                             @Value("${translation.default-locale.refresh-interval:PT5M}") Duration refreshInterval,
+                                             @Value("${translation.default-locale.fallback:}") String fallbackLocale) {
+        return new LocaleProjection(() -> {
+            JsonNode defaultLocale = configurationRestClient.get()
+                    .uri("/last")
+                    .retrieve()
+                    .body(JsonNode.class)
+                    .path("defaultLocale");
+            return LocaleProjection.localeKey(defaultLocale.path("languageCode").asText(null),
+                    defaultLocale.path("regionCode").asText(null));
+        }, refreshInterval, fallbackLocale);
+    }
+}
@@ -0,0 +1,27 @@
+package com.dvoracek.translationservice.config;
+
+import com.dvoracek.translationservice.domain.service.TranslationSnapshot;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TranslationSnapshotConfig {
+
+    @Bean
+    public MeterBinder translationSnapshotMetrics(TranslationSnapshot translationSnapshot) {
+        return registry -> {
+            Gauge.builder("translation.snapshot.entities", translationSnapshot, snapshot -> snapshot.footprint().entities())
+                    .description("Entities held in the translation snapshot")
+                    .register(registry);
+            Gauge.builder("translation.snapshot.translations", translationSnapshot, snapshot -> snapshot.footprint().translations())
+                    .description("Locale entries held in the translation snapshot")
+                    .register(registry);
+            Gauge.builder("translation.snapshot.memory", translationSnapshot, snapshot -> snapshot.footprint().estimatedBytes())
+                    .description("Estimated heap used by the translation snapshot")
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package com.dvoracek.translationservice.domain.model;
+
+import com.dvoracekmartin.common.event.translation.TranslationObjectsEnum;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Translated texts of one entity in one locale. All object types share the table, email templates store their
+ * subject as the name and their body as the description.
+ */
+@Entity
+@Table(
+        name = "translation",
+        uniqueConstraints = @UniqueConstraint(name = "uk_translation_object_entity_locale",
+                columnNames = {"object_type", "entity_id", "locale"})
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class Translation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "object_type", nullable = false, length = 32)
+    private TranslationObjectsEnum objectType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "locale", nullable = false, length = 16)
+    private String locale;
+
+    @Column(name = "name", nullable = false, columnDefinition = "TEXT")
+    private String name;
+
+    @Column(name = "description", columnDefinition = "TEXT")
+    private String description;
+
+    @Column(name = "url", columnDefinition = "TEXT")
+    private String url;
+
+    public Translation(TranslationObjectsEnum objectType, Long entityId, String locale, String name, String description, String url) {
+        this.objectType = objectType;
+        this.entityId = entityId;
+        this.locale = locale;
+        this.name = name;
+        this.description = description;
+        this.url = url;
+    }
+}
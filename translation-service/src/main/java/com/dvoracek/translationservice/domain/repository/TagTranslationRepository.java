@@ -1,16 +0,0 @@
-package com.dvoracek.translationservice.domain.repository;
-
-import com.dvoracek.translationservice.domain.model.TagTranslation;
-import org.springframework.data.jpa.repository.JpaRepository;
-
-import java.util.List;
-import java.util.Optional;
-
-public interface TagTranslationRepository extends JpaRepository<TagTranslation, Long> {
-
-    List<TagTranslation> findAllByEntityId(Long entityId);
-
-    void deleteAllByEntityId(Long entityId);
-
-    Optional<TagTranslation> findByEntityIdAndLocale(Long entityId, String locale);
-}
@@ -0,0 +1,27 @@
+package com.dvoracek.translationservice.domain.repository;
+
+import com.dvoracek.translationservice.domain.model.Translation;
+import com.dvoracekmartin.common.event.translation.TranslationObjectsEnum;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TranslationRepository extends JpaRepository<Translation, Long> {
+
+    List<Translation> findAllByObjectTypeAndEntityId(TranslationObjectsEnum objectType, Long entityId);
+
+    /**
+     * All translations of the given entities across the given object types, read from the
+     * {@code (object_type, entity_id, locale)} index in one query. Pairs that were not requested can be part of
+     * the result when entity ids repeat between object types.
+     */
+    List<Translation> findAllByObjectTypeInAndEntityIdIn(Collection<TranslationObjectsEnum> objectTypes, Collection<Long> entityIds);
+
+    @Modifying
+    @Query("delete from Translation t where t.objectType = :objectType and t.entityId = :entityId")
+    int deleteAllByObjectTypeAndEntityId(@Param("objectType") TranslationObjectsEnum objectType, @Param("entityId") Long entityId);
+}
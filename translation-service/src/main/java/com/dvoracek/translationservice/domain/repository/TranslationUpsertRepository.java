@@ -0,0 +1,63 @@
+package com.dvoracek.translationservice.domain.repository;
+
+import com.dvoracekmartin.common.event.translation.TranslationObjectsEnum;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Creates or updates translation rows with one set-based statement per row, sent in JDBC batches.
+ * <p>
+ * Rows are matched on the {@code (object_type, entity_id, locale)} unique constraint of the translation table,
+ * so no row has to be read first. PostgreSQL runs {@code INSERT ... ON CONFLICT DO UPDATE}, H2 the equivalent
+ * {@code MERGE ... KEY}.
+ */
+@Repository
+@Slf4j
+public class TranslationUpsertRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String upsertSql;
+
+    @Value("${translation.upsert.batch-size:500}")
+    private int batchSize = 500;
+
+    public TranslationUpsertRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        boolean postgres = database != null && database.toLowerCase(Locale.ROOT).contains("postgres");
+        this.upsertSql = postgres
+                ? "INSERT INTO translation (object_type, entity_id, locale, name, description, url) VALUES (?, ?, ?, ?, ?, ?)"
+                + " ON CONFLICT (object_type, entity_id, locale)"
+                + " DO UPDATE SET name = EXCLUDED.name, description = EXCLUDED.description, url = EXCLUDED.url"
+                : "MERGE INTO translation (object_type, entity_id, locale, name, description, url)"
+                + " KEY (object_type, entity_id, locale) VALUES (?, ?, ?, ?, ?, ?)";
+    }
+
+    /**
+     * Upserts the rows as translations of the object type.
+     */
+    public void upsert(TranslationObjectsEnum objectType, Collection<TranslationRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(upsertSql, rows, batchSize, (statement, row) -> {
+            statement.setString(1, objectType.name());
+            statement.setLong(2, row.entityId());
+            statement.setString(3, row.locale());
+            statement.setString(4, row.name());
+            statement.setString(5, row.description());
+            statement.setString(6, row.url());
+        });
+        log.debug("Upserted {} {} translations", rows.size(), objectType);
+    }
+
+    public record TranslationRow(Long entityId, String locale, String name, String description, String url) {
+    }
+}
@@ -1,37 +1,40 @@
 package com.dvoracek.translationservice.domain.service;
 
 import com.dvoracekmartin.common.event.translation.LocalizedField;
+import com.dvoracekmartin.common.event.translation.TranslationBatchResponseEvent;
+import com.dvoracekmartin.common.event.translation.TranslationGetOrDeleteEvent;
+import com.dvoracekmartin.common.event.translation.TranslationObjectsEnum;
+import com.dvoracekmartin.common.event.translation.TranslationSaveEvent;
 
+import java.util.Collection;
 import java.util.Map;
 
 public interface TranslationService {
-    void createOrUpdateCategoryTranslation(Long id, Map<String, LocalizedField> localizedFieldMap);
 
-    void createOrUpdateProductTranslation(Long id, Map<String, LocalizedField> localizedFieldMap);
+    void createOrUpdateTranslation(TranslationObjectsEnum objectType, Long entityId, Map<String, LocalizedField> localizedFieldMap);
 
-    Map<String, LocalizedField> getTranslationsByCategoryId(Long id);
+    Map<String, LocalizedField> getTranslations(TranslationObjectsEnum objectType, Long entityId);
 
-    Map<String, LocalizedField> getTranslationsByProductId(Long id);
+    /**
+     * Translations of the entity projected to the locale, with the default locale as fallback. All locales when
+     * {@code locale} is null.
+     */
+    Map<String, LocalizedField> getTranslations(TranslationObjectsEnum objectType, Long entityId, String locale);
 
-    void deleteCategoryTranslation(Long entityId);
+    void deleteTranslations(TranslationObjectsEnum objectType, Long entityId);
 
-    void deleteProductTranslation(Long entityId);
+    /**
+     * Resolves the translations of all requested (objectType, entityId) pairs with one query.
+     */
+    TranslationBatchResponseEvent getTranslations(Collection<TranslationGetOrDeleteEvent> requests);
 
-    void deleteMixtureTranslation(Long entityId);
+    /**
+     * Batch variant of the locale projection, every entity's map holds at most the requested locale.
+     */
+    TranslationBatchResponseEvent getTranslations(Collection<TranslationGetOrDeleteEvent> requests, String locale);
 
-    void deleteTagTranslation(Long entityId);
-
-    void createOrUpdateMixtureTranslation(Long entityId, Map<String, LocalizedField> localizedFields);
-
-    void createOrUpdateTagTranslation(Long entityId, Map<String, LocalizedField> localizedFields);
-
-    Map<String, LocalizedField> getTranslationsByMixtureId(Long entityId);
-
-    Map<String, LocalizedField> getTranslationsByTagId(Long entityId);
-
-    Map<String, LocalizedField> getTranslationsByEmailTemplateId(Long entityId);
-
-    void createOrUpdateEmailTemplateTranslation(Long entityId, Map<String, LocalizedField> localizedFields);
-
-    void deleteEmailTemplateTranslation(Long entityId);
+    /**
+     * Creates or updates the translations of many entities with batched upserts, one batch per object type.
+     */
+    void saveTranslations(Collection<TranslationSaveEvent> requests);
 }
@@ -1,218 +1,149 @@
 package com.dvoracek.translationservice.domain.service;
 
-import com.dvoracek.translationservice.domain.model.*;
-import com.dvoracek.translationservice.domain.repository.*;
+import com.dvoracek.translationservice.domain.model.Translation;
+import com.dvoracek.translationservice.domain.repository.TranslationRepository;
+import com.dvoracek.translationservice.domain.repository.TranslationUpsertRepository;
+import com.dvoracek.translationservice.domain.repository.TranslationUpsertRepository.TranslationRow;
 import com.dvoracekmartin.common.event.translation.LocalizedField;
+import com.dvoracekmartin.common.event.translation.TranslationBatchResponseEvent;
+import com.dvoracekmartin.common.event.translation.TranslationChangedEvent;
+import com.dvoracekmartin.common.event.translation.TranslationGetOrDeleteEvent;
+import com.dvoracekmartin.common.event.translation.TranslationObjectsEnum;
+import com.dvoracekmartin.common.event.translation.TranslationSaveEvent;
+import com.dvoracekmartin.common.translation.LocaleProjection;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 @Transactional
+@Slf4j
 public class TranslationServiceImpl implements TranslationService {
 
-    private final CategoryTranslationRepository categoryTranslationRepository;
-    private final ProductTranslationRepository productTranslationRepository;
-    private final MixtureTranslationRepository mixtureTranslationRepository;
-    private final TagTranslationRepository tagTranslationRepository;
-    private final EmailTemplateTranslationRepository emailTemplateTranslationRepository;
-
-    // ---------------- CATEGORIES ----------------
+    private final TranslationRepository translationRepository;
+    private final TranslationUpsertRepository translationUpsertRepository;
+    private final TranslationSnapshot translationSnapshot;
+    private final LocaleProjection localeProjection;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     @Override
-    public void createOrUpdateCategoryTranslation(Long entityId, Map<String, LocalizedField> localizedFieldMap) {
-        localizedFieldMap.forEach((locale, field) -> {
-            Optional<CategoryTranslation> optionalTranslation =
-                    categoryTranslationRepository.findByEntityIdAndLocale(entityId, locale);
-
-            CategoryTranslation categoryTranslation = optionalTranslation
-                    .map(existing -> {
-                        existing.setName(field.getName());
-                        existing.setDescription(field.getDescription());
-                        existing.setUrl(field.getUrl());
-                        return existing;
-                    })
-                    .orElseGet(() -> new CategoryTranslation(entityId, locale,
-                            field.getName(), field.getDescription(), field.getUrl()));
-
-            categoryTranslationRepository.save(categoryTranslation);
-        });
+    public void createOrUpdateTranslation(TranslationObjectsEnum objectType, Long entityId, Map<String, LocalizedField> localizedFieldMap) {
+        translationUpsertRepository.upsert(objectType, rowsOf(entityId, localizedFieldMap));
+        changed(objectType, List.of(entityId));
     }
 
     @Override
-    public Map<String, LocalizedField> getTranslationsByCategoryId(Long entityId) {
-        List<CategoryTranslation> categoryTranslationList = categoryTranslationRepository.findAllByEntityId(entityId);
+    // no transaction, a snapshot hit must not take a connection from the pool
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<String, LocalizedField> getTranslations(TranslationObjectsEnum objectType, Long entityId) {
+        if (translationSnapshot.isLoaded()) {
+            return translationSnapshot.get(objectType, entityId);
+        }
         Map<String, LocalizedField> localizedFieldMap = new HashMap<>();
-        categoryTranslationList.forEach(categoryTranslation ->
-                localizedFieldMap.put(categoryTranslation.getLocale(),
-                        new LocalizedField(categoryTranslation.getName(),
-                                categoryTranslation.getDescription(),
-                                categoryTranslation.getUrl())));
+        translationRepository.findAllByObjectTypeAndEntityId(objectType, entityId)
+                .forEach(translation -> localizedFieldMap.put(translation.getLocale(), localizedFieldOf(translation)));
         return localizedFieldMap;
     }
 
     @Override
-    public void deleteCategoryTranslation(Long entityId) {
-        categoryTranslationRepository.deleteAllByEntityId(entityId);
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<String, LocalizedField> getTranslations(TranslationObjectsEnum objectType, Long entityId, String locale) {
+        return localeProjection.project(getTranslations(objectType, entityId), locale);
     }
 
-    // ---------------- PRODUCTS ----------------
-
     @Override
-    public void createOrUpdateProductTranslation(Long entityId, Map<String, LocalizedField> localizedFieldMap) {
-        localizedFieldMap.forEach((locale, field) -> {
-            Optional<ProductTranslation> optionalTranslation =
-                    productTranslationRepository.findByEntityIdAndLocale(entityId, locale);
-
-            ProductTranslation productTranslation = optionalTranslation
-                    .map(existing -> {
-                        existing.setName(field.getName());
-                        existing.setDescription(field.getDescription());
-                        existing.setUrl(field.getUrl());
-                        return existing;
-                    })
-                    .orElseGet(() -> new ProductTranslation(entityId, locale,
-                            field.getName(), field.getDescription(), field.getUrl()));
-
-            productTranslationRepository.save(productTranslation);
-        });
+    public void deleteTranslations(TranslationObjectsEnum objectType, Long entityId) {
+        translationRepository.deleteAllByObjectTypeAndEntityId(objectType, entityId);
+        changed(objectType, List.of(entityId));
     }
 
-    @Override
-    public Map<String, LocalizedField> getTranslationsByProductId(Long entityId) {
-        List<ProductTranslation> productTranslationList = productTranslationRepository.findAllByEntityId(entityId);
-        Map<String, LocalizedField> localizedFieldMap = new HashMap<>();
-        productTranslationList.forEach(productTranslation ->
-                localizedFieldMap.put(productTranslation.getLocale(),
-                        new LocalizedField(productTranslation.getName(),
-                                productTranslation.getDescription(),
-                                productTranslation.getUrl())));
-        return localizedFieldMap;
-    }
+    // ---------------- BATCH ----------------
 
     @Override
-    public void deleteProductTranslation(Long entityId) {
-        productTranslationRepository.deleteAllByEntityId(entityId);
-    }
-
-    // ---------------- MIXTURES ----------------
-
-    @Override
-    public void createOrUpdateMixtureTranslation(Long entityId, Map<String, LocalizedField> localizedFieldMap) {
-        localizedFieldMap.forEach((locale, field) -> {
-            Optional<MixtureTranslation> optionalTranslation =
-                    mixtureTranslationRepository.findByEntityIdAndLocale(entityId, locale);
-
-            MixtureTranslation mixtureTranslation = optionalTranslation
-                    .map(existing -> {
-                        existing.setName(field.getName());
-                        existing.setDescription(field.getDescription());
-                        existing.setUrl(field.getUrl());
-                        return existing;
-                    })
-                    .orElseGet(() -> new MixtureTranslation(entityId, locale,
-                            field.getName(), field.getDescription(), field.getUrl()));
-
-            mixtureTranslationRepository.save(mixtureTranslation);
-        });
-    }
-
-    @Override
-    public Map<String, LocalizedField> getTranslationsByMixtureId(Long entityId) {
-        List<MixtureTranslation> mixtureTranslationList = mixtureTranslationRepository.findAllByEntityId(entityId);
-        Map<String, LocalizedField> localizedFieldMap = new HashMap<>();
-        mixtureTranslationList.forEach(mixtureTranslation ->
-                localizedFieldMap.put(mixtureTranslation.getLocale(),
-                        new LocalizedField(mixtureTranslation.getName(),
-                                mixtureTranslation.getDescription(),
-                                mixtureTranslation.getUrl())));
-        return localizedFieldMap;
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public TranslationBatchResponseEvent getTranslations(Collection<TranslationGetOrDeleteEvent> requests) {
+        Map<TranslationObjectsEnum, Set<Long>> entityIdsByType = requests.stream()
+                .filter(request -> request.getObjectType() != null && request.getEntityId() != null)
+                .collect(Collectors.groupingBy(TranslationGetOrDeleteEvent::getObjectType,
+                        () -> new EnumMap<>(TranslationObjectsEnum.class),
+                        Collectors.mapping(TranslationGetOrDeleteEvent::getEntityId, Collectors.toCollection(HashSet::new))));
+
+        TranslationBatchResponseEvent response = new TranslationBatchResponseEvent();
+        if (entityIdsByType.isEmpty()) {
+            return response;
+        }
+        if (translationSnapshot.isLoaded()) {
+            entityIdsByType.forEach((objectType, entityIds) -> entityIds.forEach(entityId ->
+                    response.put(objectType, entityId, translationSnapshot.get(objectType, entityId))));
+            return response;
+        }
+        // every requested entity is present in the response, even without translations
+        entityIdsByType.forEach((objectType, entityIds) ->
+                entityIds.forEach(entityId -> response.put(objectType, entityId, new HashMap<>())));
+
+        Set<Long> entityIds = entityIdsByType.values().stream()
+                .flatMap(Set::stream)
+                .collect(Collectors.toSet());
+        translationRepository.findAllByObjectTypeInAndEntityIdIn(entityIdsByType.keySet(), entityIds).stream()
+                .filter(translation -> entityIdsByType.get(translation.getObjectType()).contains(translation.getEntityId()))
+                .forEach(translation -> response.get(translation.getObjectType(), translation.getEntityId())
+                        .put(translation.getLocale(), localizedFieldOf(translation)));
+
+        log.debug("Resolved translations for {} entities of {} types", requests.size(), entityIdsByType.size());
+        return response;
     }
 
     @Override
-    public void deleteMixtureTranslation(Long entityId) {
-        mixtureTranslationRepository.deleteAllByEntityId(entityId);
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public TranslationBatchResponseEvent getTranslations(Collection<TranslationGetOrDeleteEvent> requests, String locale) {
+        TranslationBatchResponseEvent response = getTranslations(requests);
+        if (locale == null || locale.isBlank()) {
+            return response;
+        }
+        String defaultLocale = localeProjection.defaultLocale();
+        TranslationBatchResponseEvent projected = new TranslationBatchResponseEvent();
+        response.getTranslations().forEach((objectType, byEntityId) -> byEntityId.forEach((entityId, localizedFields) ->
+                projected.put(objectType, entityId, LocaleProjection.project(localizedFields, locale, defaultLocale))));
+        return projected;
     }
 
-    // ---------------- TAGS ----------------
-
     @Override
-    public void createOrUpdateTagTranslation(Long entityId, Map<String, LocalizedField> localizedFieldMap) {
-        localizedFieldMap.forEach((locale, field) -> {
-            Optional<TagTranslation> optionalTranslation =
-                    tagTranslationRepository.findByEntityIdAndLocale(entityId, locale);
-
-            TagTranslation tagTranslation = optionalTranslation
-                    .map(existing -> {
-                        existing.setName(field.getName());
-                        existing.setDescription(field.getDescription());
-                        existing.setUrl(field.getUrl());
-                        return existing;
-                    })
-                    .orElseGet(() -> new TagTranslation(entityId, locale,
-                            field.getName(), field.getDescription(), field.getUrl()));
-
-            tagTranslationRepository.save(tagTranslation);
+    public void saveTranslations(Collection<TranslationSaveEvent> requests) {
+        Map<TranslationObjectsEnum, List<TranslationSaveEvent>> requestsByType = requests.stream()
+                .filter(request -> request.getObjectType() != null && request.getEntityId() != null
+                        && request.getLocalizedFields() != null)
+                .collect(Collectors.groupingBy(TranslationSaveEvent::getObjectType,
+                        () -> new EnumMap<>(TranslationObjectsEnum.class), Collectors.toList()));
+
+        requestsByType.forEach((objectType, saves) -> {
+            List<TranslationRow> rows = new ArrayList<>();
+            saves.forEach(save -> rows.addAll(rowsOf(save.getEntityId(), save.getLocalizedFields())));
+            translationUpsertRepository.upsert(objectType, rows);
+            changed(objectType, saves.stream().map(TranslationSaveEvent::getEntityId).distinct().toList());
         });
+        log.debug("Saved translations for {} entities of {} types", requests.size(), requestsByType.size());
     }
 
-    @Override
-    public Map<String, LocalizedField> getTranslationsByTagId(Long entityId) {
-        List<TagTranslation> tagTranslationList = tagTranslationRepository.findAllByEntityId(entityId);
-        Map<String, LocalizedField> localizedFieldMap = new HashMap<>();
-        tagTranslationList.forEach(tagTranslation ->
-                localizedFieldMap.put(tagTranslation.getLocale(),
-                        new LocalizedField(tagTranslation.getName(),
-                                tagTranslation.getDescription(),
-                                tagTranslation.getUrl())));
-        return localizedFieldMap;
+    private static List<TranslationRow> rowsOf(Long entityId, Map<String, LocalizedField> localizedFieldMap) {
+        List<TranslationRow> rows = new ArrayList<>(localizedFieldMap.size());
+        localizedFieldMap.forEach((locale, field) -> rows.add(new TranslationRow(entityId, locale,
+                field.getName(), field.getDescription(), field.getUrl())));
+        return rows;
     }
 
-    @Override
-    public void deleteTagTranslation(Long entityId) {
-        tagTranslationRepository.deleteAllByEntityId(entityId);
+    private static LocalizedField localizedFieldOf(Translation translation) {
+        return new LocalizedField(translation.getName(), translation.getDescription(), translation.getUrl());
     }
 
-    // ---------------- EMAIL TEMPLATE ----------------
-
-    @Override
-    public void createOrUpdateEmailTemplateTranslation(Long entityId, Map<String, LocalizedField> localizedFieldMap) {
-        localizedFieldMap.forEach((locale, field) -> {
-            Optional<EmailTemplateTranslation> optionalTranslation =
-                    emailTemplateTranslationRepository.findByEntityIdAndLocale(entityId, locale);
-
-            EmailTemplateTranslation emailTemplateTranslation = optionalTranslation
-                    .map(existing -> {
-                        existing.setSubject(field.getName());
-                        existing.setBody(field.getDescription());
-                        return existing;
-                    })
-                    .orElseGet(() -> new EmailTemplateTranslation(entityId, locale,
-                            field.getName(), field.getDescription()));
-
-            emailTemplateTranslationRepository.save(emailTemplateTranslation);
-        });
-    }
-
-    @Override
-    public Map<String, LocalizedField> getTranslationsByEmailTemplateId(Long entityId) {
-        List<EmailTemplateTranslation> emailTemplateTranslationList = emailTemplateTranslationRepository.findAllByEntityId(entityId);
-        Map<String, LocalizedField> localizedFieldMap = new HashMap<>();
-        emailTemplateTranslationList.forEach(emailTemplateTranslation ->
-                localizedFieldMap.put(emailTemplateTranslation.getLocale(),
-                        new LocalizedField(emailTemplateTranslation.getSubject(),
-                                emailTemplateTranslation.getBody(), null)));
-        return localizedFieldMap;
-    }
-
-    @Override
-    public void deleteEmailTemplateTranslation(Long entityId) {
-        emailTemplateTranslationRepository.deleteAllByEntityId(entityId);
+    // Kafka publishes these after commit, see TranslationEventPublisher
+    private void changed(TranslationObjectsEnum objectType, List<Long> entityIds) {
+        applicationEventPublisher.publishEvent(new TranslationChangedEvent(objectType, entityIds));
     }
 }
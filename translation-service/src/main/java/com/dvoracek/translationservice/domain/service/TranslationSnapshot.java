@@ -0,0 +1,174 @@
+package com.dvoracek.translationservice.domain.service;
+
+import com.dvoracek.translationservice.domain.model.Translation;
+import com.dvoracek.translationservice.domain.repository.TranslationRepository;
+import com.dvoracekmartin.common.event.translation.LocalizedField;
+import com.dvoracekmartin.common.event.translation.TranslationChangedEvent;
+import com.dvoracekmartin.common.event.translation.TranslationObjectsEnum;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory copy of all translations, indexed by object type, entity id and locale.
+ * <p>
+ * Readers get the current immutable snapshot without any locking or database access. Writers build a new snapshot
+ * that shares everything but the changed object type and publish it with a single volatile write. The whole corpus
+ * is loaded when the application is ready, after that every committed change reloads only the changed entities.
+ * Locale keys are interned, so the few distinct locales exist once instead of once per translation.
+ * <p>
+ * Every reload reads the database and publishes the result under one lock. A reload that started later has read
+ * later commits, so it is also the one applied last, and an older read never replaces a newer one. The whole corpus
+ * is reloaded every {@code translation.snapshot.resync-interval} as well, which repairs changes whose event was lost.
+ */
+@Component
+@Slf4j
+public class TranslationSnapshot {
+
+    private final TranslationRepository translationRepository;
+    private final Map<String, String> locales = new ConcurrentHashMap<>();
+
+    // null until the first load, readers fall back to the database meanwhile
+    private volatile Map<TranslationObjectsEnum, Map<Long, Map<String, LocalizedField>>> translations;
+
+    public TranslationSnapshot(TranslationRepository translationRepository) {
+        this.translationRepository = translationRepository;
+    }
+
+    public boolean isLoaded() {
+        return translations != null;
+    }
+
+    /**
+     * Locale map of the entity, empty when it has no translations. The map is shared and unmodifiable.
+     */
+    public Map<String, LocalizedField> get(TranslationObjectsEnum objectType, Long entityId) {
+        Map<Long, Map<String, LocalizedField>> byEntityId = translations.get(objectType);
+        if (byEntityId == null) {
+            return Map.of();
+        }
+        return byEntityId.getOrDefault(entityId, Map.of());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void loadAll() {
+        load(translationRepository.findAll());
+    }
+
+    @Scheduled(fixedDelayString = "${translation.snapshot.resync-interval:PT10M}",
+            initialDelayString = "${translation.snapshot.resync-interval:PT10M}")
+    public void resync() {
+        try {
+            loadAll();
+        } catch (RuntimeException e) {
+            log.error("Failed to resync the translation snapshot, keeping the current one", e);
+        }
+    }
+
+    // runs after the commit of the change, or right away for changes outside a transaction
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void reload(TranslationChangedEvent event) {
+        if (!isLoaded() || event.getObjectType() == null || event.getEntityIds() == null || event.getEntityIds().isEmpty()) {
+            return;
+        }
+        apply(event.getObjectType(), event.getEntityIds(),
+                translationRepository.findAllByObjectTypeInAndEntityIdIn(List.of(event.getObjectType()), event.getEntityIds()));
+    }
+
+    /**
+     * Replaces the whole snapshot with the given translations.
+     */
+    public synchronized void load(Collection<Translation> all) {
+        Map<TranslationObjectsEnum, Map<Long, Map<String, LocalizedField>>> loaded = new EnumMap<>(TranslationObjectsEnum.class);
+        all.stream()
+                .collect(Collectors.groupingBy(Translation::getObjectType))
+                .forEach((objectType, translationsOfType) ->
+                        loaded.put(objectType, index(translationsOfType, new HashMap<>())));
+        translations = loaded;
+
+        Footprint footprint = footprint();
+        log.info("Loaded translation snapshot with {} entities and {} translations, about {} KB",
+                footprint.entities(), footprint.translations(), footprint.estimatedBytes() / 1024);
+    }
+
+    /**
+     * Replaces the translations of the given entities of one object type. Entities without translations in
+     * {@code current} are removed from the snapshot.
+     */
+    public synchronized void apply(TranslationObjectsEnum objectType, Collection<Long> entityIds, Collection<Translation> current) {
+        Map<TranslationObjectsEnum, Map<Long, Map<String, LocalizedField>>> previous = translations;
+        if (previous == null) {
+            return;
+        }
+        Map<Long, Map<String, LocalizedField>> byEntityId = new HashMap<>(previous.getOrDefault(objectType, Map.of()));
+        entityIds.forEach(byEntityId::remove);
+        index(current.stream().filter(translation -> translation.getObjectType() == objectType).toList(), byEntityId);
+
+        Map<TranslationObjectsEnum, Map<Long, Map<String, LocalizedField>>> next = new EnumMap<>(TranslationObjectsEnum.class);
+        next.putAll(previous);
+        next.put(objectType, byEntityId);
+        translations = next;
+    }
+
+    /**
+     * Rough heap footprint of the snapshot, assuming compressed references. Good enough to follow the trend.
+     */
+    public Footprint footprint() {
+        Map<TranslationObjectsEnum, Map<Long, Map<String, LocalizedField>>> snapshot = translations;
+        if (snapshot == null) {
+            return new Footprint(0, 0, 0);
+        }
+        long entities = 0;
+        long translationCount = 0;
+        long bytes = 0;
+        for (Map<Long, Map<String, LocalizedField>> byEntityId : snapshot.values()) {
+            // table slot, node and boxed id per entity
+            bytes += 48L * byEntityId.size() + 16;
+            for (Map<String, LocalizedField> byLocale : byEntityId.values()) {
+                entities++;
+                translationCount += byLocale.size();
+                // immutable map with a key and a value slot per locale
+                bytes += 16 + 8L * byLocale.size();
+                for (LocalizedField field : byLocale.values()) {
+                    bytes += 24 + sizeOf(field.getName()) + sizeOf(field.getDescription()) + sizeOf(field.getUrl());
+                }
+            }
+        }
+        for (String locale : locales.keySet()) {
+            bytes += sizeOf(locale);
+        }
+        return new Footprint(entities, translationCount, bytes);
+    }
+
+    private Map<Long, Map<String, LocalizedField>> index(Collection<Translation> translationsOfType,
+                                                         Map<Long, Map<String, LocalizedField>> byEntityId) {
+        translationsOfType.stream()
+                .collect(Collectors.groupingBy(Translation::getEntityId))
+                .forEach((entityId, translationsOfEntity) -> {
+                    Map<String, LocalizedField> byLocale = new HashMap<>();
+                    translationsOfEntity.forEach(translation -> byLocale.put(intern(translation.getLocale()),
+                            new LocalizedField(translation.getName(), translation.getDescription(), translation.getUrl())));
+                    byEntityId.put(entityId, Map.copyOf(byLocale));
+                });
+        return byEntityId;
+    }
+
+    private String intern(String locale) {
+        return locales.computeIfAbsent(locale, key -> key);
+    }
+
+    // header, hash and array reference plus the array, one byte per character for Latin-1 text
+    private static long sizeOf(String value) {
+        return value == null ? 0 : 24 + 16 + value.length();
+    }
+
+    public record Footprint(long entities, long translations, long estimatedBytes) {
+    }
+}
@@ -1,7 +1,6 @@
 package com.dvoracek.translationservice.v1;
 
 import com.dvoracek.translationservice.domain.service.TranslationService;
-import com.dvoracekmartin.common.event.translation.TranslationObjectsEnum;
 import com.dvoracekmartin.common.event.translation.TranslationSaveEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,17 +25,11 @@ public class TranslationAdminControllerV1 {
     @PostMapping("/save")
     public void saveTranslation(@RequestBody TranslationSaveEvent request) {
         log.info("Received translation save request: {}", request);
-        if (request.getObjectType() == TranslationObjectsEnum.CATEGORY) {
-            translationService.createOrUpdateCategoryTranslation(request.getEntityId(), request.getLocalizedFields());
-        } else if (request.getObjectType() == TranslationObjectsEnum.PRODUCT) {
-            translationService.createOrUpdateProductTranslation(request.getEntityId(), request.getLocalizedFields());
-        } if (request.getObjectType() == TranslationObjectsEnum.MIXTURE) {
-            translationService.createOrUpdateProductTranslation(request.getEntityId(), request.getLocalizedFields());
-        } if (request.getObjectType() == TranslationObjectsEnum.TAG) {
-            translationService.createOrUpdateProductTranslation(request.getEntityId(), request.getLocalizedFields());
-        } else {
+        if (request.getObjectType() == null) {
             log.warn("Unknown object type: {}", request.getObjectType());
+            return;
         }
+        translationService.createOrUpdateTranslation(request.getObjectType(), request.getEntityId(), request.getLocalizedFields());
     }
 
 }
@@ -2,8 +2,10 @@ package com.dvoracek.translationservice.v1;
 
 import com.dvoracek.translationservice.domain.service.TranslationService;
 import com.dvoracekmartin.common.event.translation.LocalizedField;
+import com.dvoracekmartin.common.event.translation.TranslationBatchGetEvent;
+import com.dvoracekmartin.common.event.translation.TranslationBatchResponseEvent;
+import com.dvoracekmartin.common.event.translation.TranslationBatchSaveEvent;
 import com.dvoracekmartin.common.event.translation.TranslationGetOrDeleteEvent;
-import com.dvoracekmartin.common.event.translation.TranslationObjectsEnum;
 import com.dvoracekmartin.common.event.translation.TranslationSaveEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,6 +13,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Map;
@@ -24,61 +27,53 @@ public class TranslationControllerV1 {
 
     private final TranslationService translationService;
 
+    /**
+     * Locale map of one entity. With {@code locale} only that locale is returned, holding the default locale's
+     * field when the entity is not translated to it.
+     */
     @PostMapping("/get")
-    public Map<String, LocalizedField> getTranslation(@RequestBody TranslationGetOrDeleteEvent request) {
-        log.info("Received translation request: {}", request);
+    public Map<String, LocalizedField> getTranslation(@RequestBody TranslationGetOrDeleteEvent request,
+                                                      @RequestParam(required = false) String locale) {
+        log.info("Received translation request: {}, locale {}", request, locale);
 
-        if (request.getObjectType() == TranslationObjectsEnum.CATEGORY) {
-            return translationService.getTranslationsByCategoryId(request.getEntityId());
-        } else if (request.getObjectType() == TranslationObjectsEnum.PRODUCT) {
-            return translationService.getTranslationsByProductId(request.getEntityId());
-        } else if (request.getObjectType() == TranslationObjectsEnum.MIXTURE) {
-            return translationService.getTranslationsByMixtureId(request.getEntityId());
-        } else if (request.getObjectType() == TranslationObjectsEnum.TAG) {
-            return translationService.getTranslationsByTagId(request.getEntityId());
-        } else if (request.getObjectType() == TranslationObjectsEnum.EMAIL_TEMPLATE) {
-            return translationService.getTranslationsByEmailTemplateId(request.getEntityId());
-        } else {
+        if (request.getObjectType() == null) {
             log.warn("Unknown object type: {}", request.getObjectType());
             return Map.of();
         }
+        return translationService.getTranslations(request.getObjectType(), request.getEntityId(), locale);
     }
 
+    @PostMapping("/get-batch")
+    public TranslationBatchResponseEvent getTranslations(@RequestBody TranslationBatchGetEvent request,
+                                                         @RequestParam(required = false) String locale) {
+        log.info("Received batch translation request for {} entities, locale {}", request.getRequests().size(), locale);
+        return translationService.getTranslations(request.getRequests(), locale);
+    }
 
     @PostMapping("/save")
     public void createOrUpdateTranslation(@RequestBody TranslationSaveEvent request) {
         log.info("Received translation save request: {}", request);
-        if (request.getObjectType() == TranslationObjectsEnum.CATEGORY) {
-            translationService.createOrUpdateCategoryTranslation(request.getEntityId(), request.getLocalizedFields());
-        } else if (request.getObjectType() == TranslationObjectsEnum.PRODUCT) {
-            translationService.createOrUpdateProductTranslation(request.getEntityId(), request.getLocalizedFields());
-        } else if (request.getObjectType() == TranslationObjectsEnum.MIXTURE) {
-            translationService.createOrUpdateMixtureTranslation(request.getEntityId(), request.getLocalizedFields());
-        } else if (request.getObjectType() == TranslationObjectsEnum.TAG) {
-            translationService.createOrUpdateTagTranslation(request.getEntityId(), request.getLocalizedFields());
-        }  else if (request.getObjectType() == TranslationObjectsEnum.EMAIL_TEMPLATE) {
-            translationService.createOrUpdateEmailTemplateTranslation(request.getEntityId(), request.getLocalizedFields());
-        } else {
+        if (request.getObjectType() == null) {
             log.warn("Unknown object type: {}", request.getObjectType());
+            return;
         }
+        translationService.createOrUpdateTranslation(request.getObjectType(), request.getEntityId(), request.getLocalizedFields());
+    }
+
+    @PostMapping("/save-batch")
+    public void createOrUpdateTranslations(@RequestBody TranslationBatchSaveEvent request) {
+        log.info("Received batch translation save request for {} entities", request.getRequests().size());
+        translationService.saveTranslations(request.getRequests());
     }
 
     @PostMapping("/delete")
     public void deleteTranslation(@RequestBody TranslationSaveEvent request) {
         log.info("Received translation delete request: {}", request);
 
-        if (request.getObjectType() == TranslationObjectsEnum.CATEGORY) {
-            translationService.deleteCategoryTranslation(request.getEntityId());
-        } else if (request.getObjectType() == TranslationObjectsEnum.PRODUCT) {
-            translationService.deleteProductTranslation(request.getEntityId());
-        } else if (request.getObjectType() == TranslationObjectsEnum.MIXTURE) {
-            translationService.deleteMixtureTranslation(request.getEntityId());
-        } else if (request.getObjectType() == TranslationObjectsEnum.TAG) {
-            translationService.deleteTagTranslation(request.getEntityId());
-        } else if (request.getObjectType() == TranslationObjectsEnum.EMAIL_TEMPLATE) {
-            translationService.deleteEmailTemplateTranslation(request.getEntityId());
-        } else {
+        if (request.getObjectType() == null) {
             log.warn("Unknown object type: {}", request.getObjectType());
+            return;
         }
+        translationService.deleteTranslations(request.getObjectType(), request.getEntityId());
     }
 }
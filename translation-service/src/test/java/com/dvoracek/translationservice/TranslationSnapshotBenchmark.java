@@ -0,0 +1,89 @@
+package com.dvoracek.translationservice;
+
+import com.dvoracek.translationservice.domain.model.Translation;
+import com.dvoracek.translationservice.domain.service.TranslationSnapshot;
+import com.dvoracekmartin.common.event.translation.LocalizedField;
+import com.dvoracekmartin.common.event.translation.TranslationObjectsEnum;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup latency of the translation snapshot, compared with building the locale map out of the rows of one
+ * entity as the database path does after its query. Prints the estimated footprint of the snapshot at setup.
+ * <p>
+ * Run the main method from the test classpath, it is not part of the test suite.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TranslationSnapshotBenchmark {
+
+    private static final List<String> LOCALES = List.of("cs", "en", "de", "fr", "es", "it", "pl", "sk", "hu", "nl");
+    private static final List<TranslationObjectsEnum> TYPES = List.of(
+            TranslationObjectsEnum.PRODUCT, TranslationObjectsEnum.MIXTURE, TranslationObjectsEnum.CATEGORY);
+
+    @Param({"1000", "10000"})
+    private int entitiesPerType;
+
+    private TranslationSnapshot snapshot;
+    private Map<Long, List<Translation>> productRows;
+
+    @Setup
+    public void setUp() {
+        List<Translation> all = new ArrayList<>();
+        for (TranslationObjectsEnum objectType : TYPES) {
+            for (long entityId = 1; entityId <= entitiesPerType; entityId++) {
+                for (String locale : LOCALES) {
+                    // new String instances, the snapshot interns them
+                    all.add(new Translation(objectType, entityId, new String(locale),
+                            objectType + " " + entityId + " " + locale,
+                            "Description of " + objectType + " " + entityId + " in " + locale,
+                            "/" + locale + "/" + objectType.name().toLowerCase(Locale.ROOT) + "/" + entityId));
+                }
+            }
+        }
+        snapshot = new TranslationSnapshot(null);
+        snapshot.load(all);
+
+        productRows = new HashMap<>();
+        all.stream()
+                .filter(translation -> translation.getObjectType() == TranslationObjectsEnum.PRODUCT)
+                .forEach(translation -> productRows.computeIfAbsent(translation.getEntityId(), id -> new ArrayList<>()).add(translation));
+
+        TranslationSnapshot.Footprint footprint = snapshot.footprint();
+        System.out.printf("%nSnapshot of %d entities, %d translations: about %d KB (%d bytes per translation)%n",
+                footprint.entities(), footprint.translations(), footprint.estimatedBytes() / 1024,
+                footprint.estimatedBytes() / Math.max(1, footprint.translations()));
+    }
+
+    @Benchmark
+    public void snapshotLookup(Blackhole blackhole) {
+        long entityId = ThreadLocalRandom.current().nextLong(1, entitiesPerType + 1);
+        blackhole.consume(snapshot.get(TranslationObjectsEnum.PRODUCT, entityId));
+    }
+
+    @Benchmark
+    public void buildFromRows(Blackhole blackhole) {
+        long entityId = ThreadLocalRandom.current().nextLong(1, entitiesPerType + 1);
+        Map<String, LocalizedField> localizedFieldMap = new HashMap<>();
+        productRows.get(entityId).forEach(translation -> localizedFieldMap.put(translation.getLocale(),
+                new LocalizedField(translation.getName(), translation.getDescription(), translation.getUrl())));
+        blackhole.consume(localizedFieldMap);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TranslationSnapshotBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
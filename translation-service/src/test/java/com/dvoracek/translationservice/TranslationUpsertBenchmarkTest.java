@@ -0,0 +1,113 @@
+package com.dvoracek.translationservice;
+
+import com.dvoracek.translationservice.domain.model.Translation;
+import com.dvoracek.translationservice.domain.repository.TranslationRepository;
+import com.dvoracek.translationservice.domain.repository.TranslationUpsertRepository;
+import com.dvoracek.translationservice.domain.repository.TranslationUpsertRepository.TranslationRow;
+import com.dvoracekmartin.common.event.translation.TranslationObjectsEnum;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the find-then-save translation writes with the batched upsert.
+ * <p>
+ * Runs only with {@code -Dtranslation.benchmark=true}. It uses an in-memory H2 database unless
+ * {@code -Dspring.datasource.url=...} (with username and password) points it at a scratch PostgreSQL database,
+ * the schema of which is recreated.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.liquibase.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(TranslationUpsertRepository.class)
+@EnabledIfSystemProperty(named = "translation.benchmark", matches = "true")
+@Slf4j
+class TranslationUpsertBenchmarkTest {
+
+    private static final int ENTITIES = 500;
+    private static final List<String> LOCALES = List.of("cs", "en", "de", "fr", "es", "it", "pl", "sk", "hu", "nl");
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private TranslationRepository translationRepository;
+    @Autowired
+    private TranslationUpsertRepository translationUpsertRepository;
+
+    @Test
+    void upsertAgainstFindThenSave() {
+        // warm up both paths before measuring
+        findThenSave(rows(1_000_000, 20, "warm-up"));
+        upsert(rows(2_000_000, 20, "warm-up"));
+
+        long findThenSaveInsert = measure(() -> findThenSave(rows(0, ENTITIES, "created")));
+        long findThenSaveUpdate = measure(() -> findThenSave(rows(0, ENTITIES, "updated")));
+        long upsertInsert = measure(() -> upsert(rows(ENTITIES, ENTITIES, "created")));
+        long upsertUpdate = measure(() -> upsert(rows(ENTITIES, ENTITIES, "updated")));
+
+        log.info("{} products x {} locales: find-then-save insert {} ms, update {} ms; upsert insert {} ms, update {} ms",
+                ENTITIES, LOCALES.size(), findThenSaveInsert, findThenSaveUpdate, upsertInsert, upsertUpdate);
+
+        List<Translation> upserted = translationRepository.findAllByObjectTypeInAndEntityIdIn(List.of(TranslationObjectsEnum.PRODUCT),
+                rows(ENTITIES, ENTITIES, "").stream().map(TranslationRow::entityId).distinct().toList());
+        assertEquals(ENTITIES * LOCALES.size(), upserted.size());
+        upserted.forEach(translation -> assertEquals("updated " + translation.getLocale(), translation.getName()));
+    }
+
+    // the write path before the upsert: one lookup and one save per locale
+    private void findThenSave(List<TranslationRow> rows) {
+        rows.forEach(row -> {
+            Translation translation = entityManager.getEntityManager().createQuery(
+                            "select t from Translation t where t.objectType = :objectType and t.entityId = :entityId and t.locale = :locale",
+                            Translation.class)
+                    .setParameter("objectType", TranslationObjectsEnum.PRODUCT)
+                    .setParameter("entityId", row.entityId())
+                    .setParameter("locale", row.locale())
+                    .getResultStream()
+                    .findFirst()
+                    .orElseGet(() -> new Translation(TranslationObjectsEnum.PRODUCT, row.entityId(), row.locale(), null, null, null));
+            translation.setName(row.name());
+            translation.setDescription(row.description());
+            translation.setUrl(row.url());
+            translationRepository.save(translation);
+        });
+    }
+
+    private void upsert(List<TranslationRow> rows) {
+        translationUpsertRepository.upsert(TranslationObjectsEnum.PRODUCT, rows);
+    }
+
+    private long measure(Runnable writes) {
+        long start = System.nanoTime();
+        writes.run();
+        entityManager.flush();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        entityManager.clear();
+        return millis;
+    }
+
+    private static List<TranslationRow> rows(long firstEntityId, int entities, String name) {
+        List<TranslationRow> rows = new ArrayList<>(entities * LOCALES.size());
+        for (long entityId = firstEntityId; entityId < firstEntityId + entities; entityId++) {
+            for (String locale : LOCALES) {
+                rows.add(new TranslationRow(entityId, locale, name + " " + locale, "description", "url-" + entityId));
+            }
+        }
+        return rows;
+    }
+}